@@ -0,0 +1,119 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link LongIdMap} with a {@link HashMap} keyed by
+ * {@link AbstractIdentifier}&lt;Long&gt;s. The {@code get} benchmarks measure
+ * lookup latency with keys in random order. The {@code populate} benchmarks
+ * build a map of {@code size} entries from raw ids, as when loading from a
+ * database; run them with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} to see each map's footprint, including the
+ * garbage left by growing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LongIdMapBenchmark {
+
+  static class BoxedId extends AbstractIdentifier<Long> {
+    private static final long serialVersionUID = 1L;
+    BoxedId(long id) {
+      super(id);
+    }
+  }
+
+  static class UnboxedId extends AbstractLongIdentifier {
+    private static final long serialVersionUID = 1L;
+    UnboxedId(long id) {
+      super(id);
+    }
+  }
+
+  private static final Object VALUE = new Object();
+
+  @Param({ "1000", "100000" })
+  int size;
+
+  private long[] ids;
+  private BoxedId[] boxedKeys;
+  private UnboxedId[] unboxedKeys;
+  private Map<BoxedId, Object> hashMap;
+  private LongIdMap<UnboxedId, Object> idMap;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    ids = new long[size];
+    boxedKeys = new BoxedId[size];
+    unboxedKeys = new UnboxedId[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = 1000000L + random.nextInt(size * 10);
+      boxedKeys[i] = new BoxedId(ids[i]);
+      unboxedKeys[i] = new UnboxedId(ids[i]);
+    }
+    hashMap = populateHashMap();
+    idMap = populateIdMap();
+  }
+
+  @Benchmark
+  public Object hashMapGet() {
+    next = (next + 1) % size;
+    return hashMap.get(boxedKeys[next]);
+  }
+
+  @Benchmark
+  public Object idMapGet() {
+    next = (next + 1) % size;
+    return idMap.get(unboxedKeys[next]);
+  }
+
+  @Benchmark
+  public Map<BoxedId, Object> populateHashMap() {
+    Map<BoxedId, Object> map = new HashMap<BoxedId, Object>();
+    for (long id : ids) {
+      map.put(new BoxedId(id), VALUE);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public LongIdMap<UnboxedId, Object> populateIdMap() {
+    LongIdMap<UnboxedId, Object> map = new LongIdMap<UnboxedId, Object>(UnboxedId.class);
+    for (long id : ids) {
+      map.put(new UnboxedId(id), VALUE);
+    }
+    return map;
+  }
+
+}
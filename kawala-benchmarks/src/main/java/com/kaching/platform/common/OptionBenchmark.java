@@ -0,0 +1,135 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * Measures the usual ways of consuming an {@link Option}, against the
+ * {@code abstractIterator} baselines which replicate the previous iterators.
+ * Run with {@code -prof gc}: every benchmark should report no allocation once
+ * compiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OptionBenchmark {
+
+  private final Option<String> some = Option.some("value");
+  private final Option<String> none = Option.none();
+
+  private static final Predicate<String> NOT_EMPTY = new Predicate<String>() {
+    @Override
+    public boolean apply(String value) {
+      return !value.isEmpty();
+    }
+  };
+
+  private static final Supplier<String> DEFAULT = new Supplier<String>() {
+    @Override
+    public String get() {
+      return "default";
+    }
+  };
+
+  @Benchmark
+  public void iterateSome(Blackhole blackhole) {
+    for (String value : some) {
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  public void iterateNone(Blackhole blackhole) {
+    for (String value : none) {
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  public void abstractIteratorSome(Blackhole blackhole) {
+    for (String value : abstractIterable(some)) {
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  public void abstractIteratorNone(Blackhole blackhole) {
+    for (String value : abstractIterable(none)) {
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  public void ifDefinedSome(final Blackhole blackhole) {
+    some.ifDefined(new Consumer<String>() {
+      @Override
+      public void accept(String value) {
+        blackhole.consume(value);
+      }
+    });
+  }
+
+  @Benchmark
+  public Option<String> filterSome() {
+    return some.filter(NOT_EMPTY);
+  }
+
+  @Benchmark
+  public String orElseGetNone() {
+    return none.orElseGet(DEFAULT);
+  }
+
+  /**
+   * Iterates like the previous implementation, with a fresh
+   * {@link AbstractIterator} for each loop.
+   */
+  private static Iterable<String> abstractIterable(final Option<String> option) {
+    return new Iterable<String>() {
+      @Override
+      public Iterator<String> iterator() {
+        return new AbstractIterator<String>() {
+          private boolean produce = option.isDefined();
+          @Override
+          protected String computeNext() {
+            if (produce) {
+              produce = false;
+              return option.getOrThrow();
+            }
+            return endOfData();
+          }
+        };
+      }
+    };
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares membership queries on a {@link RangeSet} with a linear scan of a
+ * list of {@link Range}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RangeSetBenchmark {
+
+  @Param({ "10", "1000" })
+  private int ranges;
+
+  private List<Range> list;
+  private RangeSet set;
+  private int[] queries;
+  private int query;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    list = new ArrayList<Range>(ranges);
+    int start = 0;
+    for (int i = 0; i < ranges; i++) {
+      start += 1 + random.nextInt(10);
+      int end = start + 1 + random.nextInt(10);
+      list.add(new Range(start, end));
+      start = end;
+    }
+    set = RangeSet.of(list.toArray(new Range[ranges]));
+    queries = new int[1024];
+    for (int i = 0; i < queries.length; i++) {
+      queries[i] = random.nextInt(start);
+    }
+  }
+
+  @Benchmark
+  public boolean containsRangeSet() {
+    return set.contains(nextQuery());
+  }
+
+  @Benchmark
+  public boolean containsListScan() {
+    int index = nextQuery();
+    for (Range range : list) {
+      if (range.contains(index)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int nextQuery() {
+    return queries[query++ & (queries.length - 1)];
+  }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaching.platform.common.Strings.Template;
+
+/**
+ * Compares {@link Strings#format(String, Object...)} with precompiled
+ * {@link Template}s, with and without reusing the destination builder. Run
+ * with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StringsBenchmark {
+
+  private static final String FORMAT =
+      "unable to process order %s for account %s, retrying in %s ms";
+  private static final Template TEMPLATE = Strings.template(FORMAT);
+
+  private final StringBuilder builder = new StringBuilder(128);
+  private final String order = "BUY 100 VTI";
+  private final String account = "1234-5678";
+  private final String delay = "250";
+
+  @Benchmark
+  public String format() {
+    return Strings.format(FORMAT, order, account, delay);
+  }
+
+  @Benchmark
+  public String template() {
+    return TEMPLATE.format(order, account, delay);
+  }
+
+  @Benchmark
+  public int templateAppendTo() {
+    builder.setLength(0);
+    return TEMPLATE.appendTo(builder, order, account, delay).length();
+  }
+
+}
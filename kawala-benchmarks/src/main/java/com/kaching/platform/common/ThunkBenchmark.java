@@ -0,0 +1,126 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Thunk} with the previous implementation, which published
+ * the value by swapping getter objects and serialized the first evaluation
+ * using a {@code synchronized} getter. Run with {@code -prof gc} to compare
+ * allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ThunkBenchmark {
+
+  private Thunk<String> thunk;
+  private GetterThunk<String> getterThunk;
+
+  @Setup
+  public void setUp() {
+    thunk = new Thunk<String>() {
+      @Override
+      protected String compute() {
+        return "value";
+      }
+    };
+    thunk.get();
+    getterThunk = new GetterThunk<String>() {
+      @Override
+      protected String compute() {
+        return "value";
+      }
+    };
+    getterThunk.get();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String evaluatedContended() {
+    return thunk.get();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String evaluatedContendedGetter() {
+    return getterThunk.get();
+  }
+
+  @Benchmark
+  public String createAndEvaluate() {
+    return new Thunk<String>() {
+      @Override
+      protected String compute() {
+        return "value";
+      }
+    }.get();
+  }
+
+  @Benchmark
+  public String createAndEvaluateGetter() {
+    return new GetterThunk<String>() {
+      @Override
+      protected String compute() {
+        return "value";
+      }
+    }.get();
+  }
+
+  /**
+   * The previous implementation of {@link Thunk}, kept as a baseline.
+   */
+  abstract static class GetterThunk<T> {
+
+    private volatile Getter<T> threadsafeGetter = new Getter<T>() {
+        Getter<T> getter = new Getter<T>() {
+          T get() {
+            final T value = compute();
+            threadsafeGetter = getter = new Getter<T>() {
+              T get() {
+                return value;
+              }
+            };
+            return value;
+          }
+        };
+        synchronized T get() {
+          return getter.get();
+        }
+      };
+
+    final T get() {
+      return threadsafeGetter.get();
+    }
+
+    protected abstract T compute();
+
+    private abstract static class Getter<T> { abstract T get(); }
+
+  }
+
+}
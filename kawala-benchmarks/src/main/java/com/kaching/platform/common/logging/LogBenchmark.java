@@ -0,0 +1,95 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.varia.NullAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Log} statements at disabled and enabled levels. Run with
+ * {@code -prof gc}: statements at disabled levels should not allocate.
+ * Enabled statements log to a {@link NullAppender}, which never renders
+ * messages, and throttled statements that are all suppressed measure the
+ * cost of counting them per call site.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LogBenchmark {
+
+  private final Log disabled = Log.getLog("benchmark.disabled");
+  private final Log enabled = Log.getLog("benchmark.enabled");
+
+  private final String order = "BUY 100 VTI";
+  private final Long account = 12345678L;
+  private final Long delay = 250L;
+
+  @Setup
+  public void setUp() {
+    Logger.getLogger("benchmark.disabled").setLevel(Level.WARN);
+    Logger logger = Logger.getLogger("benchmark.enabled");
+    logger.setLevel(Level.INFO);
+    logger.setAdditivity(false);
+    logger.addAppender(new NullAppender());
+  }
+
+  @Benchmark
+  public void disabledFixedArity() {
+    disabled.info("order %s for account %s delayed by %s ms", order, account, delay);
+  }
+
+  @Benchmark
+  public void disabledVarargs() {
+    disabled.info("%s %s %s %s %s", order, account, delay, order, account);
+  }
+
+  @Benchmark
+  public void disabledBuilder() {
+    disabled.atInfo()
+        .addArgument(order)
+        .addArgument(account)
+        .log("order %s for account %s");
+  }
+
+  @Benchmark
+  public void enabledFixedArity() {
+    enabled.info("order %s for account %s delayed by %s ms", order, account, delay);
+  }
+
+  @Benchmark
+  public void suppressedRateLimited() {
+    enabled.rateLimited(0).warn("order %s for account %s", order, account);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void suppressedRateLimitedContended() {
+    enabled.rateLimited(0).warn("order %s for account %s", order, account);
+  }
+
+}
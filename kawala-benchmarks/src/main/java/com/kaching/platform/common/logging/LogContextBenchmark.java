@@ -0,0 +1,80 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Hashtable;
+
+import org.apache.log4j.MDC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaching.platform.common.logging.Log.LogContextMode;
+
+/**
+ * Measures carrying a log context of five pairs to a task: snapshotting it
+ * and running the task with it, against copying log4j's MDC table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LogContextBenchmark {
+
+  private final Runnable task = new Runnable() {
+    @Override
+    public void run() {
+    }
+  };
+
+  @Setup
+  public void setUp() {
+    Log.setLogContextMode(LogContextMode.THREAD_LOCAL);
+    for (int i = 0; i < 5; i++) {
+      Log.logContextPut("key" + i, i);
+      MDC.put("key" + i, i);
+    }
+  }
+
+  @Benchmark
+  public Object snapshot() {
+    return LogContext.current();
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public Object copyMdc() {
+    return ((Hashtable<String, Object>) MDC.getContext()).clone();
+  }
+
+  @Benchmark
+  public void wrapAndRun() {
+    Log.withCurrentLogContext(task).run();
+  }
+
+  @Benchmark
+  public void putAndRemove() {
+    Log.logContextPut("order", 1);
+    Log.logContextRemove("order");
+  }
+
+}
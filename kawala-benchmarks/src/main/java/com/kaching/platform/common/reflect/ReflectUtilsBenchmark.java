@@ -0,0 +1,101 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.reflect;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading an inherited field and invoking a method reflectively:
+ * through {@link ReflectUtils#getField(Object, String)}, through cached
+ * accessors and invokers, and through plain {@link Field} and {@link Method}
+ * objects resolved ahead of time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReflectUtilsBenchmark {
+
+  static class Parent {
+    String name = "parent";
+
+    String greet(String greeting) {
+      return greeting;
+    }
+  }
+
+  static class Child extends Parent {
+    int value = 42;
+  }
+
+  private final Child child = new Child();
+  private Field field;
+  private Method method;
+  private FieldAccessor accessor;
+  private MethodInvoker invoker;
+
+  @Setup
+  public void setUp() throws Exception {
+    field = Parent.class.getDeclaredField("name");
+    field.setAccessible(true);
+    method = Parent.class.getDeclaredMethod("greet", String.class);
+    method.setAccessible(true);
+    accessor = ReflectUtils.fieldAccessor(Child.class, "name");
+    invoker = ReflectUtils.methodInvoker(Child.class, "greet", String.class);
+  }
+
+  @Benchmark
+  public Object getField() {
+    return ReflectUtils.getField(child, "name");
+  }
+
+  @Benchmark
+  public Object fieldAccessorLookup() {
+    return ReflectUtils.fieldAccessor(Child.class, "name").get(child);
+  }
+
+  @Benchmark
+  public Object fieldAccessor() {
+    return accessor.get(child);
+  }
+
+  @Benchmark
+  public Object reflectedField() throws Exception {
+    return field.get(child);
+  }
+
+  @Benchmark
+  public Object methodInvoker() {
+    return invoker.invoke(child, "hello");
+  }
+
+  @Benchmark
+  public Object reflectedMethod() throws Exception {
+    return method.invoke(child, "hello");
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.types;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Types#isInstance(Type, Type)} and
+ * {@link Types#isAssignableFrom(Type, Type)} on deeply nested generic types,
+ * with and without memoization. The scheme and the instance are reflected
+ * from fields, as when resolving converters, and the instance is compared
+ * against a structurally equal copy built by {@link ParameterizedTypeImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TypesBenchmark {
+
+  static class Fields {
+    Map<String, ? extends List<? extends Set<? extends Map<Integer, ?>>>> scheme;
+    Map<String, ArrayList<Set<Map<Integer, List<String>>>>> instance;
+    List<? extends Map<String, ? extends List<? extends Set<?>>>> list;
+    ArrayList<Map<String, ArrayList<Set<Long>>>> arrayList;
+  }
+
+  private Type scheme;
+  private Type instance;
+  private Type copy;
+  private Type list;
+  private Type arrayList;
+
+  @Setup
+  public void setUp() throws Exception {
+    scheme = Fields.class.getDeclaredField("scheme").getGenericType();
+    instance = Fields.class.getDeclaredField("instance").getGenericType();
+    list = Fields.class.getDeclaredField("list").getGenericType();
+    arrayList = Fields.class.getDeclaredField("arrayList").getGenericType();
+    copy = new ParameterizedTypeImpl(Map.class, new Type[] {
+        String.class,
+        new ParameterizedTypeImpl(ArrayList.class, new Type[] {
+            new ParameterizedTypeImpl(Set.class, new Type[] {
+                new ParameterizedTypeImpl(Map.class, new Type[] {
+                    Integer.class,
+                    new ParameterizedTypeImpl(List.class, new Type[] {
+                        String.class }) }) }) }) });
+  }
+
+  @Benchmark
+  public boolean isInstanceDeep() {
+    return Types.isInstance(scheme, instance);
+  }
+
+  @Benchmark
+  public boolean isInstanceDeepUncached() {
+    return Types.computeIsInstance(scheme, instance);
+  }
+
+  @Benchmark
+  public boolean isInstanceOfCopy() {
+    return Types.isInstance(copy, instance);
+  }
+
+  @Benchmark
+  public boolean isInstanceOfCopyUncached() {
+    return Types.computeIsInstance(copy, instance);
+  }
+
+  @Benchmark
+  public boolean isAssignableFromDeep() {
+    return Types.isAssignableFrom(list, arrayList);
+  }
+
+  @Benchmark
+  public boolean isAssignableFromDeepUncached() {
+    return Types.computeIsAssignableFrom(list, arrayList);
+  }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.types;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaching.platform.converters.Converter;
+
+/**
+ * Measures {@link Unification#getActualTypeArgument(Class, Class, int)} on a
+ * converter three levels below {@link Converter}, against computing the type
+ * arguments of its supertypes on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UnificationBenchmark {
+
+  abstract static class MapConverter<K, V> implements Converter<Map<K, List<V>>> {}
+  abstract static class StringKeyedConverter<V> extends MapConverter<String, V> {}
+  static class StringToIntegersConverter extends StringKeyedConverter<Integer> {
+    @Override public String toString(Map<String, List<Integer>> value) { return null; }
+    @Override public Map<String, List<Integer>> fromString(String representation) { return null; }
+  }
+
+  @Benchmark
+  public Type memoized() {
+    return Unification.getActualTypeArgument(
+        StringToIntegersConverter.class, Converter.class, 0);
+  }
+
+  @Benchmark
+  public Type computed() {
+    return Unification.computeSupertypeArguments(
+        StringToIntegersConverter.class).get(Converter.class)[0];
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.kaching.platform.common.Option;
+
+/**
+ * Measures {@link NumberedEnum#valueOf(Class, int)} on a densely and a
+ * sparsely numbered enum, against the previous implementation, a
+ * {@link LoadingCache} of {@link ImmutableMap}s keyed by boxed numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NumberedEnumBenchmark {
+
+  enum Status implements NumberedValue {
+    NEW(1), OPEN(2), PENDING(3), APPROVED(4), REJECTED(5), CLOSED(7), ARCHIVED(8);
+
+    private final int number;
+
+    Status(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int getNumber() {
+      return number;
+    }
+  }
+
+  enum Code implements NumberedValue {
+    A(10), B(200), C(3000), D(40000), E(500000), F(6000000), G(70000000);
+
+    private final int number;
+
+    Code(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int getNumber() {
+      return number;
+    }
+  }
+
+  private static final LoadingCache<Class<?>, Map<Integer, Enum<?>>> MAPPINGS =
+      CacheBuilder.newBuilder().build(new CacheLoader<Class<?>, Map<Integer, Enum<?>>>() {
+        @Override
+        public Map<Integer, Enum<?>> load(Class<?> from) {
+          ImmutableMap.Builder<Integer, Enum<?>> builder = ImmutableMap.builder();
+          for (Object value : from.getEnumConstants()) {
+            builder.put(((NumberedValue) value).getNumber(), (Enum<?>) value);
+          }
+          return builder.build();
+        }
+      });
+
+  private final int[] statusNumbers = { 1, 2, 3, 4, 5, 6, 7, 8 };
+  private final int[] codeNumbers = { 10, 200, 3000, 40000, 500000, 6000000, 70000000, 11 };
+  private int next;
+
+  @Benchmark
+  public Option<Status> dense() {
+    next = (next + 1) & 7;
+    return NumberedEnum.valueOf(Status.class, statusNumbers[next]);
+  }
+
+  @Benchmark
+  public Option<Status> denseLoadingCache() {
+    next = (next + 1) & 7;
+    return previousValueOf(Status.class, statusNumbers[next]);
+  }
+
+  @Benchmark
+  public Option<Code> sparse() {
+    next = (next + 1) & 7;
+    return NumberedEnum.valueOf(Code.class, codeNumbers[next]);
+  }
+
+  @Benchmark
+  public Option<Code> sparseLoadingCache() {
+    next = (next + 1) & 7;
+    return previousValueOf(Code.class, codeNumbers[next]);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E extends Enum<E> & NumberedValue> Option<E> previousValueOf(
+      Class<E> type, int number) {
+    return Option.of((E) MAPPINGS.getUnchecked(type).get(number));
+  }
+
+}
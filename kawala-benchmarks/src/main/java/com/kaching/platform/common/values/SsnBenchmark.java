@@ -0,0 +1,88 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating and validating {@link Ssn}s, with and without dashes,
+ * validating a column of 1,000 SSNs of which about one in ten is invalid, and
+ * loading the valid ones into an {@link SsnArray}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SsnBenchmark {
+
+  private final String plain = "123456789";
+  private final String dashed = "123-45-6789";
+  private final List<String> column = new ArrayList<String>();
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      int area = random.nextInt(10) == 0 ? 666 : 1 + random.nextInt(733);
+      column.add(String.format("%03d-%02d-%04d",
+          area, 1 + random.nextInt(99), 1 + random.nextInt(9999)));
+    }
+  }
+
+  @Benchmark
+  public Ssn newSsn() {
+    return new Ssn(plain);
+  }
+
+  @Benchmark
+  public Ssn newSsnWithDashes() {
+    return new Ssn(dashed);
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return Ssn.isValid(dashed);
+  }
+
+  @Benchmark
+  public int[] invalidIndexes() {
+    return Ssn.invalidIndexes(column);
+  }
+
+  @Benchmark
+  public SsnArray loadColumn() {
+    SsnArray ssns = new SsnArray(column.size());
+    for (String ssn : column) {
+      if (Ssn.isValid(ssn)) {
+        ssns.add(ssn);
+      }
+    }
+    return ssns;
+  }
+
+}
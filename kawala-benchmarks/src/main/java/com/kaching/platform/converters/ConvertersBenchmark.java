@@ -0,0 +1,110 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Benchmarks the converters which are derived from the target type:
+ * {@link EnumConverter}, {@link CollectionOfElementsConverter} and
+ * {@link StringConstructorConverter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConvertersBenchmark {
+
+  enum Status { PENDING, OPEN, CLOSED, CANCELLED }
+
+  private EnumConverter<Status> enumConverter;
+  private CollectionOfElementsConverter<List<Integer>> listConverter;
+  private CollectionOfElementsConverter<Set<Integer>> setConverter;
+  private StringConstructorConverter<BigDecimal> stringConstructorConverter;
+  private List<Integer> list;
+  private Set<Integer> set;
+  private BigDecimal decimal;
+
+  @Setup
+  public void setUp() throws Exception {
+    enumConverter = new EnumConverter<Status>(Status.class);
+    listConverter = new CollectionOfElementsConverter<List<Integer>>(
+        List.class, NativeConverters.C_INT);
+    setConverter = new CollectionOfElementsConverter<Set<Integer>>(
+        Set.class, NativeConverters.C_INT);
+    stringConstructorConverter = new StringConstructorConverter<BigDecimal>(
+        BigDecimal.class.getConstructor(String.class));
+    list = ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8);
+    set = ImmutableSet.of(1, 2, 3, 4, 5, 6, 7, 8);
+    decimal = new BigDecimal("1234.5678");
+  }
+
+  @Benchmark
+  public Status enumFromString() {
+    return enumConverter.fromString("closed");
+  }
+
+  @Benchmark
+  public String enumToString() {
+    return enumConverter.toString(Status.CLOSED);
+  }
+
+  @Benchmark
+  public List<Integer> listFromString() {
+    return listConverter.fromString("1,2,3,4,5,6,7,8");
+  }
+
+  @Benchmark
+  public String listToString() {
+    return listConverter.toString(list);
+  }
+
+  @Benchmark
+  public Set<Integer> setFromString() {
+    return setConverter.fromString("1,2,3,4,5,6,7,8");
+  }
+
+  @Benchmark
+  public String setToString() {
+    return setConverter.toString(set);
+  }
+
+  @Benchmark
+  public BigDecimal stringConstructorFromString() {
+    return stringConstructorConverter.fromString("1234.5678");
+  }
+
+  @Benchmark
+  public String stringConstructorToString() {
+    return stringConstructorConverter.toString(decimal);
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.kaching.platform.common.Option;
+
+/**
+ * Benchmarks the steady state use of an {@link Instantiator}: creating
+ * instances from the three supported input shapes and destantiating them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InstantiatorBenchmark {
+
+  enum Color { RED, GREEN, BLUE }
+
+  /**
+   * A value exercising native, string constructor, enum, collection and
+   * {@link Option} converters.
+   */
+  static class Value {
+    private final int id;
+    private final String name;
+    private final Option<Long> amount;
+    private final Color color;
+    private final List<Integer> lots;
+    Value(int id, String name, Option<Long> amount, Color color, List<Integer> lots) {
+      this.id = id;
+      this.name = name;
+      this.amount = amount;
+      this.color = color;
+      this.lots = lots;
+    }
+  }
+
+  private Instantiator<Value> instantiator;
+  private Instantiator<Value> instrumented;
+  private List<String> values;
+  private Map<String, String> namedValues;
+  private Value instance;
+
+  @Setup
+  public void setUp() {
+    instantiator = Instantiators.createInstantiator(Value.class);
+    values = ImmutableList.of("42", "Jack Bauer", "1000", "green", "1,2,3");
+    namedValues = ImmutableMap.<String, String> builder()
+        .put("id", "42")
+        .put("name", "Jack Bauer")
+        .put("amount", "1000")
+        .put("color", "green")
+        .put("lots", "1,2,3")
+        .build();
+    instance = instantiator.newInstance(values);
+    instrumented = Instantiators.createInstantiator(Value.class, new AbstractInstantiatorModule() {
+      @Override
+      protected void configure() {
+        registerListener(new InstantiatorMetrics());
+      }
+    });
+  }
+
+  @Benchmark
+  public Value newInstanceVarargs() {
+    return instantiator.newInstance("42", "Jack Bauer", "1000", "green", "1,2,3");
+  }
+
+  @Benchmark
+  public Value newInstanceIterable() {
+    return instantiator.newInstance(values);
+  }
+
+  @Benchmark
+  public Value newInstanceIterableWithMetrics() {
+    return instrumented.newInstance(values);
+  }
+
+  @Benchmark
+  public Value newInstanceMap() {
+    return instantiator.newInstance(namedValues);
+  }
+
+  @Benchmark
+  public List<String> fromInstance() {
+    return instantiator.fromInstance(instance);
+  }
+
+  @Benchmark
+  public List<String> fromInstanceWithMetrics() {
+    return instrumented.fromInstance(instance);
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kaching.platform.common.Option;
+
+/**
+ * Benchmarks {@link Instantiators#createInstantiator(Class, InstantiatorModule...)}.
+ * The cold benchmark measures the very first creation in a fresh JVM, which
+ * includes class loading and reading the bytecode for the constructor
+ * analysis; the warm benchmark measures the steady state cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class InstantiatorsBenchmark {
+
+  enum Kind { SMALL, LARGE }
+
+  static class Value {
+    private final int id;
+    private final String name;
+    private final Option<Long> amount;
+    private final Kind kind;
+    private final List<Integer> lots;
+    Value(int id, String name, Option<Long> amount, Kind kind, List<Integer> lots) {
+      this.id = id;
+      this.name = name;
+      this.amount = amount;
+      this.kind = kind;
+      this.lots = lots;
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @Fork(20)
+  public Instantiator<Value> createInstantiatorCold() {
+    return Instantiators.createInstantiator(Value.class);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Fork(2)
+  public Instantiator<Value> createInstantiatorWarm() {
+    return Instantiators.createInstantiator(Value.class);
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks every converter in {@link NativeConverters}, in both directions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NativeConvertersBenchmark {
+
+  @Benchmark
+  public String stringFromString() {
+    return NativeConverters.C_STRING.fromString("hello");
+  }
+
+  @Benchmark
+  public String stringToString() {
+    return NativeConverters.C_STRING.toString("hello");
+  }
+
+  @Benchmark
+  public Integer intFromString() {
+    return NativeConverters.C_INT.fromString("123456");
+  }
+
+  @Benchmark
+  public String intToString() {
+    return NativeConverters.C_INT.toString(123456);
+  }
+
+  @Benchmark
+  public Double doubleFromString() {
+    return NativeConverters.C_DOUBLE.fromString("1234.5678");
+  }
+
+  @Benchmark
+  public String doubleToString() {
+    return NativeConverters.C_DOUBLE.toString(1234.5678);
+  }
+
+  @Benchmark
+  public Long longFromString() {
+    return NativeConverters.C_LONG.fromString("1234567890123");
+  }
+
+  @Benchmark
+  public String longToString() {
+    return NativeConverters.C_LONG.toString(1234567890123L);
+  }
+
+  @Benchmark
+  public Short shortFromString() {
+    return NativeConverters.C_SHORT.fromString("1234");
+  }
+
+  @Benchmark
+  public String shortToString() {
+    return NativeConverters.C_SHORT.toString((short) 1234);
+  }
+
+  @Benchmark
+  public Character charFromString() {
+    return NativeConverters.C_CHAR.fromString("c");
+  }
+
+  @Benchmark
+  public String charToString() {
+    return NativeConverters.C_CHAR.toString('c');
+  }
+
+  @Benchmark
+  public Boolean booleanFromString() {
+    return NativeConverters.C_BOOLEAN.fromString("false");
+  }
+
+  @Benchmark
+  public String booleanToString() {
+    return NativeConverters.C_BOOLEAN.toString(false);
+  }
+
+  @Benchmark
+  public Float floatFromString() {
+    return NativeConverters.C_FLOAT.fromString("12.5");
+  }
+
+  @Benchmark
+  public String floatToString() {
+    return NativeConverters.C_FLOAT.toString(12.5f);
+  }
+
+  @Benchmark
+  public Byte byteFromString() {
+    return NativeConverters.C_BYTE.fromString("127");
+  }
+
+  @Benchmark
+  public String byteToString() {
+    return NativeConverters.C_BYTE.toString((byte) 127);
+  }
+
+}
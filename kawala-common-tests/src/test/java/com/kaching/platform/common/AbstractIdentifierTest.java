@@ -12,6 +12,7 @@ package com.kaching.platform.common;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -56,6 +57,13 @@ public class AbstractIdentifierTest {
     compareToTest("a", "b");
   }
 
+  @Test
+  public void compareToOrdersByClassNameOnTies() {
+    assertTrue(new MyId1("a").compareTo(new MyId1("a")) == 0);
+    assertTrue(new MyId1("a").compareTo(new MyId2("a")) < 0);
+    assertTrue(new MyId2("a").compareTo(new MyId1("a")) > 0);
+  }
+
   private void compareToTest(String id1, String id2) {
     assertEquals(
         String.format("%s.compareTo(%s)", id1, id2),
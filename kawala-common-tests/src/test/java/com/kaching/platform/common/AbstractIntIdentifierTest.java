@@ -0,0 +1,82 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.kaching.platform.testing.EquivalenceTester;
+
+public class AbstractIntIdentifierTest {
+
+  @Test
+  public void equivalence() {
+    EquivalenceTester.check(
+        newArrayList(
+            new MyId1(1), new MyId1(1)),
+        newArrayList(
+            new MyId2(1), new MyId2(1)),
+        newArrayList(
+            new MyId1(2), new MyId1(2)),
+        newArrayList(
+            new MyId2(2), new MyId2(2)));
+  }
+
+  @Test
+  public void hashCodeMatchesBoxed() {
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE).hashCode(), new MyId1(Integer.MAX_VALUE).hashCode());
+  }
+
+  @Test
+  public void toStringTest() {
+    assertEquals("42", new MyId1(42).toString());
+    assertEquals("-1", new MyId1(-1).toString());
+  }
+
+  @Test
+  public void compareToTest() {
+    assertEquals(1, new MyId1(1).compareTo(null));
+    assertEquals(0, new MyId1(1).compareTo(new MyId1(1)));
+    assertEquals(-1, new MyId1(1).compareTo(new MyId1(2)));
+    assertEquals(1, new MyId1(2).compareTo(new MyId1(1)));
+    assertEquals(-1, new MyId1(Integer.MIN_VALUE).compareTo(new MyId1(Integer.MAX_VALUE)));
+    assertEquals(1, new MyId1(Integer.MAX_VALUE).compareTo(new MyId1(Integer.MIN_VALUE)));
+  }
+
+  @Test
+  public void compareToOrdersByClassNameOnTies() {
+    assertTrue(new MyId1(1).compareTo(new MyId2(1)) < 0);
+    assertTrue(new MyId2(1).compareTo(new MyId1(1)) > 0);
+    assertTrue(new MyId2(1).compareTo(new MyId1(2)) < 0);
+  }
+
+  static class MyId1 extends AbstractIntIdentifier {
+    private static final long serialVersionUID = 1L;
+    public MyId1(int id) {
+      super(id);
+    }
+  }
+
+  static class MyId2 extends AbstractIntIdentifier {
+    private static final long serialVersionUID = 1L;
+    public MyId2(int id) {
+      super(id);
+    }
+
+    public String toString() {
+      return "MyId2(" + getId() + ")";
+    }
+  }
+
+}
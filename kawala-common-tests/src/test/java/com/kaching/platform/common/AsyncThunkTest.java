@@ -0,0 +1,124 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.kaching.platform.common.RefreshingThunkTest.ManualExecutor;
+
+public class AsyncThunkTest {
+
+  private final ManualExecutor executor = new ManualExecutor();
+
+  @Test
+  public void callersShareTheComputation() throws Exception {
+    CountingThunk thunk = new CountingThunk(executor);
+    ListenableFuture<Integer> first = thunk.get();
+    ListenableFuture<Integer> second = thunk.get();
+    assertFalse(first.isDone());
+    assertEquals(1, executor.tasks.size());
+
+    executor.runAll();
+    assertEquals((Integer) 1, first.get());
+    assertEquals((Integer) 1, second.get());
+    assertSame(thunk.get(), thunk.get());
+    assertEquals((Integer) 1, thunk.get().get());
+    assertEquals(0, executor.tasks.size());
+  }
+
+  @Test
+  public void cancellingDetachesOnlyTheCaller() throws Exception {
+    CountingThunk thunk = new CountingThunk(executor);
+    ListenableFuture<Integer> cancelled = thunk.get();
+    ListenableFuture<Integer> other = thunk.get();
+    assertTrue(cancelled.cancel(true));
+    assertTrue(cancelled.isCancelled());
+    assertFalse(other.isDone());
+
+    executor.runAll();
+    assertEquals((Integer) 1, other.get());
+    assertEquals((Integer) 1, thunk.get().get());
+    assertEquals(0, executor.tasks.size());
+  }
+
+  @Test
+  public void failedComputationIsRetried() throws Exception {
+    CountingThunk thunk = new CountingThunk(executor) {
+      @Override
+      protected Integer compute() {
+        Integer count = super.compute();
+        if (count == 1) {
+          throw new IllegalStateException();
+        }
+        return count;
+      }
+    };
+    ListenableFuture<Integer> failed = thunk.get();
+    executor.runAll();
+    try {
+      failed.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    ListenableFuture<Integer> retried = thunk.get();
+    executor.runAll();
+    assertEquals((Integer) 2, retried.get());
+  }
+
+  @Test
+  public void rejectedComputationIsRetried() throws Exception {
+    final boolean[] reject = { true };
+    CountingThunk thunk = new CountingThunk(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        if (reject[0]) {
+          throw new RejectedExecutionException();
+        }
+        command.run();
+      }
+    });
+    try {
+      thunk.get().get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+    reject[0] = false;
+    assertEquals((Integer) 1, thunk.get().get());
+  }
+
+  static class CountingThunk extends AsyncThunk<Integer> {
+    private int count;
+
+    CountingThunk(Executor executor) {
+      super(executor);
+    }
+
+    @Override
+    protected Integer compute() {
+      return ++count;
+    }
+  }
+
+}
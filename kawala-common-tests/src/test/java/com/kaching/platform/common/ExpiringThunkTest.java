@@ -0,0 +1,149 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class ExpiringThunkTest {
+
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Test
+  public void computedOnceWithinTimeToLive() {
+    CountingThunk thunk = new CountingThunk(ticker);
+    assertEquals((Integer) 1, thunk.get());
+    ticker.advance(9);
+    assertEquals((Integer) 1, thunk.get());
+  }
+
+  @Test
+  public void recomputedOnceExpired() {
+    CountingThunk thunk = new CountingThunk(ticker);
+    assertEquals((Integer) 1, thunk.get());
+    ticker.advance(10);
+    assertEquals((Integer) 2, thunk.get());
+    assertEquals((Integer) 2, thunk.get());
+  }
+
+  @Test
+  public void invalidate() {
+    CountingThunk thunk = new CountingThunk(ticker);
+    assertEquals((Integer) 1, thunk.get());
+    thunk.invalidate();
+    assertEquals((Integer) 2, thunk.get());
+  }
+
+  @Test
+  public void invalidateDuringComputationDiscardsItsValue() throws Exception {
+    final CountDownLatch computing = new CountDownLatch(1);
+    final CountDownLatch proceed = new CountDownLatch(1);
+    final CountingThunk thunk = new CountingThunk(ticker) {
+      @Override
+      protected Integer compute() {
+        computing.countDown();
+        try {
+          proceed.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return super.compute();
+      }
+    };
+    Thread getter = new Thread() {
+      @Override
+      public void run() {
+        thunk.get();
+      }
+    };
+    getter.start();
+    computing.await();
+    Thread invalidator = new Thread() {
+      @Override
+      public void run() {
+        thunk.invalidate();
+      }
+    };
+    invalidator.start();
+    while (invalidator.getState() != Thread.State.WAITING) {
+      Thread.yield();
+    }
+    proceed.countDown();
+    getter.join();
+    invalidator.join();
+    assertEquals((Integer) 2, thunk.get());
+  }
+
+  @Test
+  public void failedComputationIsRetried() {
+    CountingThunk thunk = new CountingThunk(ticker) {
+      @Override
+      protected Integer compute() {
+        Integer count = super.compute();
+        if (count == 1) {
+          throw new IllegalStateException();
+        }
+        return count;
+      }
+    };
+    try {
+      thunk.get();
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertEquals((Integer) 2, thunk.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void timeToLiveMustBePositive() {
+    new ExpiringThunk<String>(0, NANOSECONDS) {
+      @Override
+      protected String compute() {
+        return "";
+      }
+    };
+  }
+
+  static class CountingThunk extends ExpiringThunk<Integer> {
+    private int count;
+
+    CountingThunk(Ticker ticker) {
+      super(10, NANOSECONDS, ticker);
+    }
+
+    @Override
+    protected Integer compute() {
+      return ++count;
+    }
+  }
+
+  static class FakeTicker extends Ticker {
+    private long nanos = Long.MAX_VALUE - 5;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long nanos) {
+      this.nanos += nanos;
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class LongIdMapTest {
+
+  @Test
+  public void putGetRemove() {
+    LongIdMap<PersonId, String> map = new LongIdMap<PersonId, String>(PersonId.class);
+    assertTrue(map.isEmpty());
+    assertNull(map.put(new PersonId(4), "four"));
+    assertEquals("four", map.put(new PersonId(4), "FOUR"));
+    assertNull(map.put(new PersonId(0), "zero"));
+    assertNull(map.put(new PersonId(-7), null));
+
+    assertEquals(3, map.size());
+    assertEquals("FOUR", map.get(new PersonId(4)));
+    assertEquals("zero", map.get(new PersonId(0)));
+    assertNull(map.get(new PersonId(-7)));
+    assertTrue(map.containsKey(new PersonId(-7)));
+    assertFalse(map.containsKey(new PersonId(5)));
+
+    assertEquals("zero", map.remove(new PersonId(0)));
+    assertEquals("FOUR", map.remove(new PersonId(4)));
+    assertNull(map.remove(new PersonId(4)));
+    assertEquals(1, map.size());
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(new PersonId(-7)));
+  }
+
+  @Test
+  public void otherKeyTypesAreNotFound() {
+    LongIdMap<PersonId, String> map = new LongIdMap<PersonId, String>(PersonId.class);
+    map.put(new PersonId(1), "one");
+    assertFalse(map.containsKey(new AccountId(1)));
+    assertNull(map.get(new AccountId(1)));
+    assertNull(map.get(1L));
+    assertNull(map.get(null));
+    assertNull(map.remove(new AccountId(1)));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void equalsAndIteration() {
+    LongIdMap<PersonId, String> map = new LongIdMap<PersonId, String>(PersonId.class);
+    map.put(new PersonId(0), "zero");
+    map.put(new PersonId(1), "one");
+    map.put(new PersonId(2), "two");
+
+    Map<PersonId, String> expected = ImmutableMap.of(
+        new PersonId(0), "zero", new PersonId(1), "one", new PersonId(2), "two");
+    assertEquals(expected, map);
+    assertEquals(map, expected);
+    assertEquals(expected.hashCode(), map.hashCode());
+    assertEquals(expected, new HashMap<PersonId, String>(map));
+  }
+
+  @Test
+  public void keyClassMustHaveLongConstructor() {
+    try {
+      new LongIdMap<NoConstructor, String>(NoConstructor.class);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(
+          NoConstructor.class.getName() + " does not have a constructor taking a long",
+          e.getMessage());
+    }
+  }
+
+  @Test
+  public void agreesWithHashMap() {
+    Random random = new Random(42);
+    LongIdMap<PersonId, Integer> map = new LongIdMap<PersonId, Integer>(PersonId.class);
+    Map<PersonId, Integer> expected = new HashMap<PersonId, Integer>();
+    for (int i = 0; i < 100000; i++) {
+      // a narrow range of ids forces long clusters and many removals
+      PersonId key = new PersonId(random.nextInt(2000) - 1000);
+      switch (random.nextInt(3)) {
+        case 0:
+        case 1:
+          assertEquals(expected.put(key, i), map.put(key, i));
+          break;
+        default:
+          assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    assertEquals(expected, map);
+    for (long id = -1000; id < 1000; id++) {
+      assertEquals(expected.get(new PersonId(id)), map.get(new PersonId(id)));
+    }
+  }
+
+  static class PersonId extends AbstractLongIdentifier {
+    private static final long serialVersionUID = 1L;
+    PersonId(long id) {
+      super(id);
+    }
+  }
+
+  static class AccountId extends AbstractLongIdentifier {
+    private static final long serialVersionUID = 1L;
+    AccountId(long id) {
+      super(id);
+    }
+  }
+
+  static class NoConstructor extends AbstractLongIdentifier {
+    private static final long serialVersionUID = 1L;
+    NoConstructor(int id) {
+      super(id);
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.kaching.platform.common.LongIdMapTest.AccountId;
+import com.kaching.platform.common.LongIdMapTest.PersonId;
+
+public class LongIdSetTest {
+
+  @Test
+  public void addContainsRemove() {
+    LongIdSet<PersonId> set = new LongIdSet<PersonId>(PersonId.class);
+    assertTrue(set.add(new PersonId(3)));
+    assertFalse(set.add(new PersonId(3)));
+    assertTrue(set.add(new PersonId(0)));
+    assertFalse(set.add(new PersonId(0)));
+
+    assertEquals(2, set.size());
+    assertTrue(set.contains(new PersonId(0)));
+    assertTrue(set.contains(new PersonId(3)));
+    assertFalse(set.contains(new AccountId(3)));
+    assertFalse(set.contains(null));
+
+    assertTrue(set.remove(new PersonId(0)));
+    assertFalse(set.remove(new PersonId(0)));
+    assertFalse(set.remove(new AccountId(3)));
+    assertEquals(ImmutableSet.of(new PersonId(3)), set);
+
+    set.clear();
+    assertTrue(set.isEmpty());
+  }
+
+  @Test
+  public void agreesWithHashSet() {
+    Random random = new Random(42);
+    LongIdSet<PersonId> set = new LongIdSet<PersonId>(PersonId.class, 16);
+    Set<PersonId> expected = new HashSet<PersonId>();
+    for (int i = 0; i < 100000; i++) {
+      PersonId element = new PersonId(random.nextInt(2000) - 1000);
+      if (random.nextInt(3) < 2) {
+        assertEquals(expected.add(element), set.add(element));
+      } else {
+        assertEquals(expected.remove(element), set.remove(element));
+      }
+      assertEquals(expected.size(), set.size());
+    }
+    assertEquals(expected, set);
+    assertEquals(set, expected);
+    assertEquals(expected.hashCode(), set.hashCode());
+  }
+
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.kaching.platform.testing.EquivalenceTester;
+
+public class OptionDoubleTest {
+
+  @Test
+  public void getOrElse() {
+    assertEquals(5.5, OptionDouble.some(5.5).getOrElse(6), 0.0);
+    assertEquals(6.0, OptionDouble.none().getOrElse(6), 0.0);
+  }
+
+  @Test
+  public void equivalence() {
+    EquivalenceTester.check(
+        newArrayList(
+            OptionDouble.none(),
+            OptionDouble.of(null)),
+        newArrayList(
+            OptionDouble.some(5.5),
+            OptionDouble.of(5.5)),
+        newArrayList(
+            OptionDouble.some(Double.NaN),
+            OptionDouble.some(Double.NaN)),
+        newArrayList(
+            OptionDouble.some(0.0)),
+        newArrayList(
+            OptionDouble.some(-0.0)));
+  }
+
+  @Test
+  public void boxed() {
+    assertEquals(Option.some(5.5), OptionDouble.some(5.5).boxed());
+    assertEquals(Option.none(), OptionDouble.none().boxed());
+  }
+
+}
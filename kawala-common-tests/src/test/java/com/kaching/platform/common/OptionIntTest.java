@@ -0,0 +1,75 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.kaching.platform.testing.EquivalenceTester;
+
+public class OptionIntTest {
+
+  @Test
+  public void getOrElse() {
+    assertEquals(5, OptionInt.some(5).getOrElse(6));
+    assertEquals(6, OptionInt.none().getOrElse(6));
+  }
+
+  @Test
+  public void equivalence() {
+    EquivalenceTester.check(
+        newArrayList(
+            OptionInt.none(),
+            OptionInt.of(null)),
+        newArrayList(
+            OptionInt.some(5),
+            OptionInt.of(5)),
+        newArrayList(
+            OptionInt.some(1000),
+            OptionInt.some(1000)));
+  }
+
+  @Test
+  public void smallValuesAreCached() {
+    assertSame(OptionInt.some(-128), OptionInt.some(-128));
+    assertSame(OptionInt.some(127), OptionInt.some(127));
+  }
+
+  @Test
+  public void getOrThrow() {
+    assertEquals(5, OptionInt.some(5).getOrThrow("missing"));
+    try {
+      OptionInt.none().getOrThrow("missing");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("missing", e.getMessage());
+    }
+  }
+
+  @Test
+  public void string() {
+    assertEquals("OptionInt.Some(5)", OptionInt.some(5).toString());
+    assertEquals("OptionInt.None", OptionInt.none().toString());
+    assertEquals("5", OptionInt.some(5).toStringOr("none"));
+    assertEquals("none", OptionInt.none().toStringOr("none"));
+  }
+
+  @Test
+  public void boxed() {
+    assertEquals(Option.some(5), OptionInt.some(5).boxed());
+    assertEquals(Option.none(), OptionInt.none().boxed());
+  }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+import com.kaching.platform.testing.EquivalenceTester;
+
+public class OptionLongTest {
+
+  @Test
+  public void getOrElse() {
+    assertEquals(5L, OptionLong.some(5).getOrElse(6));
+    assertEquals(6L, OptionLong.none().getOrElse(6));
+  }
+
+  @Test
+  public void orElseGet() {
+    LongSupplier six = new LongSupplier() {
+      @Override
+      public long getAsLong() {
+        return 6;
+      }
+    };
+    assertEquals(5L, OptionLong.some(5).orElseGet(six));
+    assertEquals(6L, OptionLong.none().orElseGet(six));
+  }
+
+  @Test
+  public void getOrThrow() {
+    assertEquals(5L, OptionLong.some(5).getOrThrow());
+    try {
+      OptionLong.none().getOrThrow("missing");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("missing", e.getMessage());
+    }
+  }
+
+  @Test
+  public void isDefined() {
+    assertTrue(OptionLong.some(0).isDefined());
+    assertFalse(OptionLong.some(0).isEmpty());
+    assertFalse(OptionLong.none().isDefined());
+    assertTrue(OptionLong.none().isEmpty());
+  }
+
+  @Test
+  public void equivalence() {
+    EquivalenceTester.check(
+        newArrayList(
+            OptionLong.none(),
+            OptionLong.of(null)),
+        newArrayList(
+            OptionLong.some(5),
+            OptionLong.of(5L)),
+        newArrayList(
+            OptionLong.some(Long.MAX_VALUE),
+            OptionLong.some(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void smallValuesAreCached() {
+    assertSame(OptionLong.some(-128), OptionLong.some(-128));
+    assertSame(OptionLong.some(127), OptionLong.some(127));
+  }
+
+  @Test
+  public void visit() {
+    OptionLongVisitor<String> visitor = new OptionLongVisitor<String>() {
+      @Override
+      public String caseNone() {
+        return "none";
+      }
+      @Override
+      public String caseSome(long value) {
+        return "some " + value;
+      }
+    };
+    assertEquals("none", OptionLong.none().visit(visitor));
+    assertEquals("some 5", OptionLong.some(5).visit(visitor));
+  }
+
+  @Test
+  public void boxed() {
+    assertEquals(Option.some(5L), OptionLong.some(5).boxed());
+    assertEquals(Option.none(), OptionLong.none().boxed());
+  }
+
+  @Test
+  public void stringRepresentations() {
+    assertEquals("OptionLong.Some(5)", OptionLong.some(5).toString());
+    assertEquals("OptionLong.None", OptionLong.none().toString());
+    assertEquals("5", OptionLong.some(5).toStringOr("none"));
+    assertEquals("none", OptionLong.none().toStringOr("none"));
+  }
+
+}
@@ -14,12 +14,20 @@ import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 import org.junit.Test;
 
 import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.kaching.platform.testing.EquivalenceTester;
 
 public class OptionTest {
@@ -241,5 +249,71 @@ public class OptionTest {
       }
     }));
   }
-  
+
+  @Test
+  public void noneIteratorIsShared() {
+    assertSame(Option.none().iterator(), Option.none().iterator());
+  }
+
+  @Test
+  public void someIterator() {
+    Iterator<String> iterator = Option.some("foo").iterator();
+    assertTrue(iterator.hasNext());
+    assertEquals("foo", iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void forEach() {
+    final List<String> consumed = newArrayList();
+    Consumer<String> consumer = new Consumer<String>() {
+      @Override
+      public void accept(String string) {
+        consumed.add(string);
+      }
+    };
+    Option.<String>none().forEach(consumer);
+    assertTrue(consumed.isEmpty());
+    Option.some("foo").forEach(consumer);
+    assertEquals(newArrayList("foo"), consumed);
+  }
+
+  @Test
+  public void ifDefined() {
+    final List<String> consumed = newArrayList();
+    Option.<String>none().ifDefined(consumed::add);
+    assertTrue(consumed.isEmpty());
+    Option.some("foo").ifDefined(consumed::add);
+    assertEquals(newArrayList("foo"), consumed);
+  }
+
+  @Test
+  public void flatMap() {
+    Function<String, Option<Integer>> length = new Function<String, Option<Integer>>() {
+      @Override
+      public Option<Integer> apply(String string) {
+        return string.isEmpty() ? Option.<Integer>none() : Option.some(string.length());
+      }
+    };
+    assertEquals(Option.some(3), Option.some("foo").flatMap(length));
+    assertEquals(Option.none(), Option.some("").flatMap(length));
+    assertEquals(Option.none(), Option.<String>none().flatMap(length));
+  }
+
+  @Test
+  public void filter() {
+    Option<String> foo = Option.some("foo");
+    Predicate<String> isFoo = Predicates.equalTo("foo");
+    assertSame(foo, foo.filter(isFoo));
+    assertEquals(Option.none(), Option.some("bar").filter(isFoo));
+    assertEquals(Option.none(), Option.<String>none().filter(isFoo));
+  }
+
+  @Test
+  public void orElseGet() {
+    Supplier<String> bar = () -> "bar";
+    assertEquals("foo", Option.some("foo").orElseGet(bar));
+    assertEquals("bar", Option.<String>none().orElseGet(bar));
+  }
+
 }
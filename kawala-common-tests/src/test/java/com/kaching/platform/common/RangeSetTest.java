@@ -0,0 +1,162 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.kaching.platform.common.Range.range;
+import static com.kaching.platform.testing.EquivalenceTester.check;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import org.junit.Test;
+
+public class RangeSetTest {
+
+  @Test
+  public void addMergesOverlappingAndAdjacentRanges() {
+    RangeSet set = RangeSet.of(range(5, 8), range(0, 2), range(2, 3), range(7, 10));
+    assertEquals(newArrayList(range(0, 3), range(5, 10)), set.ranges());
+    assertEquals(8, set.size());
+  }
+
+  @Test
+  public void ofAgreesWithRepeatedAdd() {
+    Random random = new Random(17);
+    Range[] ranges = new Range[500];
+    RangeSet expected = RangeSet.empty();
+    for (int i = 0; i < ranges.length; i++) {
+      int start = random.nextInt(2000) - 1000;
+      ranges[i] = range(start, start + random.nextInt(10) - 2);
+      expected = expected.add(ranges[i]);
+    }
+    assertEquals(expected, RangeSet.of(ranges));
+    assertEquals(
+        newArrayList(range(Integer.MIN_VALUE, 0), range(1, Integer.MAX_VALUE)),
+        RangeSet.of(range(1, Integer.MAX_VALUE), range(Integer.MIN_VALUE, 0)).ranges());
+  }
+
+  @Test
+  public void emptyRangesAreIgnored() {
+    assertSame(RangeSet.empty(), RangeSet.of(range(3, 3), range(5, 1)));
+    assertTrue(RangeSet.empty().isEmpty());
+  }
+
+  @Test
+  public void subtract() {
+    RangeSet set = RangeSet.of(range(0, 10), range(20, 30));
+    assertEquals(
+        newArrayList(range(0, 2), range(8, 10), range(20, 25)),
+        set.subtract(range(2, 8)).subtract(range(25, 40)).ranges());
+    assertSame(RangeSet.empty(), set.subtract(range(-5, 35)));
+    assertEquals(set, set.subtract(range(10, 20)));
+  }
+
+  @Test
+  public void union() {
+    assertEquals(
+        RangeSet.of(range(0, 12)),
+        RangeSet.of(range(0, 4), range(8, 12)).union(RangeSet.of(range(3, 9))));
+  }
+
+  @Test
+  public void containsIndex() {
+    RangeSet set = RangeSet.of(range(0, 3), range(5, 10));
+    assertFalse(set.contains(-1));
+    assertTrue(set.contains(0));
+    assertTrue(set.contains(2));
+    assertFalse(set.contains(3));
+    assertFalse(set.contains(4));
+    assertTrue(set.contains(5));
+    assertTrue(set.contains(9));
+    assertFalse(set.contains(10));
+  }
+
+  @Test
+  public void containsRange() {
+    RangeSet set = RangeSet.of(range(0, 3), range(5, 10));
+    assertTrue(set.contains(range(0, 3)));
+    assertTrue(set.contains(range(6, 8)));
+    assertFalse(set.contains(range(2, 6)));
+    assertFalse(set.contains(range(8, 11)));
+    assertFalse(set.contains(range(3, 5)));
+  }
+
+  @Test
+  public void overlaps() {
+    RangeSet set = RangeSet.of(range(0, 3), range(5, 10));
+    assertTrue(set.overlaps(range(2, 4)));
+    assertTrue(set.overlaps(range(4, 6)));
+    assertTrue(set.overlaps(range(-5, 20)));
+    assertFalse(set.overlaps(range(3, 5)));
+    assertFalse(set.overlaps(range(10, 20)));
+    assertFalse(set.overlaps(range(-5, 0)));
+    assertFalse(set.overlaps(range(6, 6)));
+  }
+
+  @Test
+  public void iteration() {
+    RangeSet set = RangeSet.of(range(0, 2), range(5, 7));
+    List<Integer> iterated = newArrayList(set);
+    assertEquals(newArrayList(0, 1, 5, 6), iterated);
+
+    final List<Integer> consumed = newArrayList();
+    set.forEachInt(new IntConsumer() {
+      @Override
+      public void accept(int value) {
+        consumed.add(value);
+      }
+    });
+    assertEquals(iterated, consumed);
+    assertFalse(RangeSet.empty().iterator().hasNext());
+  }
+
+  @Test
+  public void endpointsRoundTrip() {
+    RangeSet set = RangeSet.of(range(0, 2), range(5, Integer.MAX_VALUE));
+    assertArrayEquals(new int[] { 0, 2, 5, Integer.MAX_VALUE }, set.toEndpoints());
+    assertEquals(set, RangeSet.fromEndpoints(set.toEndpoints()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromEndpointsRejectsOddLength() {
+    RangeSet.fromEndpoints(new int[] { 0, 2, 5 });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromEndpointsRejectsUnsortedEndpoints() {
+    RangeSet.fromEndpoints(new int[] { 0, 5, 5, 7 });
+  }
+
+  @Test
+  public void equivalence() {
+    check(
+        newArrayList(
+            RangeSet.of(range(0, 2), range(2, 4)),
+            RangeSet.of(range(0, 4))),
+        newArrayList(
+            RangeSet.empty(),
+            RangeSet.of()));
+  }
+
+  @Test
+  public void toStringShowsRanges() {
+    assertEquals("{[0,2),[5,7)}", RangeSet.of(range(0, 2), range(5, 7)).toString());
+    assertEquals("{}", RangeSet.empty().toString());
+  }
+
+}
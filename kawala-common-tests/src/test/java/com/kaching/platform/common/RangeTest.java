@@ -4,11 +4,18 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.kaching.platform.common.Range.range;
 import static com.kaching.platform.testing.EquivalenceTester.check;
 import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
 
 import org.junit.Test;
 
@@ -66,4 +73,100 @@ public class RangeTest {
     assertEquals(newArrayList(10, 9, 8, 7, 6, 5, 4, 3, 2, 1), accumulator);
   }
 
+  @Test
+  public void primitiveIterator() {
+    PrimitiveIterator.OfInt iterator = range(3, 1).iterator();
+    assertEquals(3, iterator.nextInt());
+    assertEquals(2, iterator.nextInt());
+    assertFalse(iterator.hasNext());
+    try {
+      iterator.nextInt();
+      fail();
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void forEachInt() {
+    final List<Integer> accumulator = new ArrayList<Integer>();
+    IntConsumer collect = new IntConsumer() {
+      @Override
+      public void accept(int value) {
+        accumulator.add(value);
+      }
+    };
+    range(1, 4).forEachInt(collect);
+    range(3, 0).forEachInt(collect);
+    range(5, 5).forEachInt(collect);
+    assertEquals(newArrayList(1, 2, 3, 3, 2, 1), accumulator);
+  }
+
+  @Test
+  public void forEachLambda() {
+    // must compile without a cast: Iterable.forEach is not overloaded
+    final List<Integer> accumulator = new ArrayList<Integer>();
+    range(1, 3).forEach(i -> accumulator.add(i));
+    assertEquals(newArrayList(1, 2), accumulator);
+  }
+
+  @Test
+  public void stream() {
+    assertArrayEquals(new int[] { 1, 2, 3 }, range(1, 4).stream().toArray());
+    assertArrayEquals(new int[] { 3, 2, 1 }, range(3, 0).stream().toArray());
+    assertEquals(0, range(2, 2).stream().count());
+    assertEquals(
+        499999500000L, range(0, 1000000).stream().parallel().asLongStream().sum());
+    assertArrayEquals(
+        range(1000, 0).stream().toArray(),
+        range(1000, 0).stream().parallel().toArray());
+  }
+
+  @Test
+  public void streamOfExtremeRange() {
+    assertEquals(
+        (1L << 32) - 1,
+        range(Integer.MIN_VALUE, Integer.MAX_VALUE).stream().parallel().count());
+  }
+
+  @Test
+  public void spliteratorSplitsEvenly() {
+    Spliterator.OfInt suffix = range(0, 11).spliterator();
+    Spliterator.OfInt prefix = suffix.trySplit();
+    assertEquals(5, prefix.estimateSize());
+    assertEquals(6, suffix.estimateSize());
+    assertTrue(prefix.tryAdvance(new IntConsumer() {
+      @Override
+      public void accept(int value) {
+        assertEquals(0, value);
+      }
+    }));
+    assertTrue(suffix.tryAdvance(new IntConsumer() {
+      @Override
+      public void accept(int value) {
+        assertEquals(5, value);
+      }
+    }));
+    assertNull(range(0, 1).spliterator().trySplit());
+  }
+
+  @Test
+  public void partition() {
+    assertEquals(
+        newArrayList(range(0, 4), range(4, 7), range(7, 10)),
+        range(0, 10).partition(3));
+    assertEquals(
+        newArrayList(range(10, 6), range(6, 3), range(3, 0)),
+        range(10, 0).partition(3));
+    assertEquals(
+        newArrayList(range(0, 1), range(1, 2)),
+        range(0, 2).partition(5));
+    assertEquals(newArrayList(), range(3, 3).partition(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void partitionRequiresPositiveChunks() {
+    range(0, 2).partition(0);
+  }
+
 }
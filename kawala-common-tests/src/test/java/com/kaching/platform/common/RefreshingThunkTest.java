@@ -0,0 +1,130 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import com.kaching.platform.common.ExpiringThunkTest.FakeTicker;
+
+public class RefreshingThunkTest {
+
+  private final FakeTicker ticker = new FakeTicker();
+  private final ManualExecutor executor = new ManualExecutor();
+
+  @Test
+  public void firstValueComputedSynchronously() {
+    CountingThunk thunk = new CountingThunk(executor);
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals(0, executor.tasks.size());
+  }
+
+  @Test
+  public void staleValueServedWhileRefreshing() {
+    CountingThunk thunk = new CountingThunk(executor);
+    thunk.get();
+    ticker.advance(10);
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals(1, executor.tasks.size());
+
+    executor.runAll();
+    assertEquals((Integer) 2, thunk.get());
+    assertEquals(0, executor.tasks.size());
+  }
+
+  @Test
+  public void failedRefreshKeepsStaleValue() {
+    CountingThunk thunk = new CountingThunk(executor) {
+      @Override
+      protected Integer compute() {
+        Integer count = super.compute();
+        if (count == 2) {
+          throw new IllegalStateException();
+        }
+        return count;
+      }
+    };
+    thunk.get();
+    ticker.advance(10);
+    thunk.get();
+    executor.runAll();
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals(0, executor.tasks.size());
+
+    ticker.advance(10);
+    thunk.get();
+    executor.runAll();
+    assertEquals((Integer) 3, thunk.get());
+  }
+
+  @Test
+  public void rejectedRefreshKeepsStaleValue() {
+    CountingThunk thunk = new CountingThunk(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        throw new RejectedExecutionException();
+      }
+    });
+    thunk.get();
+    ticker.advance(10);
+    assertEquals((Integer) 1, thunk.get());
+    assertEquals((Integer) 1, thunk.get());
+  }
+
+  @Test
+  public void explicitRefresh() {
+    CountingThunk thunk = new CountingThunk(executor);
+    thunk.get();
+    thunk.refresh();
+    thunk.refresh();
+    assertEquals(1, executor.tasks.size());
+    executor.runAll();
+    assertEquals((Integer) 2, thunk.get());
+  }
+
+  class CountingThunk extends RefreshingThunk<Integer> {
+    private int count;
+
+    CountingThunk(Executor executor) {
+      super(10, NANOSECONDS, executor, ticker);
+    }
+
+    @Override
+    protected Integer compute() {
+      return ++count;
+    }
+  }
+
+  static class ManualExecutor implements Executor {
+    final List<Runnable> tasks = newArrayList();
+
+    @Override
+    public void execute(Runnable command) {
+      tasks.add(command);
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.remove(0).run();
+      }
+    }
+  }
+
+}
@@ -11,9 +11,14 @@
 package com.kaching.platform.common;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringWriter;
 
 import org.junit.Test;
 
+import com.kaching.platform.common.Strings.Template;
+
 
 public class StringsTest {
 
@@ -23,4 +28,68 @@ public class StringsTest {
     assertEquals("foo bar [baz]", Strings.format("foo %s", "bar", "baz"));
   }
 
+  @Test
+  public void formatNulls() {
+    assertEquals("null", Strings.format(null));
+    assertEquals("foo null", Strings.format("foo %s", (Object) null));
+  }
+
+  @Test
+  public void formatToStringBuilder() {
+    StringBuilder builder = new StringBuilder("> ");
+    assertSame(builder, Strings.formatTo(builder, "%s and %s", 1, 2));
+    assertEquals("> 1 and 2", builder.toString());
+  }
+
+  @Test
+  public void formatToAppendable() throws Exception {
+    StringWriter writer = new StringWriter();
+    Strings.formatTo(writer, "foo %s", "bar", "baz");
+    assertEquals("foo bar [baz]", writer.toString());
+  }
+
+  @Test
+  public void template() {
+    Template template = Strings.template("%s foo %s%s");
+    assertEquals(3, template.placeholders());
+    assertEquals("1 foo 23", template.format(1, 2, 3));
+    assertEquals("1 foo 2%s", template.format(1, 2));
+    assertEquals("1 foo 23 [4, 5]", template.format(1, 2, 3, 4, 5));
+    assertEquals("%s foo %s%s", template.format());
+    assertEquals("%s foo %s%s", template.toString());
+  }
+
+  @Test
+  public void templateWithoutPlaceholders() {
+    Template template = Strings.template("foo");
+    assertEquals(0, template.placeholders());
+    assertEquals("foo [bar]", template.format("bar"));
+  }
+
+  @Test
+  public void templateAppendsToBuilder() throws Exception {
+    Template template = Strings.template("foo %s");
+    StringBuilder builder = new StringBuilder();
+    template.appendTo(builder, "bar").append(';');
+    template.appendTo(builder, "baz");
+    assertEquals("foo bar;foo baz", builder.toString());
+
+    StringWriter writer = new StringWriter();
+    template.appendTo(writer, "bar");
+    assertEquals("foo bar", writer.toString());
+  }
+
+  @Test
+  public void templateMatchesFormat() {
+    String[] templates = { "", "%s", "%s%s", "a%sb%sc", "%%s", "%", "a%", "%s %s %s %s %s" };
+    Object[][] argss = { {}, { 1 }, { 1, 2 }, { 1, 2, 3, 4, 5, 6 } };
+    for (String template : templates) {
+      for (Object[] args : argss) {
+        assertEquals(
+            Strings.format(template, args),
+            Strings.template(template).format(args));
+      }
+    }
+  }
+
 }
@@ -10,9 +10,16 @@
  */
 package com.kaching.platform.common;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -87,4 +94,129 @@ public class ThunkTest {
     assertEquals(1, called[0]);
   }
 
+  @Test
+  public void failedComputationIsRetried() {
+    final int[] called = new int[] { 0 };
+    Thunk<String> t = new Thunk<String>() {
+      @Override
+      protected String compute() {
+        if (called[0]++ == 0) {
+          throw new IllegalStateException();
+        }
+        return "Hello";
+      }
+    };
+    try {
+      t.get();
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertFalse(t.isEvaluated());
+    assertEquals("Hello", t.get());
+    assertEquals("Hello", t.get());
+    assertEquals(2, called[0]);
+  }
+
+  @Test
+  public void waiterComputesWhenOwnerFails() throws Exception {
+    final CountDownLatch computing = new CountDownLatch(1);
+    final CountDownLatch fail = new CountDownLatch(1);
+    final AtomicInteger called = new AtomicInteger();
+    final Thunk<String> t = new Thunk<String>() {
+      @Override
+      protected String compute() {
+        if (called.getAndIncrement() == 0) {
+          computing.countDown();
+          try {
+            fail.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          throw new IllegalStateException();
+        }
+        return "Hello";
+      }
+    };
+    Thread owner = new Thread() {
+      @Override
+      public void run() {
+        try {
+          t.get();
+        } catch (IllegalStateException e) {
+          // expected
+        }
+      }
+    };
+    owner.start();
+    computing.await();
+    final String[] waited = new String[1];
+    Thread waiter = new Thread() {
+      @Override
+      public void run() {
+        waited[0] = t.get();
+      }
+    };
+    waiter.start();
+    fail.countDown();
+    owner.join();
+    waiter.join();
+    assertEquals("Hello", waited[0]);
+    assertEquals(2, called.get());
+  }
+
+  @Test
+  public void nullIsComputedOnce() {
+    final int[] called = new int[] { 0 };
+    Thunk<String> t = new Thunk<String>() {
+      @Override
+      protected String compute() {
+        called[0]++;
+        return null;
+      }
+    };
+    assertNull(t.get());
+    assertNull(t.get());
+    assertTrue(t.isEvaluated());
+    assertEquals(1, called[0]);
+  }
+
+  @Test
+  public void computedOnceUnderContention() throws Exception {
+    final AtomicInteger called = new AtomicInteger();
+    final Thunk<Integer> t = new Thunk<Integer>() {
+      @Override
+      protected Integer compute() {
+        Thread.yield();
+        return called.incrementAndGet();
+      }
+    };
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger wrong = new AtomicInteger();
+    List<Thread> threads = newArrayList();
+    for (int i = 0; i < 32; i++) {
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          if (t.get() != 1) {
+            wrong.incrementAndGet();
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1, called.get());
+    assertEquals(0, wrong.get());
+  }
+
 }
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static org.apache.log4j.LogManager.getLogger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.kaching.platform.common.logging.AsyncLogWriter.OverflowPolicy;
+import com.kaching.platform.common.logging.LogTest.CapturingAppender;
+
+public class AsyncLogWriterTest {
+
+  private static final Log log = new Log("async");
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final GatedChannel channel = new GatedChannel(Channels.newChannel(out));
+  private final CapturingAppender appender = new CapturingAppender();
+
+  @Before
+  public void before() {
+    getLogger("async").setLevel(Level.INFO);
+    getLogger("async").addAppender(appender);
+  }
+
+  @After
+  public void after() {
+    Log.setAsyncWriter(null);
+    getLogger("async").removeAppender(appender);
+  }
+
+  @Test
+  public void writesEventsWithTheirContext() throws Exception {
+    channel.open.countDown();
+    AsyncLogWriter writer = start(16, OverflowPolicy.DROP);
+    Log.logContextPut("account", 42);
+    try {
+      log.info("first %s", "event");
+    } finally {
+      Log.logContextRemove("account");
+    }
+    log.warn(new IllegalStateException("boom"), "second");
+    log.debug("disabled");
+    writer.close();
+
+    String[] lines = out.toString("UTF-8").split("\n");
+    assertTrue(lines[0], lines[0].endsWith(
+        " INFO [" + Thread.currentThread().getName() + "] async - first event {account=42}"));
+    assertTrue(lines[1], lines[1].endsWith(" - second"));
+    assertTrue(lines[1], lines[1].contains(" WARN "));
+    assertEquals("java.lang.IllegalStateException: boom", lines[2]);
+    assertEquals(2, writer.getWrittenCount());
+    assertEquals(0, writer.getDroppedCount());
+    assertTrue(appender.events.isEmpty());
+  }
+
+  @Test
+  public void dropWhenFull() throws Exception {
+    AsyncLogWriter writer = start(4, OverflowPolicy.DROP);
+    log.info("blocks the writer");
+    channel.writing.await();
+    for (int i = 0; i < 20; i++) {
+      log.info("event %s", i);
+    }
+    assertEquals(16, writer.getDroppedCount());
+    channel.open.countDown();
+    writer.close();
+    assertEquals(5, writer.getWrittenCount());
+    assertEquals(5, writer.getEnqueuedCount());
+  }
+
+  @Test
+  public void sampleWhenNearlyFull() throws Exception {
+    AsyncLogWriter writer = start(16, OverflowPolicy.SAMPLE);
+    log.info("blocks the writer");
+    channel.writing.await();
+    for (int i = 0; i < 1000; i++) {
+      log.info("event %s", i);
+    }
+    channel.open.countDown();
+    writer.close();
+    assertEquals(1001, writer.getWrittenCount() + writer.getDroppedCount());
+    assertTrue(writer.getWrittenCount() <= 17);
+    assertTrue(writer.getWrittenCount() >= 13);
+  }
+
+  @Test
+  public void blockWhenFull() throws Exception {
+    final AsyncLogWriter writer = start(4, OverflowPolicy.BLOCK);
+    log.info("blocks the writer");
+    channel.writing.await();
+    Thread opener = new Thread() {
+      @Override
+      public void run() {
+        while (writer.getEnqueuedCount() < 5) {
+          Thread.yield();
+        }
+        channel.open.countDown();
+      }
+    };
+    opener.start();
+    for (int i = 0; i < 20; i++) {
+      log.info("event %s", i);
+    }
+    writer.close();
+    assertEquals(21, writer.getWrittenCount());
+    assertEquals(0, writer.getDroppedCount());
+    assertEquals(21, out.toString("UTF-8").split("\n").length);
+  }
+
+  @Test
+  public void closedWriterFallsBackToLog4j() throws Exception {
+    AsyncLogWriter writer = start(4, OverflowPolicy.DROP);
+    writer.close();
+    log.info("after %s", "close");
+    assertEquals(1, appender.events.size());
+    assertEquals("after close", appender.events.get(0).getRenderedMessage());
+    assertEquals(0, out.size());
+  }
+
+  @Test
+  public void blockWithoutWriterThreadFallsBackToLog4j() throws Exception {
+    channel.open.countDown();
+    AsyncLogWriter writer = new AsyncLogWriter(channel, 2, OverflowPolicy.BLOCK);
+    Log.setAsyncWriter(writer);
+    for (int i = 0; i < 5; i++) {
+      log.info("event %s", i);
+    }
+    assertEquals(2, writer.getEnqueuedCount());
+    assertEquals(3, appender.events.size());
+    assertEquals("event 2", appender.events.get(0).getRenderedMessage());
+
+    writer.close();
+    assertEquals(2, writer.getWrittenCount());
+    assertEquals(2, out.toString("UTF-8").split("\n").length);
+  }
+
+  @Test
+  public void closeWhileAppendingWritesEveryEnqueuedEvent() throws Exception {
+    channel.open.countDown();
+    final AsyncLogWriter writer = start(64, OverflowPolicy.BLOCK);
+    final CountDownLatch logging = new CountDownLatch(4);
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          logging.countDown();
+          for (int j = 0; j < 2000; j++) {
+            log.info("event %s", j);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    logging.await();
+    writer.close();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(writer.getEnqueuedCount(), writer.getWrittenCount());
+    assertEquals(8000, writer.getWrittenCount() + appender.events.size());
+  }
+
+  private AsyncLogWriter start(int capacity, OverflowPolicy policy) {
+    AsyncLogWriter writer = new AsyncLogWriter(channel, capacity, policy);
+    writer.start();
+    Log.setAsyncWriter(writer);
+    return writer;
+  }
+
+  /**
+   * A channel whose writes wait until it is opened.
+   */
+  static class GatedChannel implements WritableByteChannel {
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch open = new CountDownLatch(1);
+    private final WritableByteChannel delegate;
+
+    GatedChannel(WritableByteChannel delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      writing.countDown();
+      try {
+        open.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      return delegate.write(src);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.apache.log4j.MDC;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.kaching.platform.common.Pair;
+import com.kaching.platform.common.logging.Log.LogContextMode;
+
+public class LogContextTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void before() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+    Log.setLogContextMode(LogContextMode.MDC);
+    LogContext.attach(LogContext.EMPTY);
+  }
+
+  @Test
+  public void persistence() {
+    LogContext first = LogContext.EMPTY.with("a", 1).with("b", 2);
+    LogContext second = first.with("c", 3).with("a", 4);
+    LogContext third = second.without("b");
+
+    assertEquals("{b=2, a=1}", first.toString());
+    assertEquals("{a=4, c=3, b=2}", second.toString());
+    assertEquals("{a=4, c=3}", third.toString());
+    assertEquals(2, first.size());
+    assertEquals(3, second.size());
+    assertEquals(2, third.size());
+    assertEquals(4, third.get("a"));
+    assertNull(third.get("b"));
+  }
+
+  @Test
+  public void removingAbsentKeyKeepsContext() {
+    LogContext context = LogContext.EMPTY.with("a", 1);
+    assertSame(context, context.without("b"));
+    assertSame(LogContext.EMPTY, LogContext.EMPTY.without("a"));
+  }
+
+  @Test
+  public void nullValueRemovesKey() {
+    assertEquals("{}", LogContext.EMPTY.with("a", 1).with("a", null).toString());
+  }
+
+  @Test
+  public void iteration() {
+    List<String> keys = newArrayList();
+    for (Entry<String, Object> entry : LogContext.EMPTY.with("a", 1).with("b", 2)) {
+      keys.add(entry.getKey() + "=" + entry.getValue());
+    }
+    assertEquals(newArrayList("b=2", "a=1"), keys);
+  }
+
+  @Test
+  public void putAndRemoveMirrorToMdc() {
+    Log.logContextPut("account", 42);
+    assertEquals(42, LogContext.current().get("account"));
+    assertEquals(42, MDC.get("account"));
+    Log.logContextRemove("account");
+    assertTrue(LogContext.current().isEmpty());
+    assertNull(MDC.get("account"));
+  }
+
+  @Test
+  public void threadLocalModeLeavesMdcAlone() {
+    Log.setLogContextMode(LogContextMode.THREAD_LOCAL);
+    Log.logContextPut("account", 42);
+    assertEquals(42, LogContext.current().get("account"));
+    assertNull(MDC.get("account"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void withLogContextRestoresPreviousValues() {
+    Log.logContextPut("account", 1);
+    final AtomicReference<Object> inside = new AtomicReference<Object>();
+    Log.withLogContext(new Runnable() {
+      @Override
+      public void run() {
+        inside.set(MDC.get("account") + " " + MDC.get("order"));
+      }
+    }, Pair.<String, Object>of("account", 2), Pair.<String, Object>of("order", 3));
+    assertEquals("2 3", inside.get());
+    assertEquals(1, MDC.get("account"));
+    assertNull(MDC.get("order"));
+    assertEquals("{account=1}", LogContext.current().toString());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void childThreadsInheritTheContextAndMdc() throws Exception {
+    Log.logContextPut("request", "r0");
+    final List<Object> seen = newArrayList();
+    Thread child = new Thread() {
+      @Override
+      public void run() {
+        seen.add(LogContext.current().get("request"));
+        seen.add(MDC.get("request"));
+        Log.withLogContext(new Runnable() {
+          @Override
+          public void run() {
+          }
+        }, Pair.<String, Object>of("order", 1));
+        seen.add(LogContext.current().get("request"));
+        seen.add(MDC.get("request"));
+        seen.add(MDC.get("order"));
+      }
+    };
+    child.start();
+    child.join();
+    assertEquals(newArrayList("r0", "r0", "r0", "r0", null), seen);
+  }
+
+  @Test
+  public void runnableCarriesContextToAnotherThread() throws Exception {
+    Log.logContextPut("request", "r1");
+    final AtomicReference<Object> seen = new AtomicReference<Object>();
+    Runnable task = Log.withCurrentLogContext(new Runnable() {
+      @Override
+      public void run() {
+        seen.set(LogContext.current().get("request") + " " + MDC.get("request"));
+      }
+    });
+    Log.logContextRemove("request");
+    executor.submit(task).get();
+    assertEquals("r1 r1", seen.get());
+    assertEquals(LogContext.EMPTY, executor.submit(new Callable<LogContext>() {
+      @Override
+      public LogContext call() {
+        return LogContext.current();
+      }
+    }).get());
+    assertNull(executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return MDC.get("request");
+      }
+    }).get());
+  }
+
+  @Test
+  public void callableCarriesContext() throws Exception {
+    Log.logContextPut("request", "r2");
+    Callable<Object> task = Log.withCurrentLogContext(new Callable<Object>() {
+      @Override
+      public Object call() {
+        return LogContext.current().get("request");
+      }
+    });
+    assertEquals("r2", executor.submit(task).get());
+  }
+
+  @Test
+  public void executorCarriesContextOfSubmitter() throws Exception {
+    Executor wrapped = Log.withCurrentLogContext(executor);
+    Log.logContextPut("request", "r3");
+    CompletableFuture<Object> future = CompletableFuture.supplyAsync(
+        new Supplier<Object>() {
+          @Override
+          public Object get() {
+            return LogContext.current().get("request");
+          }
+        }, wrapped);
+    assertEquals("r3", future.get());
+  }
+
+  @Test
+  public void asyncEventsSnapshotTheContext() {
+    Log.setLogContextMode(LogContextMode.THREAD_LOCAL);
+    Log.logContextPut("account", 42);
+    LogEvent event = LogEvent.capture(Level.INFO, "logger", "message", null);
+    Log.logContextPut("account", 43);
+    assertEquals(42, event.context.get("account"));
+  }
+
+}
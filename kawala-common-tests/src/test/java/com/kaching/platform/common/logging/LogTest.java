@@ -10,10 +10,20 @@
  */
 package com.kaching.platform.common.logging;
 
+import static com.google.common.collect.Lists.newArrayList;
 import static org.apache.log4j.LogManager.getLogger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+
+import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -23,10 +33,107 @@ public class LogTest {
 
   private static final Log log = new Log("foo");
 
+  private final CapturingAppender appender = new CapturingAppender();
+
   @Before
   public void before() {
     Logger logger = getLogger("foo");
     logger.setLevel(Level.TRACE);
+    logger.addAppender(appender);
+  }
+
+  @After
+  public void after() {
+    getLogger("foo").removeAppender(appender);
+  }
+
+  @Test
+  public void fixedArityFormats() {
+    log.info("%s", 1);
+    log.info("%s %s", 1, 2);
+    log.info("%s %s %s", 1, 2, 3);
+    log.info("%s %s %s %s", 1, 2, 3, 4);
+    log.info("%s %s %s %s %s", 1, 2, 3, 4, 5);
+    assertEquals(
+        newArrayList("1", "1 2", "1 2 3", "1 2 3 4", "1 2 3 4 5"),
+        appender.messages());
+  }
+
+  @Test
+  public void throwableWithFixedArity() {
+    NullPointerException e = new NullPointerException();
+    log.warn(e, "failed %s", "foo");
+    assertEquals(newArrayList("failed foo"), appender.messages());
+    assertSame(e, appender.events.get(0).getThrowableInformation().getThrowable());
+  }
+
+  @Test
+  public void formattingIsDeferredToTheAppender() {
+    log.error("%s", "foo");
+    Object message = appender.events.get(0).getMessage();
+    assertFalse(message instanceof String);
+    assertEquals("foo", message.toString());
+  }
+
+  @Test
+  public void argumentRenderingCanLog() {
+    Object loggingArgument = new Object() {
+      @Override
+      public String toString() {
+        return new FormattedMessage("inner %s", new Object[] { "bar" }).toString();
+      }
+    };
+    log.info("outer %s %s", loggingArgument, "baz");
+    assertEquals(newArrayList("outer inner bar baz"), appender.messages());
+  }
+
+  @Test
+  public void disabledLevelsAreSkipped() {
+    getLogger("foo").setLevel(Level.WARN);
+    log.info("%s", "foo");
+    log.debug("%s %s", "foo", "bar");
+    assertTrue(appender.events.isEmpty());
+    assertSame(LogBuilder.NOOP, log.atInfo());
+    assertSame(LogBuilder.NOOP, log.atTrace().addArgument("foo"));
+  }
+
+  @Test
+  public void builder() {
+    NullPointerException e = new NullPointerException();
+    log.atWarn()
+        .withThrowable(e)
+        .addArgument("foo")
+        .log("%s and %s", "bar");
+    log.atInfo().log("plain %s");
+    assertEquals(newArrayList("foo and bar", "plain %s"), appender.messages());
+    assertEquals(Level.WARN, appender.events.get(0).getLevel());
+    assertSame(e, appender.events.get(0).getThrowableInformation().getThrowable());
+  }
+
+  static class CapturingAppender extends AppenderSkeleton {
+    final List<LoggingEvent> events = newArrayList();
+
+    @Override
+    protected void append(LoggingEvent event) {
+      events.add(event);
+    }
+
+    List<String> messages() {
+      List<String> messages = newArrayList();
+      for (LoggingEvent event : events) {
+        messages.add(event.getRenderedMessage());
+      }
+      return messages;
+    }
+
+    @Override
+    public boolean requiresLayout() {
+      return false;
+    }
+
+    @Override
+    public void close() {
+    }
   }
 
   @Test
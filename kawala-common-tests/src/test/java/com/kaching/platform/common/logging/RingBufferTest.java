@@ -0,0 +1,86 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+  @Test
+  public void capacityIsRoundedToPowerOfTwo() {
+    assertEquals(1, new RingBuffer<String>(1).capacity());
+    assertEquals(8, new RingBuffer<String>(5).capacity());
+    assertEquals(8, new RingBuffer<String>(8).capacity());
+  }
+
+  @Test
+  public void fifo() {
+    RingBuffer<Integer> buffer = new RingBuffer<Integer>(4);
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 4; i++) {
+        assertTrue(buffer.offer(i));
+      }
+      assertFalse(buffer.offer(4));
+      assertEquals(4, buffer.size());
+      for (int i = 0; i < 4; i++) {
+        assertEquals((Integer) i, buffer.poll());
+      }
+      assertNull(buffer.poll());
+      assertEquals(0, buffer.size());
+    }
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    final RingBuffer<Integer> buffer = new RingBuffer<Integer>(64);
+    final int producers = 4;
+    final int perProducer = 10000;
+    final CountDownLatch start = new CountDownLatch(1);
+    for (int p = 0; p < producers; p++) {
+      new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int i = 0; i < perProducer; i++) {
+            while (!buffer.offer(i)) {
+              Thread.yield();
+            }
+          }
+        }
+      }.start();
+    }
+    start.countDown();
+    AtomicInteger polled = new AtomicInteger();
+    long sum = 0;
+    while (polled.get() < producers * perProducer) {
+      Integer value = buffer.poll();
+      if (value != null) {
+        polled.incrementAndGet();
+        sum += value;
+      }
+    }
+    assertEquals(producers * (long) perProducer * (perProducer - 1) / 2, sum);
+    assertNull(buffer.poll());
+  }
+
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.log4j.LogManager.getLogger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import org.apache.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.kaching.platform.common.logging.AsyncLogWriter.Format;
+import com.kaching.platform.common.logging.AsyncLogWriter.OverflowPolicy;
+import com.kaching.platform.common.logging.Log.LogContextMode;
+import com.kaching.platform.common.logging.LogTest.CapturingAppender;
+
+public class StructuredLogTest {
+
+  private static final Log log = new Log("structured");
+
+  private final CapturingAppender appender = new CapturingAppender();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Before
+  public void before() {
+    getLogger("structured").setLevel(Level.INFO);
+    getLogger("structured").addAppender(appender);
+  }
+
+  @After
+  public void after() {
+    Log.setAsyncWriter(null);
+    getLogger("structured").removeAppender(appender);
+  }
+
+  @Test
+  public void rendersAsJsonForLog4j() {
+    log.info()
+        .message("order \"filled\"")
+        .kv("account", 42L)
+        .kv("price", 9.5)
+        .kv("partial", false)
+        .kv("symbol", "AAPL")
+        .kv("quantity", Integer.valueOf(100))
+        .kv("note", null)
+        .emit();
+    assertEquals(1, appender.events.size());
+    assertEquals(
+        "{\"message\":\"order \\\"filled\\\"\"," +
+        "\"account\":42,\"price\":9.5,\"partial\":false,\"symbol\":\"AAPL\"," +
+        "\"quantity\":100,\"note\":null}",
+        appender.events.get(0).getRenderedMessage());
+  }
+
+  @Test
+  public void log4jRendersTheThreadLocalContextLikeTheJsonEncoder() throws Exception {
+    Log.setLogContextMode(LogContextMode.THREAD_LOCAL);
+    Log.logContextPut("request", "r1");
+    try {
+      log.info().message("filled").kv("account", 42).emit();
+      AsyncLogWriter writer = start(Format.JSON_LINES);
+      log.info().message("filled").kv("account", 42).emit();
+      writer.close();
+    } finally {
+      Log.logContextRemove("request");
+      Log.setLogContextMode(LogContextMode.MDC);
+    }
+
+    assertEquals(
+        "{\"message\":\"filled\",\"request\":\"r1\",\"account\":42}",
+        appender.events.get(0).getRenderedMessage());
+    String line = out.toString("UTF-8");
+    assertTrue(line, line.endsWith(
+        "\"message\":\"filled\",\"request\":\"r1\",\"account\":42}\n"));
+  }
+
+  @Test
+  public void log4jLeavesTheMirroredContextToTheMdc() {
+    Log.logContextPut("request", "r1");
+    try {
+      log.info().message("filled").kv("account", 42).emit();
+      assertEquals("r1", appender.events.get(0).getMDC("request"));
+    } finally {
+      Log.logContextRemove("request");
+    }
+    assertEquals(
+        "{\"message\":\"filled\",\"account\":42}",
+        appender.events.get(0).getRenderedMessage());
+  }
+
+  @Test
+  public void reservedKeysArePrefixed() throws Exception {
+    AsyncLogWriter writer = start(Format.JSON_LINES);
+    Log.logContextPut("thread", "worker");
+    try {
+      log.info().message("filled").kv("message", "shadow").emit();
+    } finally {
+      Log.logContextRemove("thread");
+    }
+    writer.close();
+    log.info().message("filled").kv("level", 3).emit();
+
+    String line = out.toString("UTF-8");
+    assertTrue(line, line.endsWith(
+        "\"message\":\"filled\",\"_thread\":\"worker\"," +
+        "\"_message\":\"shadow\"}\n"));
+    assertEquals(
+        "{\"message\":\"filled\",\"_level\":3}",
+        appender.events.get(0).getRenderedMessage());
+  }
+
+  @Test
+  public void disabledLevelsIgnoreTheStatement() {
+    assertSame(StructuredLogBuilder.NOOP, log.debug());
+    log.debug().message("ignored").kv("key", 1).emit();
+    assertTrue(appender.events.isEmpty());
+  }
+
+  @Test
+  public void throwableIsPassedToLog4j() {
+    IllegalStateException e = new IllegalStateException();
+    log.error().withThrowable(e).kv("key", true).emit();
+    assertEquals("{\"key\":true}", appender.events.get(0).getRenderedMessage());
+    assertSame(e, appender.events.get(0).getThrowableInformation().getThrowable());
+  }
+
+  @Test
+  public void textFormat() throws Exception {
+    AsyncLogWriter writer = start(Format.TEXT);
+    log.info().message("filled").kv("account", 42).kv("price", 9.5).emit();
+    writer.close();
+    String line = out.toString("UTF-8");
+    assertTrue(line, line.endsWith(" - filled account=42 price=9.5\n"));
+  }
+
+  @Test
+  public void jsonLinesFormat() throws Exception {
+    AsyncLogWriter writer = start(Format.JSON_LINES);
+    Log.logContextPut("request", "r1");
+    try {
+      log.info().message("filled").kv("account", 42).kv("ratio", Double.NaN).emit();
+    } finally {
+      Log.logContextRemove("request");
+    }
+    log.warn(new IllegalStateException("boom"), "plain %s", "text");
+    writer.close();
+
+    String[] lines = out.toString("UTF-8").split("\n");
+    assertEquals(2, lines.length);
+    String thread = Thread.currentThread().getName();
+    assertTrue(lines[0], lines[0].startsWith("{\"time\":\""));
+    assertTrue(lines[0], lines[0].endsWith(
+        "\",\"level\":\"INFO\",\"logger\":\"structured\",\"thread\":\"" +
+        thread + "\",\"message\":\"filled\",\"request\":\"r1\"," +
+        "\"account\":42,\"ratio\":\"NaN\"}"));
+    assertTrue(lines[1], lines[1].contains(
+        "\"level\":\"WARN\",\"logger\":\"structured\",\"thread\":\"" +
+        thread + "\",\"message\":\"plain text\",\"exception\":" +
+        "\"java.lang.IllegalStateException: boom\\n\\tat "));
+    assertTrue(appender.events.isEmpty());
+  }
+
+  @Test
+  public void binaryFormat() throws Exception {
+    AsyncLogWriter writer = start(Format.BINARY);
+    long before = System.currentTimeMillis();
+    log.info()
+        .message("filled")
+        .kv("account", 42)
+        .kv("price", 9.5)
+        .kv("partial", true)
+        .kv("symbol", "AAPL")
+        .emit();
+    log.error(new IllegalStateException("boom"), "failed");
+    writer.close();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    int length = in.readInt();
+    long time = in.readLong();
+    assertTrue(before <= time && time <= System.currentTimeMillis());
+    assertEquals(com.kaching.platform.common.logging.Level.INFO.ordinal(), in.readByte());
+    assertEquals("structured", readString(in));
+    assertEquals(Thread.currentThread().getName(), readString(in));
+    assertEquals("filled", readString(in));
+    assertEquals(4, in.readInt());
+    assertEquals("account", readString(in));
+    assertEquals(KeyValues.LONG, in.readByte());
+    assertEquals(42L, in.readLong());
+    assertEquals("price", readString(in));
+    assertEquals(KeyValues.DOUBLE, in.readByte());
+    assertEquals(9.5, in.readDouble(), 0.0);
+    assertEquals("partial", readString(in));
+    assertEquals(KeyValues.BOOLEAN, in.readByte());
+    assertTrue(in.readBoolean());
+    assertEquals("symbol", readString(in));
+    assertEquals(KeyValues.STRING, in.readByte());
+    assertEquals("AAPL", readString(in));
+    assertNull(readString(in));
+    assertEquals(out.size() - 4 - length, in.available());
+
+    int remaining = in.available();
+    assertEquals(remaining - 4, in.readInt());
+    in.readLong();
+    assertEquals(com.kaching.platform.common.logging.Level.ERROR.ordinal(), in.readByte());
+    readString(in);
+    readString(in);
+    assertEquals("failed", readString(in));
+    assertEquals(0, in.readInt());
+    String stackTrace = readString(in);
+    assertTrue(stackTrace, stackTrace.startsWith("java.lang.IllegalStateException: boom"));
+    assertEquals(0, in.available());
+    assertTrue(appender.events.isEmpty());
+  }
+
+  private AsyncLogWriter start(Format format) {
+    AsyncLogWriter writer = new AsyncLogWriter(
+        Channels.newChannel(out), 16, OverflowPolicy.BLOCK, format);
+    writer.start();
+    Log.setAsyncWriter(writer);
+    return writer;
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+}
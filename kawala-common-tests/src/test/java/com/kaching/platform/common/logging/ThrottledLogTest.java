@@ -0,0 +1,303 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.log4j.LogManager.getLogger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+import com.kaching.platform.common.logging.LogTest.CapturingAppender;
+
+public class ThrottledLogTest {
+
+  private final Log log = new Log("throttled");
+  private final CapturingAppender appender = new CapturingAppender();
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Before
+  public void before() {
+    getLogger("throttled").setLevel(Level.INFO);
+    getLogger("throttled").addAppender(appender);
+  }
+
+  @After
+  public void after() {
+    getLogger("throttled").removeAppender(appender);
+  }
+
+  @Test
+  public void rateLimitedPerSecond() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 2, ticker);
+    for (int i = 0; i < 5; i++) {
+      throttled.warn("failure %s", i);
+    }
+    ticker.advance(SECONDS.toNanos(1));
+    throttled.warn("failure %s", 5);
+    assertEquals(
+        newArrayList(
+            "failure 0", "failure 1",
+            "suppressed 3 statements like \"failure %s\"", "failure 5"),
+        appender.messages());
+  }
+
+  @Test
+  public void windowsAreAlignedOnSeconds() {
+    ticker.advance(MILLISECONDS.toNanos(900));
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.info("statement");
+    throttled.info("statement");
+    ticker.advance(MILLISECONDS.toNanos(200));
+    throttled.info("statement");
+    assertEquals(
+        newArrayList(
+            "statement", "suppressed 1 statements like \"statement\"",
+            "statement"),
+        appender.messages());
+  }
+
+  @Test
+  public void callSitesAreIndependent() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.warn("first");
+    throttled.warn("first");
+    throttled.warn("second");
+    throttled.error("first");
+    assertEquals(
+        newArrayList("first", "second", "first"), appender.messages());
+  }
+
+  @Test
+  public void burstsAreReportedByOtherCallSites() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.warn("first");
+    throttled.warn("first");
+    ticker.advance(SECONDS.toNanos(1));
+    throttled.error("second");
+    assertEquals(
+        newArrayList(
+            "first", "suppressed 1 statements like \"first\"", "second"),
+        appender.messages());
+    assertEquals(org.apache.log4j.Level.WARN, appender.events.get(1).getLevel());
+  }
+
+  @Test
+  public void burstsAreReportedWhenTheLogFallsSilent() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.warn("statement");
+    throttled.warn("statement");
+    log.callSites(ticker).roll();
+    assertEquals(newArrayList("statement"), appender.messages());
+    ticker.advance(SECONDS.toNanos(1));
+    log.callSites(ticker).roll();
+    assertEquals(
+        newArrayList("statement", "suppressed 1 statements like \"statement\""),
+        appender.messages());
+  }
+
+  @Test
+  public void burstsOnTheSystemTickerAreReportedInTheBackground()
+      throws Exception {
+    log.rateLimited(1).warn("statement");
+    log.rateLimited(1).warn("statement");
+    long deadline = System.currentTimeMillis() + SECONDS.toMillis(5);
+    while (appender.events.size() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(
+        newArrayList("statement", "suppressed 1 statements like \"statement\""),
+        appender.messages());
+  }
+
+  @Test
+  public void policiesHaveSeparateCounters() {
+    ThrottledLog rateLimited = ThrottledLog.rateLimited(log, 1, ticker);
+    ThrottledLog sampled = ThrottledLog.sampled(log, 0.0, ticker);
+    rateLimited.warn("statement");
+    rateLimited.warn("statement");
+    sampled.warn("statement");
+    sampled.warn("statement");
+    sampled.warn("statement");
+    ticker.advance(SECONDS.toNanos(1));
+    log.callSites(ticker).roll();
+    List<String> messages = appender.messages();
+    assertEquals(3, messages.size());
+    assertEquals("statement", messages.get(0));
+    assertTrue(messages.toString(), messages.containsAll(newArrayList(
+        "suppressed 1 statements like \"statement\"",
+        "suppressed 3 statements like \"statement\"")));
+  }
+
+  @Test
+  public void countersAreSharedByViews() {
+    log.rateLimited(1).warn("statement %s", 1);
+    log.rateLimited(1).warn("statement %s", 2);
+    assertEquals(newArrayList("statement 1"), appender.messages());
+  }
+
+  @Test
+  public void disabledLevelsAreNotCounted() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.debug("statement");
+    getLogger("throttled").setLevel(Level.DEBUG);
+    throttled.debug("statement");
+    assertEquals(newArrayList("statement"), appender.messages());
+  }
+
+  @Test
+  public void throwables() {
+    IllegalStateException e = new IllegalStateException();
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.error(e, "failed %s", "order");
+    throttled.error(e, "failed %s", "order");
+    assertEquals(newArrayList("failed order"), appender.messages());
+    assertSame(e, appender.events.get(0).getThrowableInformation().getThrowable());
+  }
+
+  @Test
+  public void overloads() {
+    IllegalStateException e = new IllegalStateException("boom");
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    throttled.info("%s %s %s", 1, 2, 3);
+    throttled.info("%s %s %s %s", 1, 2, 3, 4);
+    throttled.info(e, "failed %s %s %s", 1, 2, 3);
+    throttled.info(e);
+    throttled.info(new IllegalStateException("other"));
+    assertEquals(
+        newArrayList("1 2 3", "1 2 3 4", "failed 1 2 3", "boom"),
+        appender.messages());
+  }
+
+  @Test
+  public void loggedLikeTheLog() {
+    getLogger("throttled").setLevel(Level.TRACE);
+    IllegalStateException e = new IllegalStateException("boom");
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 10, ticker);
+    throttled.trace(e);
+    log.trace(e);
+    throttled.info(e);
+    log.info(e);
+    for (int i = 0; i < 4; i += 2) {
+      LoggingEvent throttledEvent = appender.events.get(i);
+      LoggingEvent event = appender.events.get(i + 1);
+      assertEquals(event.getMessage(), throttledEvent.getMessage());
+      assertEquals(
+          event.getThrowableInformation() == null,
+          throttledEvent.getThrowableInformation() == null);
+    }
+  }
+
+  @Test
+  public void sampled() {
+    ThrottledLog none = ThrottledLog.sampled(log, 0.0, ticker);
+    ThrottledLog all = ThrottledLog.sampled(log, 1.0, ticker);
+    for (int i = 0; i < 10; i++) {
+      none.info("none");
+      all.info("all");
+    }
+    ticker.advance(SECONDS.toNanos(1));
+    none.info("none");
+    List<String> messages = appender.messages();
+    assertEquals(11, messages.size());
+    assertEquals("suppressed 10 statements like \"none\"", messages.get(10));
+  }
+
+  @Test
+  public void sampledAtHalf() {
+    ThrottledLog throttled = ThrottledLog.sampled(log, 0.5, ticker);
+    for (int i = 0; i < 10000; i++) {
+      throttled.info("statement");
+    }
+    int size = appender.events.size();
+    assertTrue(String.valueOf(size), 4500 < size && size < 5500);
+  }
+
+  @Test
+  public void concurrentStatements() throws Exception {
+    final ThrottledLog throttled = ThrottledLog.rateLimited(log, 100, ticker);
+    final CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int j = 0; j < 1000; j++) {
+            throttled.warn("statement");
+          }
+        }
+      };
+      threads[i].start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    ticker.advance(SECONDS.toNanos(1));
+    throttled.warn("statement");
+    List<String> messages = appender.messages();
+    int permitted = messages.size() - 2;
+    assertTrue(String.valueOf(permitted), 0 < permitted && permitted <= 100);
+    assertEquals(
+        "suppressed " + (8000 - permitted) + " statements like \"statement\"",
+        messages.get(permitted));
+  }
+
+  @Test
+  public void callSitesAreBounded() {
+    ThrottledLog throttled = ThrottledLog.rateLimited(log, 1, ticker);
+    for (int i = 0; i < CallSites.MAX_CALL_SITES + 10; i++) {
+      throttled.info("statement " + i);
+    }
+    assertEquals(CallSites.MAX_CALL_SITES + 1, appender.events.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativePermits() {
+    log.rateLimited(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void probabilityAboveOne() {
+    log.sampled(1.5);
+  }
+
+  static class FakeTicker extends Ticker {
+    private long nanos;
+
+    void advance(long delta) {
+      nanos += delta;
+    }
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+  }
+
+}
@@ -10,8 +10,15 @@
  */
 package com.kaching.platform.common.reflect;
 
+import static com.kaching.platform.common.reflect.ReflectUtils.fieldAccessor;
 import static com.kaching.platform.common.reflect.ReflectUtils.getField;
+import static com.kaching.platform.common.reflect.ReflectUtils.methodInvoker;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
 
 import org.junit.Test;
 
@@ -27,12 +34,136 @@ public class ReflectUtilsTest {
     assertEquals("parent", getField(new Child(), "field2"));
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void getFieldMissing() {
+    getField(new Child(), "field3");
+  }
+
+  @Test
+  public void accessorIsCached() {
+    assertSame(fieldAccessor(Child.class, "field2"), fieldAccessor(Child.class, "field2"));
+    assertNotSame(fieldAccessor(Child.class, "field2"), fieldAccessor(Parent.class, "field2"));
+  }
+
+  @Test
+  public void accessorGetAndSet() {
+    Child child = new Child();
+    FieldAccessor accessor = fieldAccessor(Child.class, "field2");
+    accessor.set(child, "changed");
+    assertEquals("changed", accessor.get(child));
+    assertEquals("changed", child.field2);
+    assertEquals(Parent.class, accessor.getField().getDeclaringClass());
+  }
+
+  @Test
+  public void accessorFinalPrimitive() {
+    Child child = new Child();
+    FieldAccessor accessor = fieldAccessor(Child.class, "count");
+    accessor.set(child, 7);
+    assertEquals(7, accessor.get(child));
+  }
+
+  @Test
+  public void accessorStatic() {
+    assertEquals("constant", fieldAccessor(Child.class, "CONSTANT").get(null));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void accessorStaticFinalIsReadOnly() {
+    fieldAccessor(Child.class, "CONSTANT").set(null, "changed");
+  }
+
+  @Test
+  public void invoke() {
+    MethodInvoker invoker = methodInvoker(Child.class, "concat", String.class, int.class);
+    assertEquals("child-parent-3", invoker.invoke(new Child(), "-", 3));
+    assertSame(invoker, methodInvoker(Child.class, "concat", String.class, int.class));
+  }
+
+  @Test
+  public void invokeInherited() {
+    assertEquals("parent", methodInvoker(Child.class, "name").invoke(new Child()));
+  }
+
+  @Test
+  public void invokeStatic() {
+    assertEquals(4, methodInvoker(Child.class, "twice", int.class).invoke(null, 2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void invokeRethrows() {
+    methodInvoker(Child.class, "fail").invoke(new Child());
+  }
+
+  @Test
+  public void invokeWrapsCheckedExceptions() {
+    try {
+      methodInvoker(Child.class, "failChecked").invoke(new Child());
+      fail();
+    } catch (RuntimeException e) {
+      assertEquals(IOException.class, e.getCause().getClass());
+    }
+  }
+
+  @Test
+  public void fieldsAndMethodsAreCachedSeparately() {
+    Child child = new Child();
+    assertEquals("child", fieldAccessor(Child.class, "field1").get(child));
+    assertEquals("method", methodInvoker(Child.class, "field1").invoke(child));
+    assertEquals("child", fieldAccessor(Child.class, "field1").get(child));
+  }
+
+  @Test
+  public void invokersAreKeyedByACopyOfTheParameterTypes() {
+    Class<?>[] parameterTypes = { String.class, int.class };
+    MethodInvoker invoker = methodInvoker(Child.class, "concat", parameterTypes);
+    parameterTypes[1] = long.class;
+    assertSame(invoker, methodInvoker(Child.class, "concat", String.class, int.class));
+  }
+
+  @Test
+  public void invokeMissing() {
+    try {
+      methodInvoker(Child.class, "concat", String.class);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(
+          "no method concat(java.lang.String) in " + Child.class, e.getMessage());
+    }
+  }
+
   static class Child extends Parent {
+    static final String CONSTANT = "constant";
     String field1 = "child";
+    final int count = 0;
+
+    private String concat(String separator, int number) {
+      return field1 + separator + field2 + separator + number;
+    }
+
+    static int twice(int value) {
+      return 2 * value;
+    }
+
+    void fail() {
+      throw new IllegalStateException();
+    }
+
+    void failChecked() throws IOException {
+      throw new IOException();
+    }
+
+    String field1() {
+      return "method";
+    }
   }
 
   static class Parent {
     String field2 = "parent";
+
+    String name() {
+      return field2;
+    }
   }
 
 }
@@ -8,21 +8,32 @@ import static com.google.inject.util.Types.supertypeOf;
 import static com.kaching.platform.common.types.Types.isAssignableFrom;
 import static com.kaching.platform.common.types.Types.isInstance;
 import static junit.framework.Assert.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.junit.Test;
 
+import com.google.common.io.ByteStreams;
 import com.google.inject.TypeLiteral;
 
 public class TypesTest {
@@ -134,6 +145,199 @@ public class TypesTest {
         listOf(String.class)));
   }
 
+  @Test
+  public void structuralEquality() throws Exception {
+    Type reflected = Holder.class.getDeclaredField("map").getGenericType();
+    Type guice = new TypeLiteral<Map<String, List<Set<Integer>>>>() {}.getType();
+    Type ours = new ParameterizedTypeImpl(Map.class, new Type[] {
+        String.class,
+        new ParameterizedTypeImpl(List.class, new Type[] {
+            new ParameterizedTypeImpl(Set.class, new Type[] { Integer.class }) }) });
+
+    assertTrue(Types.equal(reflected, guice));
+    assertTrue(Types.equal(guice, ours));
+    assertTrue(Types.equal(ours, reflected));
+    assertEquals(reflected.hashCode(), Types.hash(reflected));
+    assertEquals(reflected.hashCode(), Types.hash(guice));
+    assertEquals(reflected.hashCode(), Types.hash(ours));
+
+    assertFalse(Types.equal(reflected, listOf(String.class)));
+    assertFalse(Types.equal(reflected, null));
+    assertFalse(Types.equal(null, reflected));
+
+    Type numbers = ((ParameterizedType) Holder.class.getDeclaredField("numbers")
+        .getGenericType()).getActualTypeArguments()[0];
+    assertTrue(Types.equal(subtypeOf(Number.class), numbers));
+    assertEquals(numbers.hashCode(), Types.hash(subtypeOf(Number.class)));
+  }
+
+  @Test
+  public void parametersAreCopied() {
+    Type[] parameters = { String.class };
+    Type type = new ParameterizedTypeImpl(List.class, parameters);
+    parameters[0] = Integer.class;
+    assertEquals(listOf(String.class), type);
+    assertEquals(listOf(String.class).hashCode(), type.hashCode());
+  }
+
+  @Test
+  public void cachedResultsAgreeAcrossSources() throws Exception {
+    Type reflected = Holder.class.getDeclaredField("map").getGenericType();
+    Type guice = new TypeLiteral<Map<String, List<Set<Integer>>>>() {}.getType();
+    Type scheme = new TypeLiteral<Map<String, ? extends List<?>>>() {}.getType();
+    Type otherScheme = new TypeLiteral<Map<String, ? extends Set<?>>>() {}.getType();
+    for (int i = 0; i < 3; i++) {
+      assertTrue(isInstance(guice, reflected));
+      assertTrue(isInstance(reflected, guice));
+      assertTrue(isInstance(scheme, reflected));
+      assertFalse(isInstance(otherScheme, reflected));
+      assertTrue(isAssignableFrom(Map.class, reflected));
+      assertTrue(isAssignableFrom(reflected, HashMap.class));
+      assertFalse(isAssignableFrom(listOf(String.class), reflected));
+    }
+  }
+
+  @Test
+  public void nullsAreNotInstances() {
+    assertFalse(isInstance(listOf(String.class), null));
+    assertFalse(isInstance(String.class, null));
+  }
+
+  @Test
+  public void resultsPastTheCacheBound() {
+    for (int i = 0; i < Types.CACHED_PAIRS_PER_CLASS + 10; i++) {
+      Type type = newParameterizedType(Map.class, Integer.class, new TypeVariableImpl());
+      assertTrue(isInstance(newParameterizedType(Map.class, Integer.class, new TypeVariableImpl()), type));
+      assertFalse(isInstance(setOf(Integer.class), type));
+    }
+  }
+
+  @Test
+  public void memosDoNotKeepClassLoadersReachable() throws Exception {
+    WeakReference<ClassLoader> loader = useThrowawayLoader();
+    for (int i = 0; i < 100 && loader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(loader.get());
+  }
+
+  private static WeakReference<ClassLoader> useThrowawayLoader() throws Exception {
+    ClassLoader loader = new ThrowawayLoader();
+    Class<?> leaf = loader.loadClass(Leaf.class.getName());
+    assertFalse(leaf == Leaf.class);
+    Type leaves = leaf.getDeclaredField("leaves").getGenericType();
+    for (int i = 0; i < 2; i++) {
+      assertTrue(isInstance(leaves, newParameterizedType(List.class, leaf)));
+      assertTrue(isAssignableFrom(leaves, newParameterizedType(ArrayList.class, leaf)));
+      assertTrue(isAssignableFrom(Types.newParameterizedType(Collection.class, leaf), leaves));
+      assertFalse(isAssignableFrom(leaves, listOf(Leaf.class)));
+    }
+    return new WeakReference<ClassLoader>(loader);
+  }
+
+  @Test
+  public void canonicalize() throws Exception {
+    Type reflected = Holder.class.getDeclaredField("map").getGenericType();
+    Type guice = new TypeLiteral<Map<String, List<Set<Integer>>>>() {}.getType();
+    Type canonical = Types.canonicalize(reflected);
+
+    assertSame(canonical, Types.canonicalize(guice));
+    assertSame(canonical, Types.canonicalize(canonical));
+    assertSame(canonical, Types.newParameterizedType(Map.class,
+        String.class, listOf(setOf(Integer.class))));
+    assertEquals(reflected, canonical);
+    assertEquals(canonical, reflected);
+    assertEquals(guice, canonical);
+    assertEquals(reflected.hashCode(), canonical.hashCode());
+    assertEquals(reflected.toString(), canonical.toString());
+    assertSame(String.class, Types.canonicalize(String.class));
+  }
+
+  @Test
+  public void canonicalTypesCannotBeModifiedThroughTheirArguments() {
+    ParameterizedType canonical = Types.newParameterizedType(List.class, String.class);
+    int hash = canonical.hashCode();
+    canonical.getActualTypeArguments()[0] = Integer.class;
+    assertSame(String.class, canonical.getActualTypeArguments()[0]);
+    assertEquals(hash, canonical.hashCode());
+    assertSame(canonical, Types.newParameterizedType(List.class, String.class));
+  }
+
+  @Test
+  public void canonicalArraysAndWildcards() throws Exception {
+    Type numbers = Holder.class.getDeclaredField("numbers").getGenericType();
+    Type array = Holder.class.getDeclaredField("array").getGenericType();
+    Type supers = Holder.class.getDeclaredField("supers").getGenericType();
+
+    assertSame(Types.canonicalize(numbers),
+        Types.newParameterizedType(List.class, Types.subtypeOf(Number.class)));
+    assertSame(Types.canonicalize(array), Types.arrayOf(listOf(String.class)));
+    assertSame(Types.canonicalize(supers),
+        Types.newParameterizedType(Set.class, Types.supertypeOf(Integer.class)));
+    assertEquals(numbers, Types.canonicalize(numbers));
+    assertEquals(array, Types.canonicalize(array));
+    assertEquals(supers, Types.canonicalize(supers));
+    assertEquals(array.hashCode(), Types.canonicalize(array).hashCode());
+    assertEquals(supers.hashCode(), Types.canonicalize(supers).hashCode());
+    assertEquals(supers.toString(), Types.canonicalize(supers).toString());
+  }
+
+  @Test
+  public void canonicalNestedTypes() throws Exception {
+    Type reflected = Holder.class.getDeclaredField("entry").getGenericType();
+    ParameterizedType canonical =
+        Types.newParameterizedType(Map.Entry.class, String.class, Integer.class);
+
+    assertSame(Map.class, canonical.getOwnerType());
+    assertSame(canonical, Types.canonicalize(reflected));
+    assertEquals(reflected, canonical);
+    assertEquals(reflected.toString(), canonical.toString());
+  }
+
+  static class Holder {
+    Map<String, List<Set<Integer>>> map;
+    List<? extends Number> numbers;
+    List<String>[] array;
+    Set<? super Integer> supers;
+    Map.Entry<String, Integer> entry;
+  }
+
+  static class Leaf {
+    List<Leaf> leaves;
+  }
+
+  /**
+   * Defines its own copy of {@link Leaf}.
+   */
+  static class ThrowawayLoader extends ClassLoader {
+
+    ThrowawayLoader() {
+      super(TypesTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve)
+        throws ClassNotFoundException {
+      if (!name.equals(Leaf.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> loaded = findLoadedClass(name);
+        if (loaded == null) {
+          try {
+            byte[] bytes = ByteStreams.toByteArray(getParent()
+                .getResourceAsStream(name.replace('.', '/') + ".class"));
+            loaded = defineClass(name, bytes, 0, bytes.length);
+          } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+          }
+        }
+        return loaded;
+      }
+    }
+  }
+
   static class TypeVariableImpl implements TypeVariable<GenericDeclaration> {
     private final Type[] bounds;
 
@@ -159,5 +363,25 @@ public class TypesTest {
     public String getName() {
       throw new UnsupportedOperationException();
     }
+
+    @Override
+    public AnnotatedType[] getAnnotatedBounds() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Annotation[] getDeclaredAnnotations() {
+      throw new UnsupportedOperationException();
+    }
   }
 }
@@ -13,6 +13,7 @@ package com.kaching.platform.common.types;
 import static java.util.Arrays.asList;
 import static junit.framework.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.lang.reflect.Type;
 import java.util.List;
@@ -260,7 +261,6 @@ public class UnificationTest {
   }
 
   @Test
-  @Ignore("issue 22")
   public void crazyMerge() throws Exception {
     assertEquals(
         new TypeLiteral<Map<Integer, String>>() {}.getType(),
@@ -279,6 +279,57 @@ public class UnificationTest {
   static class MergeOfIntegerAndString extends Merge<Integer, String> {}
   static class Merge<K, V> implements ManyTypeParams<Map<K, V>, Map<V, K>, List<Map<K, V>>> {}
 
+  @Test
+  public void wildcardsAndArrays() throws Exception {
+    assertEquals(
+        new TypeLiteral<List<? extends Integer>>() {}.getType(),
+        Unification.getActualTypeArgument(Wildcards.class, ManyTypeParams.class, 0));
+    assertEquals(
+        Integer[].class,
+        Unification.getActualTypeArgument(Wildcards.class, ManyTypeParams.class, 1));
+    assertEquals(
+        new TypeLiteral<List<Integer>[]>() {}.getType(),
+        Unification.getActualTypeArgument(Wildcards.class, ManyTypeParams.class, 2));
+  }
+
+  static class Wildcards extends WithWildcards<Integer> {}
+  static class WithWildcards<T> implements ManyTypeParams<List<? extends T>, T[], List<T>[]> {}
+
+  @Test
+  public void unboundTypeParameter() throws Exception {
+    assertEquals(
+        Generic.class.getTypeParameters()[0],
+        Unification.getActualTypeArgument(Generic.class, TopLevel.class, 0));
+  }
+
+  static class Generic<T> implements TopLevel<T> {}
+
+  @Test
+  public void rawSupertypeInTheMiddle() throws Exception {
+    try {
+      Unification.getActualTypeArgument(ExtendsRawMidLevel.class, MidLevel1.class, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(
+          "class com.kaching.platform.common.types.UnificationTest$ExtendsRawMidLevel " +
+          "does extend parametrically class com.kaching.platform.common.types.UnificationTest$MidLevel1",
+          e.getMessage());
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  static class ExtendsRawMidLevel extends MidLevel1 {}
+
+  @Test
+  public void resultsAreMemoized() throws Exception {
+    assertSame(
+        Unification.getActualTypeArgument(IntegerListQuery.class, TopLevel.class, 0),
+        Unification.getActualTypeArgument(IntegerListQuery.class, TopLevel.class, 0));
+    assertSame(
+        Unification.getActualTypeArgument(MergeOfIntegerAndString.class, ManyTypeParams.class, 2),
+        Unification.getActualTypeArgument(MergeOfIntegerAndString.class, ManyTypeParams.class, 2));
+  }
+
 
   private static class Foo {}
 
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static java.util.EnumSet.allOf;
+import static java.util.EnumSet.noneOf;
+import static java.util.EnumSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public class NumberedEnumSetTest {
+
+  private final NumberedEnumSet<Flag> flags = new NumberedEnumSet<Flag>(Flag.class);
+
+  @Test
+  public void toLong() {
+    assertEquals(0L, flags.toLong(noneOf(Flag.class)));
+    assertEquals(1L, flags.toLong(of(Flag.ZERO)));
+    assertEquals(0x24L, flags.toLong(of(Flag.TWO, Flag.FIVE)));
+    assertEquals(Long.MIN_VALUE, flags.toLong(of(Flag.SIXTY_THREE)));
+  }
+
+  @Test
+  public void fromLong() {
+    assertEquals(noneOf(Flag.class), flags.fromLong(0L));
+    assertEquals(of(Flag.TWO, Flag.FIVE), flags.fromLong(0x24L));
+    assertEquals(of(Flag.ZERO, Flag.SIXTY_THREE), flags.fromLong(Long.MIN_VALUE | 1L));
+  }
+
+  @Test
+  public void fromLongUnknownNumbers() {
+    try {
+      flags.fromLong(0x2aL);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("42 is not a Flag set, unknown numbers {1, 3}", e.getMessage());
+    }
+  }
+
+  @Test
+  public void toLongDoesNotFit() {
+    try {
+      flags.toLong(of(Flag.TWO, Flag.SIXTY_FOUR));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("SIXTY_FOUR has number 64 which does not fit in a long", e.getMessage());
+    }
+  }
+
+  @Test
+  public void bitSet() {
+    BitSet expected = new BitSet();
+    expected.set(0);
+    expected.set(2);
+    expected.set(5);
+    expected.set(63);
+    expected.set(64);
+    assertEquals(expected, flags.toBitSet(allOf(Flag.class)));
+    assertEquals(allOf(Flag.class), flags.fromBitSet(expected));
+    assertEquals(noneOf(Flag.class), flags.fromBitSet(new BitSet()));
+  }
+
+  @Test
+  public void fromBitSetUnknownNumber() {
+    BitSet bitSet = new BitSet();
+    bitSet.set(2);
+    bitSet.set(100);
+    try {
+      flags.fromBitSet(bitSet);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("{2, 100} is not a Flag set, unknown number 100", e.getMessage());
+    }
+  }
+
+  @Test
+  public void toBitSetNegativeNumber() {
+    NumberedEnumSet<Negative> negatives = new NumberedEnumSet<Negative>(Negative.class);
+    assertEquals(0L, negatives.toLong(noneOf(Negative.class)));
+    try {
+      negatives.toBitSet(of(Negative.MINUS_ONE));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("MINUS_ONE has negative number -1", e.getMessage());
+    }
+  }
+
+  enum Flag implements NumberedValue {
+    SIXTY_FOUR(64), FIVE(5), ZERO(0), SIXTY_THREE(63), TWO(2);
+
+    private final int number;
+
+    private Flag(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int getNumber() {
+      return number;
+    }
+  }
+
+  enum Negative implements NumberedValue {
+    MINUS_ONE;
+
+    @Override
+    public int getNumber() {
+      return -1;
+    }
+  }
+
+}
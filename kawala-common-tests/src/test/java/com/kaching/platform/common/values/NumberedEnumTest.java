@@ -12,6 +12,8 @@ package com.kaching.platform.common.values;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -34,6 +36,54 @@ public class NumberedEnumTest {
     assertFalse(NumberedEnum.valueOf(TestMe.class, 89).isDefined());
   }
 
+  @Test
+  public void valueOfDoesNotAllocate() {
+    assertSame(
+        NumberedEnum.valueOf(TestMe.class, 2),
+        NumberedEnum.valueOf(TestMe.class, 2));
+  }
+
+  @Test
+  public void valueOfOutsideOfDenseRange() {
+    assertFalse(NumberedEnum.valueOf(TestMe.class, 0).isDefined());
+    assertFalse(NumberedEnum.valueOf(TestMe.class, 4).isDefined());
+    assertFalse(NumberedEnum.valueOf(TestMe.class, Integer.MIN_VALUE).isDefined());
+    assertFalse(NumberedEnum.valueOf(TestMe.class, Integer.MAX_VALUE).isDefined());
+  }
+
+  @Test
+  public void valueOfGaps() {
+    assertEquals(Gaps.A, NumberedEnum.valueOf(Gaps.class, -2).getOrThrow());
+    assertEquals(Gaps.B, NumberedEnum.valueOf(Gaps.class, 5).getOrThrow());
+    assertFalse(NumberedEnum.valueOf(Gaps.class, 0).isDefined());
+    assertFalse(NumberedEnum.valueOf(Gaps.class, 6).isDefined());
+  }
+
+  @Test
+  public void valueOfSparse() {
+    assertEquals(Sparse.MIN, NumberedEnum.valueOf(Sparse.class, Integer.MIN_VALUE).getOrThrow());
+    assertEquals(Sparse.ONE, NumberedEnum.valueOf(Sparse.class, 1).getOrThrow());
+    assertEquals(Sparse.MILLION, NumberedEnum.valueOf(Sparse.class, 1000000).getOrThrow());
+    assertEquals(Sparse.MAX, NumberedEnum.valueOf(Sparse.class, Integer.MAX_VALUE).getOrThrow());
+    assertFalse(NumberedEnum.valueOf(Sparse.class, 0).isDefined());
+    assertFalse(NumberedEnum.valueOf(Sparse.class, 2).isDefined());
+  }
+
+  @Test
+  public void valueOfEmpty() {
+    assertFalse(NumberedEnum.valueOf(Empty.class, 0).isDefined());
+  }
+
+  @Test
+  public void duplicateNumbers() {
+    try {
+      NumberedEnum.valueOf(Duplicates.class, 1);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("A and B have the same number 1", e.getMessage());
+    }
+  }
+
   private TestMe get(int number) {
     return NumberedEnum.valueOf(TestMe.class, number).getOrThrow();
   }
@@ -57,4 +107,26 @@ public class NumberedEnumTest {
 
   }
 
+  enum Gaps implements NumberedValue {
+    A { @Override public int getNumber() { return -2; } },
+    B { @Override public int getNumber() { return 5; } };
+  }
+
+  enum Sparse implements NumberedValue {
+    MAX { @Override public int getNumber() { return Integer.MAX_VALUE; } },
+    ONE { @Override public int getNumber() { return 1; } },
+    MILLION { @Override public int getNumber() { return 1000000; } },
+    MIN { @Override public int getNumber() { return Integer.MIN_VALUE; } };
+  }
+
+  enum Empty implements NumberedValue {
+    ;
+    @Override public int getNumber() { return 0; }
+  }
+
+  enum Duplicates implements NumberedValue {
+    A, B;
+    @Override public int getNumber() { return 1; }
+  }
+
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SsnArrayTest {
+
+  @Test
+  public void addAndGet() {
+    SsnArray ssns = new SsnArray(1);
+    ssns.add("123-45-6789");
+    ssns.add(new Ssn("001020003"));
+    ssns.add(0, new Ssn("772999999"));
+
+    assertEquals(3, ssns.size());
+    assertEquals(
+        Arrays.asList(new Ssn("772999999"), new Ssn("123456789"), new Ssn("001020003")),
+        ssns);
+    assertEquals(123456789, ssns.getInt(1));
+    assertEquals("***-**-0003", ssns.getMasked(2));
+    assertEquals("[***-**-9999, ***-**-6789, ***-**-0003]", ssns.toString());
+  }
+
+  @Test
+  public void setAndRemove() {
+    SsnArray ssns = new SsnArray();
+    ssns.addAll(Arrays.asList(new Ssn("123456789"), new Ssn("123456788")));
+
+    assertEquals(new Ssn("123456789"), ssns.set(0, new Ssn("123456787")));
+    assertEquals(new Ssn("123456787"), ssns.remove(0));
+    assertEquals(Arrays.asList(new Ssn("123456788")), ssns);
+
+    ssns.clear();
+    assertEquals(0, ssns.size());
+  }
+
+  @Test
+  public void addInvalid() {
+    SsnArray ssns = new SsnArray();
+    try {
+      ssns.add("666-12-3456");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals(null, e.getMessage());
+    }
+    assertEquals(0, ssns.size());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void outOfBounds() {
+    new SsnArray().getInt(0);
+  }
+
+}
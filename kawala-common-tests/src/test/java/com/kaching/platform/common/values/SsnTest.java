@@ -12,7 +12,17 @@ package com.kaching.platform.common.values;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.kaching.platform.testing.EquivalenceTester.check;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -26,6 +36,33 @@ public class SsnTest {
     assertEquals("6789", ssn.getSerialNumber());
   }
 
+  @Test
+  public void leadingZeros() throws Exception {
+    Ssn ssn = new Ssn("001-02-0003");
+    assertEquals(1020003, ssn.getId());
+    assertEquals("001020003", ssn.getDigits());
+    assertEquals("001", ssn.getAreaNumber());
+    assertEquals("02", ssn.getGroupNumber());
+    assertEquals("0003", ssn.getSerialNumber());
+    assertEquals("***-**-0003", ssn.toString());
+  }
+
+  @Test
+  public void packed() throws Exception {
+    assertEquals(123456789, new Ssn("123-45-6789").getId());
+    assertEquals(new Ssn("123-45-6789"), new Ssn(123456789));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void packedInvalid() throws Exception {
+    new Ssn(666123456);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void packedNegative() throws Exception {
+    new Ssn(-123456789);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void tooLong() throws Exception {
     new Ssn("1234567890");
@@ -96,6 +133,63 @@ public class SsnTest {
     new Ssn("98765439");
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void signIsNotADigit() throws Exception {
+    new Ssn("+12345678");
+  }
+
+  @Test
+  public void dashesAreIgnored() throws Exception {
+    assertEquals(new Ssn("123456789"), new Ssn("123-45-6789"));
+    assertEquals("123456789", new Ssn("12-345-678-9").getDigits());
+  }
+
+  @Test
+  public void exceptionsDoNotLeakTheSsn() throws Exception {
+    try {
+      new Ssn("773-45-6789");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertNull(e.getMessage());
+    }
+  }
+
+  @Test
+  public void isValid() throws Exception {
+    assertTrue(Ssn.isValid("123456789"));
+    assertTrue(Ssn.isValid("123-45-6789"));
+    assertTrue(Ssn.isValid(new StringBuilder("772-99-9999")));
+    assertTrue(Ssn.isValid("733-01-0001"));
+    assertTrue(Ssn.isValid("750-01-0001"));
+    assertFalse(Ssn.isValid(null));
+    assertFalse(Ssn.isValid(""));
+    assertFalse(Ssn.isValid("---------"));
+    assertFalse(Ssn.isValid("1234567890"));
+    assertFalse(Ssn.isValid("12345 6789"));
+    assertFalse(Ssn.isValid("123\u0664\u0665\u0666789"));
+    assertFalse(Ssn.isValid("987-65-4325"));
+  }
+
+  @Test
+  public void invalidIndexes() throws Exception {
+    assertArrayEquals(new int[0], Ssn.invalidIndexes(Collections.<String>emptyList()));
+    assertArrayEquals(
+        new int[] { 1, 3, 4 },
+        Ssn.invalidIndexes(Arrays.asList(
+            "123456789", "666123456", "123-45-6789", null, "12345678")));
+  }
+
+  @Test
+  public void invalidIndexesGrows() throws Exception {
+    List<String> ssns = new ArrayList<String>();
+    for (int i = 0; i < 100; i++) {
+      ssns.add(i % 3 == 0 ? "000000000" : "123456789");
+    }
+    int[] indexes = Ssn.invalidIndexes(ssns);
+    assertEquals(34, indexes.length);
+    assertEquals(99, indexes[33]);
+  }
+
   @Test
   public void equivalence() {
     check(
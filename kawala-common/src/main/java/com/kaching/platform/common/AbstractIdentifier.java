@@ -31,7 +31,9 @@ import com.google.common.base.Objects;
  *   }
  * }</pre>
  * Using such identifiers makes it possible to have the compiler ensure these
- * identifiers are used consistently.
+ * identifiers are used consistently. Identifiers wrapping a {@code long} or an
+ * {@code int} should rather extend {@link AbstractLongIdentifier} or
+ * {@link AbstractIntIdentifier}, which do not box.
  *
  * @param <I> the type of the wrapped identifier
  */
@@ -73,9 +75,13 @@ public abstract class AbstractIdentifier<I extends Comparable<I>> implements
       return 1;
     }
     int result = this.getId().compareTo(that.getId());
-    return result != 0 ? result :
-      this.getClass().toString().compareTo(
-      that.getClass().toString());
+    if (result != 0) {
+      return result;
+    }
+    Class<?> thisClass = this.getClass();
+    Class<?> thatClass = that.getClass();
+    return thisClass == thatClass ? 0 :
+        thisClass.getName().compareTo(thatClass.getName());
   }
 
   @Override
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import java.io.Serializable;
+
+/**
+ * Abstract class providing the skeleton to create type-safe identifiers
+ * wrapping a {@code long}. Unlike {@link AbstractIdentifier}&lt;Long&gt;, the
+ * identifier is stored unboxed, and {@link #hashCode()}, {@link #equals(Object)}
+ * and {@link #compareTo(AbstractLongIdentifier)} never allocate.
+ * <pre>
+ * class PersonId extends AbstractLongIdentifier {
+ *   public PersonId(long id) {
+ *     super(id);
+ *   }
+ * }</pre>
+ * Identifiers of different classes are never equal. When their wrapped
+ * identifiers are equal, they are ordered by class name.
+ */
+public abstract class AbstractLongIdentifier implements
+    Comparable<AbstractLongIdentifier>, Serializable {
+
+  private static final long serialVersionUID = -2911356410733615466L;
+
+  private final long id;
+
+  /**
+   * Creates an identifier.
+   * @param id the wrapped identifier
+   */
+  protected AbstractLongIdentifier(long id) {
+    this.id = id;
+  }
+
+  /**
+   * Gets the wrapped identifier.
+   * @return the wrapped identifier
+   */
+  public long getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object that) {
+    return
+        this == that ||
+        (that != null &&
+         this.getClass() == that.getClass() &&
+         id == ((AbstractLongIdentifier) that).id);
+  }
+
+  @Override
+  public int compareTo(AbstractLongIdentifier that) {
+    if (that == null) {
+      return 1;
+    }
+    if (id != that.id) {
+      return id < that.id ? -1 : 1;
+    }
+    Class<?> thisClass = this.getClass();
+    Class<?> thatClass = that.getClass();
+    return thisClass == thatClass ? 0 :
+        thisClass.getName().compareTo(thatClass.getName());
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (id ^ (id >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(id);
+  }
+
+}
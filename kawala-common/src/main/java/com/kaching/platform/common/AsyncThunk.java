@@ -0,0 +1,102 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * A lazy computation evaluated asynchronously. The first {@link #get()}
+ * schedules {@link #compute()} on the executor and all callers share the
+ * computation, so the value is computed once. Each caller receives its own
+ * view of the computation while it is pending: cancelling it detaches that
+ * caller only and leaves the computation running for the others. If the
+ * computation fails, the future fails and the next {@link #get()} schedules
+ * a new computation, mirroring {@link Thunk}.
+ */
+public abstract class AsyncThunk<T> {
+
+  private final Executor executor;
+  private final AtomicReference<SettableFuture<T>> future =
+      new AtomicReference<SettableFuture<T>>();
+
+  protected AsyncThunk(Executor executor) {
+    this.executor = checkNotNull(executor);
+  }
+
+  public final ListenableFuture<T> get() {
+    while (true) {
+      SettableFuture<T> future = this.future.get();
+      if (future != null) {
+        return view(future);
+      }
+      SettableFuture<T> fresh = SettableFuture.create();
+      if (this.future.compareAndSet(null, fresh)) {
+        schedule(fresh);
+        return view(fresh);
+      }
+    }
+  }
+
+  protected abstract T compute();
+
+  private static <T> ListenableFuture<T> view(ListenableFuture<T> future) {
+    if (future.isDone()) {
+      // cancelling a completed future has no effect, so it can be shared
+      return future;
+    }
+    final SettableFuture<T> view = SettableFuture.create();
+    Futures.addCallback(future, new FutureCallback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        view.set(result);
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        view.setException(t);
+      }
+    });
+    return view;
+  }
+
+  private void schedule(final SettableFuture<T> future) {
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            future.set(compute());
+          } catch (Throwable t) {
+            fail(future, t);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      fail(future, e);
+    }
+  }
+
+  private void fail(SettableFuture<T> future, Throwable t) {
+    // reset first so that listeners retrying get() trigger a new computation
+    this.future.compareAndSet(future, null);
+    future.setException(t);
+  }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Ticker;
+
+/**
+ * A lazy computation whose value expires after a fixed time to live. The
+ * first {@link #get()} following expiry computes a fresh value; concurrent
+ * callers wait for this single computation, as with {@link Thunk}. If
+ * {@link #compute()} throws, the previous value is discarded and the next
+ * call computes again.
+ */
+public abstract class ExpiringThunk<T> {
+
+  private final long timeToLiveNanos;
+  private final Ticker ticker;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile Evaluation<T> evaluation;
+
+  protected ExpiringThunk(long timeToLive, TimeUnit unit) {
+    this(timeToLive, unit, Ticker.systemTicker());
+  }
+
+  protected ExpiringThunk(long timeToLive, TimeUnit unit, Ticker ticker) {
+    checkArgument(0 < timeToLive, "time to live must be positive");
+    this.timeToLiveNanos = unit.toNanos(timeToLive);
+    this.ticker = checkNotNull(ticker);
+  }
+
+  public final T get() {
+    Evaluation<T> evaluation = this.evaluation;
+    if (evaluation != null && !evaluation.isExpired(ticker.read())) {
+      return evaluation.value;
+    }
+    lock.lock();
+    try {
+      evaluation = this.evaluation;
+      long now = ticker.read();
+      if (evaluation == null || evaluation.isExpired(now)) {
+        this.evaluation = null;
+        T value = compute();
+        this.evaluation = evaluation = new Evaluation<T>(value, now + timeToLiveNanos);
+      }
+      return evaluation.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Discards the current value, if any, so that the next {@link #get()}
+   * computes a fresh one. If a computation is in progress, waits for it to
+   * complete and discards its value too, since it may predate the
+   * invalidation.
+   */
+  public final void invalidate() {
+    lock.lock();
+    try {
+      evaluation = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  protected abstract T compute();
+
+  static class Evaluation<T> {
+    final T value;
+    final long expiresAtNanos;
+
+    Evaluation(T value, long expiresAtNanos) {
+      this.value = value;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+
+    boolean isExpired(long nowNanos) {
+      // overflow conscious, see System#nanoTime
+      return 0 <= nowNanos - expiresAtNanos;
+    }
+  }
+
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.kaching.platform.common.LongIdentifiers.newIdentifier;
+
+import java.lang.invoke.MethodHandle;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map keyed by identifiers which stores the wrapped {@code long}s in a
+ * primitive array rather than the identifiers themselves. Lookups extract the
+ * id from the key and never allocate; identifiers are only created, through
+ * their {@code (long)} constructor, when iterating over the map.
+ *
+ * <p>All keys are instances of exactly the key class given at construction,
+ * since identifiers of different classes are never equal. Null keys are not
+ * permitted, null values are. Removing through iterators and views is not
+ * supported, and the map must not be modified while it is iterated over.
+ *
+ * @param <K> the type of identifiers
+ * @param <V> the type of values
+ */
+public class LongIdMap<K extends AbstractLongIdentifier, V> extends AbstractMap<K, V> {
+
+  private final Class<K> keyType;
+  private final MethodHandle constructor;
+  private final LongIdTable table;
+  private Object[] values;
+  private boolean containsZero;
+  private Object zeroValue;
+
+  /**
+   * Creates an empty map.
+   * @param keyType the class of identifiers, which must have a constructor
+   *     taking a {@code long}
+   */
+  public LongIdMap(Class<K> keyType) {
+    this(keyType, 0);
+  }
+
+  /**
+   * Creates an empty map sized to hold {@code expectedSize} entries without
+   * growing.
+   * @param keyType the class of identifiers, which must have a constructor
+   *     taking a {@code long}
+   * @param expectedSize the expected number of entries
+   */
+  public LongIdMap(Class<K> keyType, int expectedSize) {
+    checkArgument(expectedSize >= 0, "negative expected size %s", expectedSize);
+    this.keyType = checkNotNull(keyType);
+    this.constructor = LongIdentifiers.constructor(keyType);
+    this.table = new LongIdTable(expectedSize);
+    this.values = new Object[table.keys.length];
+  }
+
+  @Override
+  public int size() {
+    return containsZero ? table.assigned() + 1 : table.assigned();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return table.assigned() == 0 && !containsZero;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (key == null || key.getClass() != keyType) {
+      return false;
+    }
+    long id = ((AbstractLongIdentifier) key).getId();
+    return id == 0 ? containsZero : table.indexOf(id) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null || key.getClass() != keyType) {
+      return null;
+    }
+    long id = ((AbstractLongIdentifier) key).getId();
+    if (id == 0) {
+      return (V) zeroValue;
+    }
+    int i = table.indexOf(id);
+    return i < 0 ? null : (V) values[i];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    checkArgument(key.getClass() == keyType,
+        "%s is not a %s", key.getClass().getName(), keyType.getName());
+    long id = key.getId();
+    if (id == 0) {
+      V previous = (V) zeroValue;
+      containsZero = true;
+      zeroValue = value;
+      return previous;
+    }
+    int i = table.probe(id);
+    if (i >= 0) {
+      V previous = (V) values[i];
+      values[i] = value;
+      return previous;
+    }
+    i = -(i + 1);
+    values[i] = value;
+    if (table.insertAt(i, id)) {
+      values = table.rehash(values);
+    }
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (key == null || key.getClass() != keyType) {
+      return null;
+    }
+    long id = ((AbstractLongIdentifier) key).getId();
+    if (id == 0) {
+      V previous = (V) zeroValue;
+      containsZero = false;
+      zeroValue = null;
+      return previous;
+    }
+    int i = table.indexOf(id);
+    if (i < 0) {
+      return null;
+    }
+    V previous = (V) values[i];
+    table.removeAt(i, values);
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    table.clear();
+    Arrays.fill(values, null);
+    containsZero = false;
+    zeroValue = null;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new Iterator<Map.Entry<K, V>>() {
+          private final long[] keys = table.keys;
+          private final Object[] values = LongIdMap.this.values;
+          private int next = advance(0);
+          private boolean zeroPending = containsZero;
+
+          private int advance(int i) {
+            while (i < keys.length && keys[i] == 0) {
+              i++;
+            }
+            return i;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next < keys.length || zeroPending;
+          }
+
+          @Override
+          @SuppressWarnings("unchecked")
+          public Map.Entry<K, V> next() {
+            if (next < keys.length) {
+              int i = next;
+              next = advance(i + 1);
+              return new SimpleImmutableEntry<K, V>(
+                  newIdentifier(constructor, keys[i]), (V) values[i]);
+            } else if (zeroPending) {
+              zeroPending = false;
+              return new SimpleImmutableEntry<K, V>(
+                  newIdentifier(constructor, 0L), (V) zeroValue);
+            }
+            throw new NoSuchElementException();
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return LongIdMap.this.size();
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Map.Entry)) {
+          return false;
+        }
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+        Object key = entry.getKey();
+        if (!containsKey(key)) {
+          return false;
+        }
+        V value = get(key);
+        return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+      }
+    };
+  }
+
+}
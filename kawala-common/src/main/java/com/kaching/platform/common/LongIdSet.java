@@ -0,0 +1,169 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.kaching.platform.common.LongIdentifiers.newIdentifier;
+
+import java.lang.invoke.MethodHandle;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of identifiers which stores the wrapped {@code long}s in a primitive
+ * array rather than the identifiers themselves. Membership tests extract the
+ * id and never allocate; identifiers are only created, through their
+ * {@code (long)} constructor, when iterating over the set.
+ *
+ * <p>All elements are instances of exactly the element class given at
+ * construction. Null elements are not permitted. Removing through iterators
+ * is not supported, and the set must not be modified while it is iterated
+ * over.
+ *
+ * @param <K> the type of identifiers
+ * @see LongIdMap
+ */
+public class LongIdSet<K extends AbstractLongIdentifier> extends AbstractSet<K> {
+
+  private final Class<K> elementType;
+  private final MethodHandle constructor;
+  private final LongIdTable table;
+  private boolean containsZero;
+
+  /**
+   * Creates an empty set.
+   * @param elementType the class of identifiers, which must have a
+   *     constructor taking a {@code long}
+   */
+  public LongIdSet(Class<K> elementType) {
+    this(elementType, 0);
+  }
+
+  /**
+   * Creates an empty set sized to hold {@code expectedSize} identifiers
+   * without growing.
+   * @param elementType the class of identifiers, which must have a
+   *     constructor taking a {@code long}
+   * @param expectedSize the expected number of identifiers
+   */
+  public LongIdSet(Class<K> elementType, int expectedSize) {
+    checkArgument(expectedSize >= 0, "negative expected size %s", expectedSize);
+    this.elementType = checkNotNull(elementType);
+    this.constructor = LongIdentifiers.constructor(elementType);
+    this.table = new LongIdTable(expectedSize);
+  }
+
+  @Override
+  public int size() {
+    return containsZero ? table.assigned() + 1 : table.assigned();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return table.assigned() == 0 && !containsZero;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (o == null || o.getClass() != elementType) {
+      return false;
+    }
+    long id = ((AbstractLongIdentifier) o).getId();
+    return id == 0 ? containsZero : table.indexOf(id) >= 0;
+  }
+
+  @Override
+  public boolean add(K element) {
+    checkArgument(element.getClass() == elementType,
+        "%s is not a %s", element.getClass().getName(), elementType.getName());
+    long id = element.getId();
+    if (id == 0) {
+      boolean added = !containsZero;
+      containsZero = true;
+      return added;
+    }
+    int i = table.probe(id);
+    if (i >= 0) {
+      return false;
+    }
+    if (table.insertAt(-(i + 1), id)) {
+      table.rehash(null);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (o == null || o.getClass() != elementType) {
+      return false;
+    }
+    long id = ((AbstractLongIdentifier) o).getId();
+    if (id == 0) {
+      boolean removed = containsZero;
+      containsZero = false;
+      return removed;
+    }
+    int i = table.indexOf(id);
+    if (i < 0) {
+      return false;
+    }
+    table.removeAt(i, null);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    table.clear();
+    containsZero = false;
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    return new Iterator<K>() {
+      private final long[] keys = table.keys;
+      private int next = advance(0);
+      private boolean zeroPending = containsZero;
+
+      private int advance(int i) {
+        while (i < keys.length && keys[i] == 0) {
+          i++;
+        }
+        return i;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next < keys.length || zeroPending;
+      }
+
+      @Override
+      public K next() {
+        if (next < keys.length) {
+          int i = next;
+          next = advance(i + 1);
+          return newIdentifier(constructor, keys[i]);
+        } else if (zeroPending) {
+          zeroPending = false;
+          return newIdentifier(constructor, 0L);
+        }
+        throw new NoSuchElementException();
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import java.util.Arrays;
+
+/**
+ * The open-addressed table of ids shared by {@link LongIdMap} and
+ * {@link LongIdSet}, with linear probing and backward-shift deletion. The id
+ * {@code 0} marks a free slot and is kept aside by the collections. A map
+ * keeps its values in a parallel array, which the table moves along with the
+ * ids when removing and rehashing.
+ */
+final class LongIdTable {
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  long[] keys;
+  private int mask;
+  private int threshold;
+  private int assigned;
+
+  /**
+   * Creates a table holding {@code expectedSize} ids without growing.
+   */
+  LongIdTable(int expectedSize) {
+    allocate(tableSize(expectedSize));
+  }
+
+  private void allocate(int tableSize) {
+    keys = new long[tableSize];
+    mask = tableSize - 1;
+    threshold = (int) (tableSize * LOAD_FACTOR);
+  }
+
+  /** The number of ids in the table. */
+  int assigned() {
+    return assigned;
+  }
+
+  /**
+   * Gets the slot of {@code id}, or {@code -1} if it is not in the table.
+   */
+  int indexOf(long id) {
+    long[] keys = this.keys;
+    int mask = this.mask;
+    for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+      long k = keys[i];
+      if (k == id) {
+        return i;
+      } else if (k == 0) {
+        return -1;
+      }
+    }
+  }
+
+  /**
+   * Gets the slot of {@code id} if it is in the table, or else
+   * {@code -(slot + 1)} where {@code slot} is the free slot at which
+   * {@link #insertAt(int, long)} can store it.
+   */
+  int probe(long id) {
+    int i = mix(id) & mask;
+    for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+      if (k == id) {
+        return i;
+      }
+    }
+    return -(i + 1);
+  }
+
+  /**
+   * Stores {@code id} in the free {@code slot} returned by
+   * {@link #probe(long)}, returning whether the table is now past its load
+   * factor and must be rehashed.
+   */
+  boolean insertAt(int slot, long id) {
+    keys[slot] = id;
+    return ++assigned > threshold;
+  }
+
+  /**
+   * Removes the id at {@code pos}, moving back the ids which follow it in its
+   * cluster so that no probe sequence is broken.
+   * @param values the parallel values, or {@code null}
+   */
+  void removeAt(int pos, Object[] values) {
+    assigned--;
+    for (;;) {
+      int last = pos;
+      long k;
+      for (pos = (pos + 1) & mask; ; pos = (pos + 1) & mask) {
+        if ((k = keys[pos]) == 0) {
+          keys[last] = 0;
+          if (values != null) {
+            values[last] = null;
+          }
+          return;
+        }
+        int slot = mix(k) & mask;
+        if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+          break;
+        }
+      }
+      keys[last] = k;
+      if (values != null) {
+        values[last] = values[pos];
+      }
+    }
+  }
+
+  /**
+   * Doubles the table, returning the values moved to their new slots, or
+   * {@code null} if {@code values} is {@code null}.
+   */
+  Object[] rehash(Object[] values) {
+    long[] oldKeys = keys;
+    allocate(oldKeys.length << 1);
+    Object[] newValues = values == null ? null : new Object[keys.length];
+    for (int j = 0; j < oldKeys.length; j++) {
+      long id = oldKeys[j];
+      if (id != 0) {
+        int i = mix(id) & mask;
+        while (keys[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        if (newValues != null) {
+          newValues[i] = values[j];
+        }
+      }
+    }
+    return newValues;
+  }
+
+  void clear() {
+    Arrays.fill(keys, 0L);
+    assigned = 0;
+  }
+
+  /**
+   * Spreads ids over the table, since sequential ids are the common case.
+   */
+  static int mix(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Gets the power of two table size holding {@code expectedSize} ids
+   * without exceeding the load factor.
+   */
+  static int tableSize(int expectedSize) {
+    int needed = (int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR);
+    int size = Integer.highestOneBit(needed);
+    return size < needed ? size << 1 : size;
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Helpers shared by {@link LongIdMap} and {@link LongIdSet} to turn the ids
+ * of their {@link LongIdTable} back into identifiers.
+ */
+final class LongIdentifiers {
+
+  private LongIdentifiers() {}
+
+  private static final ClassValue<MethodHandle> CONSTRUCTORS =
+      new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+          try {
+            Constructor<?> constructor = type.getDeclaredConstructor(long.class);
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                .asType(methodType(Object.class, long.class));
+          } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(format(
+                "%s does not have a constructor taking a long", type.getName()));
+          } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+
+  /**
+   * Gets a handle on the {@code (long)} constructor of an identifier class,
+   * resolved once per class.
+   */
+  static MethodHandle constructor(Class<? extends AbstractLongIdentifier> type) {
+    return CONSTRUCTORS.get(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K> K newIdentifier(MethodHandle constructor, long id) {
+    try {
+      Object identifier = constructor.invokeExact(id);
+      return (K) identifier;
+    } catch (Throwable e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+}
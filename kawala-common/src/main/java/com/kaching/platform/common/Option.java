@@ -15,13 +15,28 @@ import static java.lang.String.format;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.AbstractIterator;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterators;
 
 /**
  * Option<T> := None | Some<T>.
+ *
+ * <p>Iterating over an option and the combinators {@link #ifDefined(Consumer)},
+ * {@link #flatMap(Function)}, {@link #filter(Predicate)} and
+ * {@link #orElseGet(Supplier)} do not allocate beyond what the arguments
+ * themselves produce: {@code None} iterates using a shared empty iterator and
+ * {@code Some} using a small iterator which the JIT can scalar replace.</p>
+ *
+ * <p>Combinators producing another option take Guava functions, like
+ * {@link #transform(Function)}. Combinators consuming the value take
+ * {@code java.util.function} types, as do those of {@link OptionInt},
+ * {@link OptionLong} and {@link OptionDouble}, so that they accept lambdas
+ * and have primitive specializations.</p>
  */
 public abstract class Option<T> implements Iterable<T> {
 
@@ -31,12 +46,7 @@ public abstract class Option<T> implements Iterable<T> {
 
     @Override
     public Iterator<Object> iterator() {
-      return new AbstractIterator<Object>() {
-        @Override
-        protected Object computeNext() {
-          return endOfData();
-        }
-      };
+      return Collections.emptyIterator();
     }
 
     @Override
@@ -54,6 +64,11 @@ public abstract class Option<T> implements Iterable<T> {
       return defaultValue.get();
     }
 
+    @Override
+    public Object orElseGet(Supplier<?> defaultValue) {
+      return defaultValue.get();
+    }
+
     @Override
     public Object getOrThrow() {
       return getOrThrow(new IllegalArgumentException());
@@ -89,6 +104,20 @@ public abstract class Option<T> implements Iterable<T> {
       return Option.none();
     }
 
+    @Override
+    public <U> Option<U> flatMap(Function<Object, Option<U>> function) {
+      return Option.none();
+    }
+
+    @Override
+    public Option<Object> filter(Predicate<Object> predicate) {
+      return this;
+    }
+
+    @Override
+    public void forEach(Consumer<Object> action) {
+    }
+
     @Override
     public Set<Object> asSet() {
       return Collections.emptySet();
@@ -124,18 +153,7 @@ public abstract class Option<T> implements Iterable<T> {
 
     @Override
     public Iterator<U> iterator() {
-      return new AbstractIterator<U>() {
-        private boolean produce = true;
-        @Override
-        protected U computeNext() {
-          if (produce) {
-            produce = false;
-            return u;
-          } else {
-            return endOfData();
-          }
-        }
-      };
+      return Iterators.singletonIterator(u);
     }
 
     @Override
@@ -153,6 +171,11 @@ public abstract class Option<T> implements Iterable<T> {
       return u;
     }
 
+    @Override
+    public U orElseGet(Supplier<? extends U> defaultValue) {
+      return u;
+    }
+
     @Override
     public U getOrThrow() {
       return u;
@@ -188,6 +211,21 @@ public abstract class Option<T> implements Iterable<T> {
       return Option.of(function.apply(u));
     }
 
+    @Override
+    public <V> Option<V> flatMap(Function<? super U, Option<V>> function) {
+      return Preconditions.checkNotNull(function.apply(u));
+    }
+
+    @Override
+    public Option<U> filter(Predicate<? super U> predicate) {
+      return predicate.apply(u) ? this : Option.<U>none();
+    }
+
+    @Override
+    public void forEach(Consumer<? super U> action) {
+      action.accept(u);
+    }
+
     @Override
     public Set<U> asSet() {
       return Collections.singleton(u);
@@ -234,6 +272,12 @@ public abstract class Option<T> implements Iterable<T> {
    */
   public abstract T getOrElse(Thunk<T> defaultValue);
 
+  /**
+   * If the option is nonempty returns its value, otherwise returns the value
+   * produced by {@code defaultValue}.
+   */
+  public abstract T orElseGet(Supplier<? extends T> defaultValue);
+
   /**
    * Gets the value of this option. If this is a Some(T) the value is returned,
    * otherwise an {@link IllegalArgumentException} is thrown.
@@ -273,6 +317,25 @@ public abstract class Option<T> implements Iterable<T> {
 
   public abstract <U> Option<U> transform(Function<? super T, U> function);
 
+  /**
+   * Applies {@code function} to the value of this option, if any, and returns
+   * the resulting option without wrapping it again.
+   */
+  public abstract <U> Option<U> flatMap(Function<? super T, Option<U>> function);
+
+  /**
+   * Returns this option if it is nonempty and its value satisfies
+   * {@code predicate}, otherwise returns {@code None}.
+   */
+  public abstract Option<T> filter(Predicate<? super T> predicate);
+
+  /**
+   * Passes the value of this option, if any, to {@code consumer}.
+   */
+  public final void ifDefined(Consumer<? super T> consumer) {
+    forEach(consumer);
+  }
+
   public abstract Set<T> asSet();
   
   /**
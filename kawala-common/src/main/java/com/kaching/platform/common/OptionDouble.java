@@ -0,0 +1,140 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * OptionDouble := None | Some(double). A {@code double} specialization of
+ * {@link Option} which stores its value unboxed. Like {@link Option}, its
+ * combinators take {@code java.util.function} types.
+ */
+public final class OptionDouble extends PrimitiveOption {
+
+  /** The singleton representing none.
+   */
+  private final static OptionDouble NONE = new OptionDouble(false, 0);
+
+  private final double value;
+
+  private OptionDouble(boolean defined, double value) {
+    super(defined);
+    this.value = value;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns
+   * {@code defaultValue}.
+   */
+  public double getOrElse(double defaultValue) {
+    return isDefined() ? value : defaultValue;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns the value
+   * produced by {@code defaultValue}.
+   */
+  public double orElseGet(DoubleSupplier defaultValue) {
+    return isDefined() ? value : defaultValue.getAsDouble();
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(double) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown.
+   */
+  public double getOrThrow() {
+    checkDefined(null);
+    return value;
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(double) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown with
+   * the specifed message.
+   */
+  public double getOrThrow(String message) {
+    checkDefined(message);
+    return value;
+  }
+
+  /**
+   * Returns its value if not empty, otherwise throws {@code e}.
+   */
+  public <E extends Throwable> double getOrThrow(E e) throws E {
+    if (isEmpty()) {
+      throw e;
+    }
+    return value;
+  }
+
+  /**
+   * Visits the {@code OptionDouble} using the {@code visitor}.
+   */
+  public <U> U visit(OptionDoubleVisitor<U> visitor) {
+    return isDefined() ? visitor.caseSome(value) : visitor.caseNone();
+  }
+
+  /**
+   * Passes the value of this option, if any, to {@code consumer}.
+   */
+  public void ifDefined(DoubleConsumer consumer) {
+    if (isDefined()) {
+      consumer.accept(value);
+    }
+  }
+
+  /**
+   * Converts this option to the equivalent boxed {@link Option}.
+   */
+  public Option<Double> boxed() {
+    return isDefined() ? Option.some(value) : Option.<Double>none();
+  }
+
+  @Override
+  String valueToString() {
+    return String.valueOf(value);
+  }
+
+  @Override
+  int valueHashCode() {
+    return Double.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(PrimitiveOption that) {
+    return Double.doubleToLongBits(value) == Double.doubleToLongBits(((OptionDouble) that).value);
+  }
+
+  /**
+   * Gets the none object.
+   */
+  public static OptionDouble none() {
+    return NONE;
+  }
+
+  /**
+   * Gets the some object wrapping the given value.
+   */
+  public static OptionDouble some(double value) {
+    return new OptionDouble(true, value);
+  }
+
+  /**
+   * Wraps anything.
+   *
+   * @return if null, none(), some(value) otherwise
+   */
+  public static OptionDouble of(Double value) {
+    return value == null ? NONE : some(value);
+  }
+
+}
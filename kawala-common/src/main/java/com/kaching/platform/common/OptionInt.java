@@ -0,0 +1,154 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * OptionInt := None | Some(int). An {@code int} specialization of
+ * {@link Option} which stores its value unboxed. Like {@link Option}, its
+ * combinators take {@code java.util.function} types.
+ */
+public final class OptionInt extends PrimitiveOption {
+
+  /** The singleton representing none.
+   */
+  private final static OptionInt NONE = new OptionInt(false, 0);
+
+  /** Cached instances for small values, as {@link Integer#valueOf(int)} does.
+   */
+  private final static OptionInt[] CACHE = new OptionInt[256];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new OptionInt(true, i - 128);
+    }
+  }
+
+  private final int value;
+
+  private OptionInt(boolean defined, int value) {
+    super(defined);
+    this.value = value;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns
+   * {@code defaultValue}.
+   */
+  public int getOrElse(int defaultValue) {
+    return isDefined() ? value : defaultValue;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns the value
+   * produced by {@code defaultValue}.
+   */
+  public int orElseGet(IntSupplier defaultValue) {
+    return isDefined() ? value : defaultValue.getAsInt();
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(int) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown.
+   */
+  public int getOrThrow() {
+    checkDefined(null);
+    return value;
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(int) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown with
+   * the specifed message.
+   */
+  public int getOrThrow(String message) {
+    checkDefined(message);
+    return value;
+  }
+
+  /**
+   * Returns its value if not empty, otherwise throws {@code e}.
+   */
+  public <E extends Throwable> int getOrThrow(E e) throws E {
+    if (isEmpty()) {
+      throw e;
+    }
+    return value;
+  }
+
+  /**
+   * Visits the {@code OptionInt} using the {@code visitor}.
+   */
+  public <U> U visit(OptionIntVisitor<U> visitor) {
+    return isDefined() ? visitor.caseSome(value) : visitor.caseNone();
+  }
+
+  /**
+   * Passes the value of this option, if any, to {@code consumer}.
+   */
+  public void ifDefined(IntConsumer consumer) {
+    if (isDefined()) {
+      consumer.accept(value);
+    }
+  }
+
+  /**
+   * Converts this option to the equivalent boxed {@link Option}.
+   */
+  public Option<Integer> boxed() {
+    return isDefined() ? Option.some(value) : Option.<Integer>none();
+  }
+
+  @Override
+  String valueToString() {
+    return String.valueOf(value);
+  }
+
+  @Override
+  int valueHashCode() {
+    return Integer.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(PrimitiveOption that) {
+    return value == ((OptionInt) that).value;
+  }
+
+  /**
+   * Gets the none object.
+   */
+  public static OptionInt none() {
+    return NONE;
+  }
+
+  /**
+   * Gets the some object wrapping the given value. Small values are
+   * cached.
+   */
+  public static OptionInt some(int value) {
+    if (-128 <= value && value <= 127) {
+      return CACHE[value + 128];
+    }
+    return new OptionInt(true, value);
+  }
+
+  /**
+   * Wraps anything.
+   *
+   * @return if null, none(), some(value) otherwise
+   */
+  public static OptionInt of(Integer value) {
+    return value == null ? NONE : some(value);
+  }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * OptionLong := None | Some(long). A {@code long} specialization of
+ * {@link Option} which stores its value unboxed. Like {@link Option}, its
+ * combinators take {@code java.util.function} types.
+ */
+public final class OptionLong extends PrimitiveOption {
+
+  /** The singleton representing none.
+   */
+  private final static OptionLong NONE = new OptionLong(false, 0);
+
+  /** Cached instances for small values, as {@link Long#valueOf(long)} does.
+   */
+  private final static OptionLong[] CACHE = new OptionLong[256];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new OptionLong(true, i - 128);
+    }
+  }
+
+  private final long value;
+
+  private OptionLong(boolean defined, long value) {
+    super(defined);
+    this.value = value;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns
+   * {@code defaultValue}.
+   */
+  public long getOrElse(long defaultValue) {
+    return isDefined() ? value : defaultValue;
+  }
+
+  /**
+   * If the option is nonempty returns its value, otherwise returns the value
+   * produced by {@code defaultValue}.
+   */
+  public long orElseGet(LongSupplier defaultValue) {
+    return isDefined() ? value : defaultValue.getAsLong();
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(long) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown.
+   */
+  public long getOrThrow() {
+    checkDefined(null);
+    return value;
+  }
+
+  /**
+   * Gets the value of this option. If this is a Some(long) the value is
+   * returned, otherwise an {@link IllegalArgumentException} is thrown with
+   * the specifed message.
+   */
+  public long getOrThrow(String message) {
+    checkDefined(message);
+    return value;
+  }
+
+  /**
+   * Returns its value if not empty, otherwise throws {@code e}.
+   */
+  public <E extends Throwable> long getOrThrow(E e) throws E {
+    if (isEmpty()) {
+      throw e;
+    }
+    return value;
+  }
+
+  /**
+   * Visits the {@code OptionLong} using the {@code visitor}.
+   */
+  public <U> U visit(OptionLongVisitor<U> visitor) {
+    return isDefined() ? visitor.caseSome(value) : visitor.caseNone();
+  }
+
+  /**
+   * Passes the value of this option, if any, to {@code consumer}.
+   */
+  public void ifDefined(LongConsumer consumer) {
+    if (isDefined()) {
+      consumer.accept(value);
+    }
+  }
+
+  /**
+   * Converts this option to the equivalent boxed {@link Option}.
+   */
+  public Option<Long> boxed() {
+    return isDefined() ? Option.some(value) : Option.<Long>none();
+  }
+
+  @Override
+  String valueToString() {
+    return String.valueOf(value);
+  }
+
+  @Override
+  int valueHashCode() {
+    return Long.hashCode(value);
+  }
+
+  @Override
+  boolean valueEquals(PrimitiveOption that) {
+    return value == ((OptionLong) that).value;
+  }
+
+  /**
+   * Gets the none object.
+   */
+  public static OptionLong none() {
+    return NONE;
+  }
+
+  /**
+   * Gets the some object wrapping the given value. Small values are
+   * cached.
+   */
+  public static OptionLong some(long value) {
+    if (-128 <= value && value <= 127) {
+      return CACHE[(int) value + 128];
+    }
+    return new OptionLong(true, value);
+  }
+
+  /**
+   * Wraps anything.
+   *
+   * @return if null, none(), some(value) otherwise
+   */
+  public static OptionLong of(Long value) {
+    return value == null ? NONE : some(value);
+  }
+
+}
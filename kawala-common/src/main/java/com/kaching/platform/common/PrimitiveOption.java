@@ -0,0 +1,89 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static java.lang.String.format;
+
+/**
+ * The part of {@link OptionInt}, {@link OptionLong} and {@link OptionDouble}
+ * which does not depend on the primitive type. Rather than a subclass each
+ * for none and some, a primitive option is a single final class whose
+ * instances are either defined or not; none is a singleton.
+ */
+abstract class PrimitiveOption {
+
+  private final boolean defined;
+
+  PrimitiveOption(boolean defined) {
+    this.defined = defined;
+  }
+
+  /**
+   * Returns {@code true} if the option is the {@code None} value.
+   */
+  public final boolean isEmpty() {
+    return !defined;
+  }
+
+  /**
+   * Returns {@code true} if the option is a {@code Some(...)}.
+   */
+  public final boolean isDefined() {
+    return defined;
+  }
+
+  public final String toStringOr(String defaultValue) {
+    return defined ? valueToString() : defaultValue;
+  }
+
+  /**
+   * Throws an {@link IllegalArgumentException} with {@code message}, which
+   * may be {@code null}, if the option is empty.
+   */
+  final void checkDefined(String message) {
+    if (!defined) {
+      throw new IllegalArgumentException(message);
+    }
+  }
+
+  abstract String valueToString();
+
+  abstract int valueHashCode();
+
+  /**
+   * Compares the values of two defined options of the same class.
+   */
+  abstract boolean valueEquals(PrimitiveOption that);
+
+  @Override
+  public final int hashCode() {
+    return defined ? valueHashCode() : 0;
+  }
+
+  @Override
+  public final boolean equals(Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (that == null || that.getClass() != getClass()) {
+      return false;
+    }
+    PrimitiveOption other = (PrimitiveOption) that;
+    return defined && other.defined && valueEquals(other);
+  }
+
+  @Override
+  public final String toString() {
+    String name = getClass().getSimpleName();
+    return defined ? format("%s.Some(%s)", name, valueToString()) : name + ".None";
+  }
+
+}
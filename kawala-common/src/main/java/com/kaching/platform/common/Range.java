@@ -1,9 +1,27 @@
 package com.kaching.platform.common;
 
-import java.util.Iterator;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
- * An immutable range.
+ * An immutable range. Iterating over a range whose {@code start} is greater
+ * than its {@code end} counts down from {@code start} to {@code end}
+ * (exclusive).
+ *
+ * <p>Besides boxed iteration, ranges provide primitive iteration through
+ * {@link #forEachInt(IntConsumer)}, {@link #iterator()} and {@link #stream()}.
+ * Streams split evenly, and {@link #partition(int)} cuts a range into chunks
+ * for distributing work.</p>
  */
 public class Range implements Iterable<Integer> {
 
@@ -79,25 +97,163 @@ public class Range implements Iterable<Integer> {
   }
 
   @Override
-  public Iterator<Integer> iterator() {
-    return new Iterator<Integer>() {
-      private int i = start;
+  public PrimitiveIterator.OfInt iterator() {
+    return new RangeIterator(start, length(), step());
+  }
+
+  @Override
+  public Spliterator.OfInt spliterator() {
+    return new RangeSpliterator(start, length(), step());
+  }
+
+  /**
+   * A sequential stream of the indices of this range, in iteration order.
+   */
+  public IntStream stream() {
+    return StreamSupport.intStream(spliterator(), false);
+  }
+
+  /**
+   * Passes each index of this range, in iteration order, to {@code action},
+   * without boxing. Named apart from {@link Iterable#forEach} so that lambdas
+   * passed to either are not ambiguous.
+   */
+  public void forEachInt(IntConsumer action) {
+    int step = step();
+    for (int i = start; i != end; i += step) {
+      action.accept(i);
+    }
+  }
+
+  /**
+   * Cuts this range into at most {@code chunks} contiguous ranges, in
+   * iteration order, whose sizes differ by at most one. Empty chunks are
+   * omitted.
+   */
+  public List<Range> partition(int chunks) {
+    checkArgument(0 < chunks, "chunks must be positive");
+    long length = length();
+    if (length == 0) {
+      return Collections.emptyList();
+    }
+    int count = (int) Math.min(chunks, length);
+    long size = length / count;
+    long remainder = length % count;
+    int step = step();
+    List<Range> partition = new ArrayList<Range>(count);
+    long from = start;
+    for (int i = 0; i < count; i++) {
+      long to = from + step * (i < remainder ? size + 1 : size);
+      partition.add(new Range((int) from, (int) to));
+      from = to;
+    }
+    return partition;
+  }
+
+  private long length() {
+    return Math.abs((long) end - start);
+  }
+
+  private int step() {
+    return start < end ? 1 : -1;
+  }
+
+  private static class RangeIterator implements PrimitiveIterator.OfInt {
+
+    private int next;
+    private long remaining;
+    private final int step;
 
-      @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
+    RangeIterator(int next, long remaining, int step) {
+      this.next = next;
+      this.remaining = remaining;
+      this.step = step;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining != 0;
+    }
+
+    @Override
+    public int nextInt() {
+      if (remaining == 0) {
+        throw new NoSuchElementException();
       }
+      remaining--;
+      int current = next;
+      next += step;
+      return current;
+    }
+
+  }
 
-      @Override
-      public Integer next() {
-        return ((start < end) ? i++ : i--);
+  private static class RangeSpliterator implements Spliterator.OfInt {
+
+    private int next;
+    private long remaining;
+    private final int step;
+
+    RangeSpliterator(int next, long remaining, int step) {
+      this.next = next;
+      this.remaining = remaining;
+      this.step = step;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      if (remaining == 0) {
+        return false;
       }
+      remaining--;
+      int current = next;
+      next += step;
+      action.accept(current);
+      return true;
+    }
 
-      @Override
-      public boolean hasNext() {
-        return ((start < end) ? (i < end) : (i > end));
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      int i = next;
+      for (long n = remaining; n != 0; n--) {
+        action.accept(i);
+        i += step;
       }
-    };
+      next = i;
+      remaining = 0;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      if (remaining < 2) {
+        return null;
+      }
+      long prefix = remaining / 2;
+      RangeSpliterator split = new RangeSpliterator(next, prefix, step);
+      next += (int) (step * prefix);
+      remaining -= prefix;
+      return split;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      int characteristics = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+      return step == 1 ? characteristics | SORTED : characteristics;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+      if (step == 1) {
+        return null;
+      }
+      throw new IllegalStateException();
+    }
+
   }
 
 }
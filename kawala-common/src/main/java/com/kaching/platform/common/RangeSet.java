@@ -0,0 +1,284 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of indices, stored as disjoint {@link Range}s. The ranges
+ * are kept as a sorted array of endpoints {@code start0, end0, start1, end1,
+ * ...} in which adjacent ranges are merged, so membership and overlap queries
+ * are binary searches.
+ *
+ * <p>Ranges whose {@code end} is not greater than their {@code start} are
+ * {@link Range#isEmpty() empty} and contribute nothing to a set.</p>
+ */
+public class RangeSet implements Iterable<Integer> {
+
+  private static final RangeSet EMPTY = new RangeSet(new int[0]);
+
+  private static final int UNION = 0;
+  private static final int DIFFERENCE = 1;
+
+  private final int[] endpoints;
+
+  private RangeSet(int[] endpoints) {
+    this.endpoints = endpoints;
+  }
+
+  public static RangeSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates the union of {@code ranges}, sorting them once and merging them in
+   * a single sweep.
+   */
+  public static RangeSet of(Range... ranges) {
+    // each range packed as start in the high bits, so that sorting the longs
+    // sorts the ranges by start
+    long[] packed = new long[ranges.length];
+    int count = 0;
+    for (Range range : ranges) {
+      if (!range.isEmpty()) {
+        packed[count++] = ((long) range.start << 32) | (range.end & 0xFFFFFFFFL);
+      }
+    }
+    if (count == 0) {
+      return EMPTY;
+    }
+    Arrays.sort(packed, 0, count);
+    int[] endpoints = new int[2 * count];
+    int length = 0;
+    for (int i = 0; i < count; i++) {
+      int start = (int) (packed[i] >> 32);
+      int end = (int) packed[i];
+      if (length > 0 && start <= endpoints[length - 1]) {
+        endpoints[length - 1] = Math.max(endpoints[length - 1], end);
+      } else {
+        endpoints[length++] = start;
+        endpoints[length++] = end;
+      }
+    }
+    return new RangeSet(length == endpoints.length ?
+        endpoints : Arrays.copyOf(endpoints, length));
+  }
+
+  /**
+   * Recreates a set from the array produced by {@link #toEndpoints()}.
+   */
+  public static RangeSet fromEndpoints(int[] endpoints) {
+    checkArgument(endpoints.length % 2 == 0, "odd number of endpoints");
+    for (int i = 1; i < endpoints.length; i++) {
+      checkArgument(endpoints[i - 1] < endpoints[i],
+          "endpoints are not strictly increasing at %s", i);
+    }
+    return endpoints.length == 0 ? EMPTY : new RangeSet(endpoints.clone());
+  }
+
+  /**
+   * Returns the sorted endpoints of this set's ranges, {@code start0, end0,
+   * start1, end1, ...}. This is the set's compact serialized form.
+   */
+  public int[] toEndpoints() {
+    return endpoints.clone();
+  }
+
+  public boolean isEmpty() {
+    return endpoints.length == 0;
+  }
+
+  /**
+   * The number of indices in this set.
+   */
+  public long size() {
+    long size = 0;
+    for (int i = 0; i < endpoints.length; i += 2) {
+      size += (long) endpoints[i + 1] - endpoints[i];
+    }
+    return size;
+  }
+
+  /**
+   * The disjoint, non adjacent ranges making this set, in increasing order.
+   */
+  public List<Range> ranges() {
+    List<Range> ranges = new ArrayList<Range>(endpoints.length / 2);
+    for (int i = 0; i < endpoints.length; i += 2) {
+      ranges.add(new Range(endpoints[i], endpoints[i + 1]));
+    }
+    return ranges;
+  }
+
+  public boolean contains(int index) {
+    return (insertionPoint(index) & 1) == 1;
+  }
+
+  public boolean contains(Range range) {
+    if (range.isEmpty()) {
+      return true;
+    }
+    int i = insertionPoint(range.start);
+    return (i & 1) == 1 && range.end <= endpoints[i];
+  }
+
+  public boolean overlaps(Range range) {
+    if (range.isEmpty()) {
+      return false;
+    }
+    int i = insertionPoint(range.start);
+    return (i & 1) == 1 || (i < endpoints.length && endpoints[i] < range.end);
+  }
+
+  public RangeSet add(Range range) {
+    return range.isEmpty() ? this : union(singleton(range));
+  }
+
+  public RangeSet union(RangeSet that) {
+    return combine(this, that, UNION);
+  }
+
+  public RangeSet subtract(Range range) {
+    return range.isEmpty() ? this : subtract(singleton(range));
+  }
+
+  public RangeSet subtract(RangeSet that) {
+    return combine(this, that, DIFFERENCE);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int range = 0;
+      private int next = endpoints.length == 0 ? 0 : endpoints[0];
+
+      @Override
+      public boolean hasNext() {
+        return range < endpoints.length;
+      }
+
+      @Override
+      public int nextInt() {
+        if (range == endpoints.length) {
+          throw new NoSuchElementException();
+        }
+        int current = next++;
+        if (next == endpoints[range + 1]) {
+          range += 2;
+          if (range < endpoints.length) {
+            next = endpoints[range];
+          }
+        }
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Passes each index of this set, in increasing order, to {@code action}.
+   */
+  public void forEachInt(IntConsumer action) {
+    for (int i = 0; i < endpoints.length; i += 2) {
+      for (int index = endpoints[i]; index != endpoints[i + 1]; index++) {
+        action.accept(index);
+      }
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(endpoints);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return Arrays.equals(endpoints, ((RangeSet) obj).endpoints);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < endpoints.length; i += 2) {
+      if (i != 0) {
+        sb.append(',');
+      }
+      sb.append('[').append(endpoints[i]).append(',').append(endpoints[i + 1]).append(')');
+    }
+    return sb.append('}').toString();
+  }
+
+  /**
+   * The number of endpoints lesser than or equal to {@code index}, which is
+   * odd if and only if {@code index} is in this set.
+   */
+  private int insertionPoint(int index) {
+    int i = Arrays.binarySearch(endpoints, index);
+    return i < 0 ? -i - 1 : i + 1;
+  }
+
+  private static RangeSet singleton(Range range) {
+    return new RangeSet(new int[] { range.start, range.end });
+  }
+
+  /**
+   * Sweeps the endpoints of both sets in increasing order, tracking whether
+   * the sweep is inside each set, and emits an endpoint whenever membership
+   * in the result changes.
+   */
+  private static RangeSet combine(RangeSet left, RangeSet right, int operation) {
+    int[] a = left.endpoints;
+    int[] b = right.endpoints;
+    if (b.length == 0) {
+      return left;
+    }
+    if (a.length == 0) {
+      return operation == UNION ? right : left;
+    }
+    int[] result = new int[a.length + b.length];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    boolean inResult = false;
+    while (i < a.length || j < b.length) {
+      int x;
+      if (j == b.length || (i < a.length && a[i] < b[j])) {
+        x = a[i++];
+      } else if (i == a.length || b[j] < a[i]) {
+        x = b[j++];
+      } else {
+        x = a[i++];
+        j++;
+      }
+      boolean inA = (i & 1) == 1;
+      boolean inB = (j & 1) == 1;
+      boolean in = operation == UNION ? inA || inB : inA && !inB;
+      if (in != inResult) {
+        result[size++] = x;
+        inResult = in;
+      }
+    }
+    return size == 0 ? EMPTY : new RangeSet(Arrays.copyOf(result, size));
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Ticker;
+import com.kaching.platform.common.ExpiringThunk.Evaluation;
+import com.kaching.platform.common.logging.Log;
+
+/**
+ * A lazy computation which is refreshed in the background. The first
+ * {@link #get()} computes the value synchronously. Once the value is older
+ * than the refresh period, {@link #get()} keeps returning it and schedules a
+ * single recomputation on the executor; the fresh value is served as soon as
+ * it is available. If a refresh fails, the stale value is kept and the
+ * refresh is attempted again after another refresh period.
+ *
+ * <p>Computations never overlap: at most one {@link #compute()} runs at any
+ * time, be it the initial one or a refresh.</p>
+ */
+public abstract class RefreshingThunk<T> {
+
+  private static final Log log = Log.getLog(RefreshingThunk.class);
+
+  private final long refreshAfterNanos;
+  private final Executor executor;
+  private final Ticker ticker;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Evaluation<T> evaluation;
+
+  protected RefreshingThunk(long refreshAfter, TimeUnit unit, Executor executor) {
+    this(refreshAfter, unit, executor, Ticker.systemTicker());
+  }
+
+  protected RefreshingThunk(
+      long refreshAfter, TimeUnit unit, Executor executor, Ticker ticker) {
+    checkArgument(0 < refreshAfter, "refresh period must be positive");
+    this.refreshAfterNanos = unit.toNanos(refreshAfter);
+    this.executor = checkNotNull(executor);
+    this.ticker = checkNotNull(ticker);
+  }
+
+  public final T get() {
+    Evaluation<T> evaluation = this.evaluation;
+    if (evaluation == null) {
+      return load();
+    }
+    if (evaluation.isExpired(ticker.read())) {
+      refresh();
+    }
+    return evaluation.value;
+  }
+
+  /**
+   * Schedules a recomputation unless one is already in flight.
+   */
+  public final void refresh() {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            reload();
+          } finally {
+            refreshing.set(false);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refreshing.set(false);
+      log.warn(e, "refresh of %s rejected, serving the stale value", this);
+    }
+  }
+
+  protected abstract T compute();
+
+  private T load() {
+    lock.lock();
+    try {
+      Evaluation<T> evaluation = this.evaluation;
+      if (evaluation == null) {
+        this.evaluation = evaluation = evaluate(compute());
+      }
+      return evaluation.value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void reload() {
+    lock.lock();
+    try {
+      evaluation = evaluate(compute());
+    } catch (RuntimeException e) {
+      Evaluation<T> stale = evaluation;
+      if (stale != null) {
+        evaluation = evaluate(stale.value);
+      }
+      log.warn(e, "refresh of %s failed, serving the stale value", this);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Evaluation<T> evaluate(T value) {
+    return new Evaluation<T>(value, ticker.read() + refreshAfterNanos);
+  }
+
+}
@@ -10,43 +10,147 @@
  */
 package com.kaching.platform.common;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public final class Strings {
   private Strings() {}
 
+  private static final int[] NO_PLACEHOLDERS = new int[0];
+
   /**
    * From {@link com.google.common.base.Preconditions#format} but made public
    */
   public static String format(String template, Object... args) {
     template = String.valueOf(template); // null -> "null"
-
-    // start substituting the arguments into the '%s' placeholders
     StringBuilder builder = new StringBuilder(
         template.length() + 16 * args.length);
+    return formatTo(builder, template, args).toString();
+  }
+
+  /**
+   * Like {@link #format(String, Object...)} but appends to {@code builder}.
+   */
+  public static StringBuilder formatTo(
+      StringBuilder builder, String template, Object... args) {
+    return substitute(builder, String.valueOf(template), null, args);
+  }
+
+  /**
+   * Like {@link #format(String, Object...)} but appends to {@code appendable}.
+   */
+  public static <A extends Appendable> A formatTo(
+      A appendable, String template, Object... args) throws IOException {
+    return substitute(appendable, String.valueOf(template), null, args);
+  }
+
+  /**
+   * Parses the {@code %s} placeholders of {@code template} once, for templates
+   * which are formatted repeatedly.
+   */
+  public static Template template(String template) {
+    return new Template(String.valueOf(template));
+  }
+
+  /**
+   * A template whose {@code %s} placeholders have been located. Formatting
+   * follows {@link Strings#format(String, Object...)} and copies the literal
+   * parts of the template directly into the destination. Templates are
+   * immutable and may be shared across threads.
+   */
+  public static final class Template {
+
+    private final String template;
+    private final int[] placeholders;
+
+    private Template(String template) {
+      this.template = template;
+      int[] placeholders = NO_PLACEHOLDERS;
+      int count = 0;
+      int placeholderStart = template.indexOf("%s");
+      while (placeholderStart != -1) {
+        if (count == placeholders.length) {
+          placeholders = Arrays.copyOf(placeholders, Math.max(4, 2 * count));
+        }
+        placeholders[count++] = placeholderStart;
+        placeholderStart = template.indexOf("%s", placeholderStart + 2);
+      }
+      this.placeholders = count == placeholders.length ?
+          placeholders : Arrays.copyOf(placeholders, count);
+    }
+
+    /**
+     * The number of {@code %s} placeholders in this template.
+     */
+    public int placeholders() {
+      return placeholders.length;
+    }
+
+    public String format(Object... args) {
+      StringBuilder builder = new StringBuilder(
+          template.length() + 16 * args.length);
+      return appendTo(builder, args).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder builder, Object... args) {
+      return substitute(builder, template, placeholders, args);
+    }
+
+    public <A extends Appendable> A appendTo(A appendable, Object... args)
+        throws IOException {
+      return substitute(appendable, template, placeholders, args);
+    }
+
+    @Override
+    public String toString() {
+      return template;
+    }
+
+  }
+
+  private static StringBuilder substitute(
+      StringBuilder builder, String template, int[] placeholders, Object[] args) {
+    try {
+      return substitute((Appendable) builder, template, placeholders, args);
+    } catch (IOException e) {
+      throw new AssertionError(e); // StringBuilder does not throw
+    }
+  }
+
+  /**
+   * Substitutes {@code args} for the {@code %s} placeholders of
+   * {@code template}, located beforehand in {@code placeholders} or, if it is
+   * {@code null}, as they are reached. If we run out of placeholders, appends
+   * the extra args in square braces.
+   */
+  @SuppressWarnings("unchecked")
+  private static <A extends Appendable> A substitute(
+      Appendable appendable, String template, int[] placeholders, Object[] args)
+      throws IOException {
     int templateStart = 0;
     int i = 0;
     while (i < args.length) {
-      int placeholderStart = template.indexOf("%s", templateStart);
+      int placeholderStart = placeholders == null ?
+          template.indexOf("%s", templateStart) :
+          i < placeholders.length ? placeholders[i] : -1;
       if (placeholderStart == -1) {
         break;
       }
-      builder.append(template.substring(templateStart, placeholderStart));
-      builder.append(args[i++]);
+      appendable.append(template, templateStart, placeholderStart);
+      appendable.append(String.valueOf(args[i++]));
       templateStart = placeholderStart + 2;
     }
-    builder.append(template.substring(templateStart));
-
-    // if we run out of placeholders, append the extra args in square braces
+    appendable.append(template, templateStart, template.length());
     if (i < args.length) {
-      builder.append(" [");
-      builder.append(args[i++]);
+      appendable.append(" [");
+      appendable.append(String.valueOf(args[i++]));
       while (i < args.length) {
-        builder.append(", ");
-        builder.append(args[i++]);
+        appendable.append(", ");
+        appendable.append(String.valueOf(args[i++]));
       }
-      builder.append("]");
+      appendable.append("]");
     }
-
-    return builder.toString();
+    return (A) appendable;
   }
 
 }
@@ -10,51 +10,121 @@
  */
 package com.kaching.platform.common;
 
-import com.google.common.annotations.VisibleForTesting;
-
-/**
- * A lazy computation. No conditional logic in this super fast implementation!
- */
-public abstract class Thunk<T> {
-
-  /* Indicates whether this thunk is evaluated or not. This field only
-   * approximates the indication as a correct implementation requires an
-   * atomic reference change on a pair (Getter, boolean). It is only used for
-   * testing and this extra cost is therefore not needed.
-   */
-  private volatile boolean evaluated;
-
-  private volatile Getter<T> threadsafeGetter = new Getter<T>() {
-      Getter<T> getter = new Getter<T>() {
-        T get() {
-          final T value = compute();
-          evaluated = true;
-          threadsafeGetter = getter = new Getter<T>() {
-            T get() {
-              return value;
-            }
-          };
-          return value;
-        }
-      };
-      synchronized T get() {
-        return getter.get();
-      }
-    };
-
-  public final T get() {
-    return threadsafeGetter.get();
-  }
-
-  protected abstract T compute();
-
-
-  private static abstract class Getter<T> { abstract T get(); }
-
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A lazy computation, evaluated at most once. Once evaluated, {@link #get()}
+ * is a single volatile read and allocates nothing.
+ *
+ * <p>The first evaluation is claimed with a CAS on the evaluating thread, so
+ * an uncontended evaluation takes no lock and allocates nothing. Threads
+ * arriving while another thread runs {@link #compute()} park on a latch,
+ * installed only then, rather than on a monitor, so that they do not pin the
+ * carrier of a virtual thread. If {@link #compute()} throws, the thunk
+ * remains unevaluated and the next call to {@link #get()} computes again.</p>
+ */
+public abstract class Thunk<T> {
+
+  private static final Object UNEVALUATED = new Object();
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Thunk, Thread> OWNER =
+      AtomicReferenceFieldUpdater.newUpdater(Thunk.class, Thread.class, "owner");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Thunk, CountDownLatch> WAITERS =
+      AtomicReferenceFieldUpdater.newUpdater(Thunk.class, CountDownLatch.class, "waiters");
+
+  private volatile Object value = UNEVALUATED;
+
+  /* The thread running compute(), or null. */
+  private volatile Thread owner;
+
+  /* Installed by threads finding another thread running compute(); released
+   * by that thread once it is done. The owner publishes the value and clears
+   * itself before reading this field, and waiters install it before reading
+   * the owner, so either the owner sees the latch or the waiter sees that
+   * evaluation is over.
+   */
+  private volatile CountDownLatch waiters;
+
+  @SuppressWarnings("unchecked")
+  public final T get() {
+    Object value = this.value;
+    return (T) (value != UNEVALUATED ? value : evaluate());
+  }
+
+  protected abstract T compute();
+
+  private Object evaluate() {
+    Thread current = Thread.currentThread();
+    while (true) {
+      Object value = this.value;
+      if (value != UNEVALUATED) {
+        return value;
+      }
+      Thread owner = this.owner;
+      if (owner == current) {
+        // compute() asked for its own value; evaluate again, as a re-entrant
+        // lock would.
+        value = compute();
+        this.value = value;
+        return value;
+      } else if (owner != null) {
+        await(owner);
+      } else if (OWNER.compareAndSet(this, null, current)) {
+        try {
+          value = this.value;
+          if (value == UNEVALUATED) {
+            value = compute();
+            this.value = value;
+          }
+          return value;
+        } finally {
+          this.owner = null;
+          release();
+        }
+      }
+    }
+  }
+
+  private void await(Thread owner) {
+    CountDownLatch waiters = this.waiters;
+    if (waiters == null) {
+      WAITERS.compareAndSet(this, null, new CountDownLatch(1));
+      waiters = this.waiters;
+      if (waiters == null) {
+        return;
+      }
+    }
+    boolean interrupted = false;
+    while (this.owner == owner) {
+      try {
+        waiters.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void release() {
+    CountDownLatch waiters = this.waiters;
+    if (waiters != null) {
+      WAITERS.compareAndSet(this, waiters, null);
+      waiters.countDown();
+    }
+  }
+
   @VisibleForTesting
   boolean isEvaluated() {
-    return evaluated;
+    return value != UNEVALUATED;
   }
 
 }
@@ -0,0 +1,283 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.helpers.LogLog;
+
+/**
+ * Writes log statements from a single background thread. Logging threads
+ * capture each statement, including its log context, into a bounded
+ * lock-free ring buffer; the writer thread drains it and writes events in
+ * batches to a channel, so logging threads never wait on I/O unless the
+ * {@link OverflowPolicy#BLOCK} policy is chosen.
+ *
+ * <pre>
+ * AsyncLogWriter writer = new AsyncLogWriter(
+ *     FileChannel.open(path, CREATE, WRITE, APPEND), 8192, OverflowPolicy.DROP);
+ * writer.start();
+ * Log.setAsyncWriter(writer);
+ * </pre>
+ *
+ * Statements logged after the writer is closed go to log4j's appenders, as do
+ * statements that would block on a full buffer while the writer thread is
+ * not running.
+ */
+public class AsyncLogWriter implements Closeable {
+
+  /**
+   * What to do with statements logged while the ring buffer is full.
+   */
+  public enum OverflowPolicy {
+    /** Discards the statement. */
+    DROP,
+    /** Waits for the writer thread to make room. */
+    BLOCK,
+    /**
+     * Keeps one in {@value AsyncLogWriter#SAMPLE_RATE} statements once the
+     * buffer is three quarters full, and discards statements when it is full.
+     */
+    SAMPLE
+  }
+
+  /**
+   * How events are written.
+   */
+  public enum Format {
+    /** Lines of text, as laid out by log4j's usual patterns. */
+    TEXT {
+      @Override
+      LogEventEncoder newEncoder() {
+        return new TextLogEncoder();
+      }
+    },
+    /** One JSON object per line. */
+    JSON_LINES {
+      @Override
+      LogEventEncoder newEncoder() {
+        return new JsonLogEncoder();
+      }
+    },
+    /** Length-prefixed binary records, see {@link BinaryLogEncoder}. */
+    BINARY {
+      @Override
+      LogEventEncoder newEncoder() {
+        return new BinaryLogEncoder();
+      }
+    };
+
+    abstract LogEventEncoder newEncoder();
+  }
+
+  static final int SAMPLE_RATE = 8;
+  private static final int BATCH_SIZE = 256;
+  private static final long IDLE_PARK_NANOS = 1000 * 1000;
+  private static final long BLOCKED_PARK_NANOS = 50 * 1000;
+
+  private final WritableByteChannel channel;
+  private final OverflowPolicy policy;
+  private final LogEventEncoder encoder;
+  private final RingBuffer<LogEvent> buffer;
+  private final int sampleThreshold;
+  private final Thread thread;
+  private final LongAdder enqueued = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder written = new LongAdder();
+  /**
+   * The number of threads inside {@link #append}. The writer thread only
+   * stops once it has seen the writer closed with no append in flight, so
+   * that an event offered concurrently with {@link #close()} is still drained.
+   */
+  private final AtomicInteger appending = new AtomicInteger();
+  private volatile boolean closed;
+
+  public AsyncLogWriter(
+      WritableByteChannel channel, int capacity, OverflowPolicy policy) {
+    this(channel, capacity, policy, Format.TEXT);
+  }
+
+  public AsyncLogWriter(
+      WritableByteChannel channel, int capacity, OverflowPolicy policy,
+      Format format) {
+    checkArgument(0 < capacity, "capacity must be positive");
+    this.channel = checkNotNull(channel);
+    this.policy = checkNotNull(policy);
+    this.encoder = format.newEncoder();
+    this.buffer = new RingBuffer<LogEvent>(capacity);
+    this.sampleThreshold = buffer.capacity() - buffer.capacity() / 4;
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        drain();
+      }
+    }, "async-log-writer");
+    this.thread.setDaemon(true);
+  }
+
+  public synchronized void start() {
+    checkState(!closed, "closed");
+    thread.start();
+  }
+
+  /**
+   * Writes the statements already captured, then stops the writer thread.
+   * If the writer was never started, the statements are written by the
+   * calling thread. The channel is not closed.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (thread.getState() == Thread.State.NEW) {
+        if (!closed) {
+          closed = true;
+          drain();
+        }
+        return;
+      }
+      closed = true;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** The number of statements accepted in the ring buffer. */
+  public long getEnqueuedCount() {
+    return enqueued.sum();
+  }
+
+  /** The number of statements discarded by the overflow policy. */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /** The number of statements written to the channel. */
+  public long getWrittenCount() {
+    return written.sum();
+  }
+
+  /**
+   * Captures a statement, applying the overflow policy. Returns {@code false}
+   * only if the writer is closed and the caller should log synchronously.
+   */
+  boolean append(Level level, String logger, Object message, Throwable t) {
+    appending.incrementAndGet();
+    try {
+      if (closed) {
+        return false;
+      }
+      if (policy == OverflowPolicy.SAMPLE &&
+          sampleThreshold <= buffer.size() &&
+          ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) {
+        dropped.increment();
+        return true;
+      }
+      LogEvent event = LogEvent.capture(level, logger, message, t);
+      while (!buffer.offer(event)) {
+        if (policy != OverflowPolicy.BLOCK) {
+          dropped.increment();
+          return true;
+        }
+        if (closed || !thread.isAlive()) {
+          // nothing will make room
+          return false;
+        }
+        LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+      }
+      enqueued.increment();
+      return true;
+    } finally {
+      appending.decrementAndGet();
+    }
+  }
+
+  private void drain() {
+    Batch batch = new Batch();
+    while (true) {
+      // appends starting after this read see the writer closed
+      boolean closing = closed && appending.get() == 0;
+      int count = 0;
+      LogEvent event;
+      while (count < BATCH_SIZE && (event = buffer.poll()) != null) {
+        try {
+          encoder.encode(event, batch);
+        } catch (IOException e) {
+          report("unable to encode a log event", e);
+        } catch (RuntimeException e) {
+          report("unable to encode a log event", e);
+        }
+        count++;
+      }
+      if (count != 0) {
+        write(batch, count);
+      } else if (closing) {
+        return;
+      } else {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  private void write(Batch batch, int count) {
+    try {
+      ByteBuffer bytes = batch.toByteBuffer();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      written.add(count);
+    } catch (IOException e) {
+      dropped.add(count);
+      report("unable to write log events", e);
+    } finally {
+      batch.reset();
+    }
+  }
+
+  /**
+   * Failures of the writer cannot be logged through {@link Log} without
+   * risking to loop, they are reported through log4j's internal logging.
+   */
+  private static void report(String message, Exception e) {
+    LogLog.error("AsyncLogWriter: " + message, e);
+  }
+
+  /**
+   * The bytes of the events of a batch, exposed without copying.
+   */
+  private static class Batch extends ByteArrayOutputStream {
+
+    Batch() {
+      super(64 * 1024);
+    }
+
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+
+  }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map.Entry;
+
+/**
+ * Encodes events as length-prefixed binary records. All integers are big
+ * endian and strings are an {@code int} length followed by as many UTF-8
+ * bytes, a length of {@code -1} standing for {@code null}.
+ *
+ * <pre>
+ * record  := length:int time:long level:byte logger thread message
+ *            count:int field* exception
+ * field   := key:string type:byte value
+ * value   := long (type 1) | double (type 2) | boolean:byte (type 3)
+ *          | string (type 4)
+ * </pre>
+ *
+ * The record length excludes its own four bytes. Log context pairs are
+ * encoded as string fields, before the statement's pairs.
+ */
+class BinaryLogEncoder implements LogEventEncoder {
+
+  private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+  private final DataOutputStream data = new DataOutputStream(record);
+
+  @Override
+  public void encode(LogEvent event, OutputStream out) throws IOException {
+    record.reset();
+    data.writeLong(event.timeMillis);
+    data.writeByte(event.level.ordinal());
+    writeString(event.logger);
+    writeString(event.thread);
+    writeString(event.message);
+    KeyValues keyValues = event.keyValues;
+    int pairs = keyValues == null ? 0 : keyValues.size();
+    data.writeInt(event.context.size() + pairs);
+    for (Entry<String, Object> entry : event.context) {
+      writeString(entry.getKey());
+      data.writeByte(KeyValues.STRING);
+      writeString(String.valueOf(entry.getValue()));
+    }
+    for (int i = 0; i < pairs; i++) {
+      writeString(keyValues.key(i));
+      byte type = keyValues.type(i);
+      data.writeByte(type);
+      switch (type) {
+        case KeyValues.LONG:
+          data.writeLong(keyValues.longValue(i));
+          break;
+        case KeyValues.DOUBLE:
+          data.writeDouble(keyValues.doubleValue(i));
+          break;
+        case KeyValues.BOOLEAN:
+          data.writeBoolean(keyValues.booleanValue(i));
+          break;
+        default:
+          writeString(keyValues.stringValue(i));
+      }
+    }
+    writeString(event.stackTrace());
+    data.flush();
+
+    int length = record.size();
+    out.write(length >>> 24);
+    out.write(length >>> 16);
+    out.write(length >>> 8);
+    out.write(length);
+    record.writeTo(out);
+  }
+
+  private void writeString(String value) throws IOException {
+    if (value == null) {
+      data.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    }
+  }
+
+}
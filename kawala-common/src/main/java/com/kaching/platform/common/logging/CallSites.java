@@ -0,0 +1,221 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.helpers.LogLog;
+
+import com.google.common.base.Ticker;
+
+/**
+ * The call sites of a log's throttled statements. A call site is identified
+ * by its policy, level and format, which is cheaper than walking the stack
+ * and distinguishes statements as long as their formats are constants. Past
+ * {@link #MAX_CALL_SITES} formats per policy and level, statements share a
+ * single call site so that non-constant formats cannot grow the registry
+ * without bound.
+ *
+ * <p>Counters are kept in windows of one second of the registry's ticker.
+ * The first throttled statement of the log in a window, whatever its call
+ * site, reports every call site that suppressed statements in the previous
+ * windows. Registries on the system ticker are also rolled every second by a
+ * background thread, so that the count of a burst is reported even if the
+ * log falls silent afterwards. The thread exits once every such registry has
+ * been garbage collected, and is started again by the next one.</p>
+ */
+class CallSites {
+
+  /**
+   * How statements of a call site are throttled. Each policy has its own
+   * counters, so that rate limited and sampled views of a log do not count
+   * each other's statements.
+   */
+  enum Policy {
+    RATE_LIMITED,
+    SAMPLED
+  }
+
+  static final int MAX_CALL_SITES = 1024;
+  static final String OTHER_STATEMENTS = "(other statements)";
+
+  private static final Level[] LEVELS = Level.values();
+
+  /** The registries rolled by the flusher thread, guarded by itself, as is
+   * {@link #flusher}. */
+  private static final Set<CallSites> SCHEDULED =
+      Collections.newSetFromMap(new WeakHashMap<CallSites, Boolean>());
+  private static Thread flusher;
+
+  private final Log log;
+  private final Ticker ticker;
+  private final List<ConcurrentMap<String, CallSite>> sites;
+  private final CallSite[] others;
+  private final AtomicLong window = new AtomicLong(Long.MIN_VALUE);
+
+  CallSites(Log log, Ticker ticker) {
+    this.log = log;
+    this.ticker = ticker;
+    int count = Policy.values().length * LEVELS.length;
+    sites = newArrayListWithCapacity(count);
+    others = new CallSite[count];
+    for (int i = 0; i < count; i++) {
+      sites.add(new ConcurrentHashMap<String, CallSite>());
+      others[i] = new CallSite(LEVELS[i % LEVELS.length], OTHER_STATEMENTS);
+    }
+    if (ticker == Ticker.systemTicker()) {
+      schedule(this);
+    }
+  }
+
+  CallSite get(Policy policy, Level level, String format) {
+    String key = format == null ? "null" : format;
+    int index = policy.ordinal() * LEVELS.length + level.ordinal();
+    ConcurrentMap<String, CallSite> sites = this.sites.get(index);
+    CallSite site = sites.get(key);
+    if (site != null) {
+      return site;
+    }
+    if (sites.size() >= MAX_CALL_SITES) {
+      return others[index];
+    }
+    site = new CallSite(level, key);
+    CallSite existing = sites.putIfAbsent(key, site);
+    return existing == null ? site : existing;
+  }
+
+  /**
+   * Moves the registry to the current window, resetting the counters of
+   * every call site and reporting how many statements each suppressed. Only
+   * the first caller in a window moves it, others return immediately.
+   */
+  void roll() {
+    long second = NANOSECONDS.toSeconds(ticker.read());
+    long current = window.get();
+    if (current == second || !window.compareAndSet(current, second)) {
+      return;
+    }
+    for (int i = 0; i < others.length; i++) {
+      for (CallSite site : sites.get(i).values()) {
+        reset(site);
+      }
+      reset(others[i]);
+    }
+  }
+
+  private void reset(CallSite site) {
+    long suppressed = site.reset();
+    if (suppressed > 0 && log.isEnabled(site.level)) {
+      log.emit(site.level, new FormattedMessage(
+          "suppressed %s statements like \"%s\"",
+          new Object[] { suppressed, site.format }), null);
+    }
+  }
+
+  private static void schedule(CallSites sites) {
+    synchronized (SCHEDULED) {
+      SCHEDULED.add(sites);
+      if (flusher == null) {
+        flusher = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            do {
+              try {
+                Thread.sleep(SECONDS.toMillis(1));
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              try {
+                rollScheduled();
+              } catch (RuntimeException e) {
+                LogLog.error("unable to report suppressed statements", e);
+              }
+            } while (!stopIfIdle());
+          }
+        }, "throttled-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+      }
+    }
+  }
+
+  /**
+   * Stops the flusher thread, which is the calling thread, once no registry
+   * is left to roll or it was interrupted. Checking and clearing
+   * {@link #flusher} under the same lock ensures a registry scheduled
+   * concurrently starts a new thread.
+   */
+  private static boolean stopIfIdle() {
+    synchronized (SCHEDULED) {
+      if (SCHEDULED.isEmpty() || Thread.currentThread().isInterrupted()) {
+        flusher = null;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  static void rollScheduled() {
+    CallSites[] scheduled;
+    synchronized (SCHEDULED) {
+      scheduled = SCHEDULED.toArray(new CallSites[SCHEDULED.size()]);
+    }
+    for (CallSites sites : scheduled) {
+      sites.roll();
+    }
+  }
+
+  /**
+   * The counters of a call site for the current window. Counters are striped
+   * so that concurrent statements do not contend on a single cache line.
+   */
+  static class CallSite {
+
+    final Level level;
+    final String format;
+    final LongAdder permitted = new LongAdder();
+    /** Set once {@link #permitted} is past the limit, to skip summing it. */
+    volatile boolean exhausted;
+    private final LongAdder suppressed = new LongAdder();
+
+    CallSite(Level level, String format) {
+      this.level = level;
+      this.format = format;
+    }
+
+    /**
+     * Starts a new window, returning the number of statements suppressed in
+     * the previous ones.
+     */
+    long reset() {
+      permitted.reset();
+      exhausted = false;
+      return suppressed.sumThenReset();
+    }
+
+    void suppress() {
+      suppressed.increment();
+    }
+
+  }
+
+}
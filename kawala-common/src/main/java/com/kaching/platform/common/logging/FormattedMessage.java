@@ -0,0 +1,65 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import com.kaching.platform.common.Strings;
+
+/**
+ * A message whose formatting is deferred until an appender renders it, using
+ * a builder reused by the rendering thread.
+ */
+class FormattedMessage {
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  /**
+   * Holds the thread's builder, which is taken out while in use so that
+   * rendering an argument which itself logs gets a builder of its own.
+   */
+  private static final ThreadLocal<StringBuilder[]> BUILDERS =
+      new ThreadLocal<StringBuilder[]>() {
+        @Override
+        protected StringBuilder[] initialValue() {
+          return new StringBuilder[] { new StringBuilder(INITIAL_CAPACITY) };
+        }
+      };
+
+  private final String format;
+  private final Object[] args;
+
+  FormattedMessage(String format, Object[] args) {
+    this.format = format;
+    this.args = args;
+  }
+
+  @Override
+  public String toString() {
+    return format(format, args);
+  }
+
+  static String format(String format, Object[] args) {
+    StringBuilder[] holder = BUILDERS.get();
+    StringBuilder builder = holder[0];
+    if (builder == null) {
+      return Strings.format(format, args);
+    }
+    holder[0] = null;
+    try {
+      builder.setLength(0);
+      return Strings.formatTo(builder, format, args).toString();
+    } finally {
+      holder[0] = builder.capacity() <= MAX_RETAINED_CAPACITY ?
+          builder : new StringBuilder(INITIAL_CAPACITY);
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Minimal JSON rendering for log events.
+ */
+class Json {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * The fields {@link JsonLogEncoder} writes for every event.
+   */
+  private static final Set<String> RESERVED = ImmutableSet.of(
+      "time", "level", "logger", "thread", "message", "exception");
+
+  private Json() {}
+
+  /**
+   * Appends the key of a pair of the log context or of a statement, followed
+   * by a colon. Keys naming one of the fields written for every event are
+   * prefixed with an underscore, so that objects never hold duplicate keys.
+   */
+  static void appendKey(StringBuilder builder, String key) {
+    appendString(builder, RESERVED.contains(key) ? "_" + key : key);
+    builder.append(':');
+  }
+
+  /**
+   * Appends {@code value} as a JSON string, or {@code null}.
+   */
+  static void appendString(StringBuilder builder, String value) {
+    if (value == null) {
+      builder.append("null");
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    builder.append('"');
+  }
+
+}
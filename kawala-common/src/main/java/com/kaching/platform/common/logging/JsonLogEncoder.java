@@ -0,0 +1,66 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Map.Entry;
+
+/**
+ * Encodes events as JSON lines,
+ * <pre>
+ * {"time":"2010-06-01T12:00:00.000Z","level":"INFO","logger":"...",
+ *  "thread":"...","message":"...","key":"value",...,"exception":"..."}
+ * </pre>
+ * in which the pairs of the log context come before those of the statement.
+ * Pairs whose key names one of the fields above are written with a leading
+ * underscore, {@code "_message"} for instance.
+ */
+class JsonLogEncoder implements LogEventEncoder {
+
+  private final StringBuilder builder = new StringBuilder(256);
+
+  @Override
+  public void encode(LogEvent event, OutputStream out) throws IOException {
+    builder.setLength(0);
+    builder.append("{\"time\":\"").append(Instant.ofEpochMilli(event.timeMillis))
+        .append("\",\"level\":\"").append(event.level)
+        .append("\",\"logger\":");
+    Json.appendString(builder, event.logger);
+    builder.append(",\"thread\":");
+    Json.appendString(builder, event.thread);
+    builder.append(",\"message\":");
+    Json.appendString(builder, event.message);
+    for (Entry<String, Object> entry : event.context) {
+      builder.append(',');
+      Json.appendKey(builder, entry.getKey());
+      Json.appendString(builder, String.valueOf(entry.getValue()));
+    }
+    KeyValues keyValues = event.keyValues;
+    if (keyValues != null) {
+      for (int i = 0; i < keyValues.size(); i++) {
+        builder.append(',');
+        Json.appendKey(builder, keyValues.key(i));
+        keyValues.appendValue(i, builder, true);
+      }
+    }
+    if (event.throwable != null) {
+      builder.append(",\"exception\":");
+      Json.appendString(builder, event.stackTrace());
+    }
+    builder.append("}\n");
+    out.write(builder.toString().getBytes(UTF_8));
+  }
+
+}
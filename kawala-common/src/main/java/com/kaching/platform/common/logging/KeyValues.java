@@ -0,0 +1,137 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.util.Arrays;
+
+/**
+ * The key/value pairs of a structured statement. Numbers and booleans are
+ * stored unboxed in a {@code long[]}, other values are rendered to strings
+ * when added so that events can be encoded on another thread.
+ */
+class KeyValues {
+
+  static final byte LONG = 1;
+  static final byte DOUBLE = 2;
+  static final byte BOOLEAN = 3;
+  static final byte STRING = 4;
+
+  private String[] keys = new String[8];
+  private byte[] types = new byte[8];
+  private long[] primitives = new long[8];
+  private String[] strings;
+  private int size;
+
+  void add(String key, long value) {
+    int i = next(key, LONG);
+    primitives[i] = value;
+  }
+
+  void add(String key, double value) {
+    int i = next(key, DOUBLE);
+    primitives[i] = Double.doubleToRawLongBits(value);
+  }
+
+  void add(String key, boolean value) {
+    int i = next(key, BOOLEAN);
+    primitives[i] = value ? 1 : 0;
+  }
+
+  void add(String key, Object value) {
+    if (value instanceof Long || value instanceof Integer ||
+        value instanceof Short || value instanceof Byte) {
+      add(key, ((Number) value).longValue());
+    } else if (value instanceof Double || value instanceof Float) {
+      add(key, ((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      add(key, ((Boolean) value).booleanValue());
+    } else {
+      int i = next(key, STRING);
+      if (strings == null) {
+        strings = new String[keys.length];
+      }
+      strings[i] = value == null ? null : value.toString();
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  String key(int i) {
+    return keys[i];
+  }
+
+  byte type(int i) {
+    return types[i];
+  }
+
+  long longValue(int i) {
+    return primitives[i];
+  }
+
+  double doubleValue(int i) {
+    return Double.longBitsToDouble(primitives[i]);
+  }
+
+  boolean booleanValue(int i) {
+    return primitives[i] != 0;
+  }
+
+  String stringValue(int i) {
+    return strings[i];
+  }
+
+  /**
+   * Appends the value at {@code i} as text, quoting strings if
+   * {@code json}.
+   */
+  void appendValue(int i, StringBuilder builder, boolean json) {
+    switch (types[i]) {
+      case LONG:
+        builder.append(primitives[i]);
+        break;
+      case DOUBLE:
+        double value = doubleValue(i);
+        if (json && (Double.isNaN(value) || Double.isInfinite(value))) {
+          Json.appendString(builder, Double.toString(value));
+        } else {
+          builder.append(value);
+        }
+        break;
+      case BOOLEAN:
+        builder.append(booleanValue(i));
+        break;
+      default:
+        if (json) {
+          Json.appendString(builder, strings[i]);
+        } else {
+          builder.append(strings[i]);
+        }
+    }
+  }
+
+  private int next(String key, byte type) {
+    if (size == keys.length) {
+      int length = 2 * size;
+      keys = Arrays.copyOf(keys, length);
+      types = Arrays.copyOf(types, length);
+      primitives = Arrays.copyOf(primitives, length);
+      if (strings != null) {
+        strings = Arrays.copyOf(strings, length);
+      }
+    }
+    keys[size] = key;
+    types[size] = type;
+    return size++;
+  }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Logging levels, dispatching to the matching methods of a commons-logging
+ * {@link Log}.
+ */
+enum Level {
+
+  TRACE {
+    @Override
+    boolean isEnabled(Log log) {
+      return log.isTraceEnabled();
+    }
+
+    @Override
+    void log(Log log, Object message, Throwable t) {
+      log.trace(message, t);
+    }
+  },
+
+  DEBUG {
+    @Override
+    boolean isEnabled(Log log) {
+      return log.isDebugEnabled();
+    }
+
+    @Override
+    void log(Log log, Object message, Throwable t) {
+      log.debug(message, t);
+    }
+  },
+
+  INFO {
+    @Override
+    boolean isEnabled(Log log) {
+      return log.isInfoEnabled();
+    }
+
+    @Override
+    void log(Log log, Object message, Throwable t) {
+      log.info(message, t);
+    }
+  },
+
+  WARN {
+    @Override
+    boolean isEnabled(Log log) {
+      return log.isWarnEnabled();
+    }
+
+    @Override
+    void log(Log log, Object message, Throwable t) {
+      log.warn(message, t);
+    }
+  },
+
+  ERROR {
+    @Override
+    boolean isEnabled(Log log) {
+      return log.isErrorEnabled();
+    }
+
+    @Override
+    void log(Log log, Object message, Throwable t) {
+      log.error(message, t);
+    }
+  };
+
+  abstract boolean isEnabled(Log log);
+
+  abstract void log(Log log, Object message, Throwable t);
+
+}
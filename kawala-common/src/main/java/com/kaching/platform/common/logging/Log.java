@@ -10,13 +10,14 @@
  */
 package com.kaching.platform.common.logging;
 
-import static com.kaching.platform.common.Strings.format;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.LogFactory;
-import org.apache.log4j.MDC;
 import org.perf4j.commonslog.CommonsLogStopWatch;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.kaching.platform.common.Pair;
 
 /**
@@ -25,6 +26,23 @@ import com.kaching.platform.common.Pair;
  * similar to log4j's {@link org.apache.commons.logging.Log} with the addition
  * of varargs arguments that are used to render the any format specifiers in the
  * log message.
+ *
+ * <p>Messages are formatted only once the level is known to be enabled, and
+ * only when an appender renders them. Overloads taking up to four arguments
+ * avoid allocating a varargs array, so statements at disabled levels do not
+ * allocate. The {@link #atInfo()} family of methods returns a
+ * {@link LogBuilder} for statements assembled piecemeal, and the
+ * {@link #info()} family a {@link StructuredLogBuilder} for statements made
+ * of key/value pairs. Statements prone to storms can be throttled through
+ * {@link #rateLimited(int)} and {@link #sampled(double)}.</p>
+ *
+ * <p>The log context is an immutable snapshot per thread, carried to other
+ * threads by the {@link #withCurrentLogContext(Runnable)} family of
+ * methods.</p>
+ *
+ * <p>Once an {@link AsyncLogWriter} is installed with
+ * {@link #setAsyncWriter(AsyncLogWriter)}, statements at enabled levels are
+ * handed to its writer thread rather than to log4j's appenders.</p>
  */
 public class Log {
   public static Log getLog(Class<?> clazz) {
@@ -35,38 +53,136 @@ public class Log {
     return new Log(name);
   }
 
+  /**
+   * Where the log context is kept.
+   */
+  public enum LogContextMode {
+    /**
+     * In a thread local, mirrored to log4j's MDC for layouts to render. This
+     * is the default.
+     */
+    MDC,
+    /**
+     * In a thread local only. The MDC, whose inheritable thread local copies
+     * its table into every thread created, is left untouched, which suits
+     * short-lived and virtual threads. The context is rendered by an
+     * {@link AsyncLogWriter} and in structured statements, but not by log4j's
+     * layouts.
+     */
+    THREAD_LOCAL
+  }
+
+  /**
+   * Sets where the log context is kept. Meant to be called at startup, before
+   * any context is set.
+   */
+  public static void setLogContextMode(LogContextMode mode) {
+    LogContext.setMirrorToMdc(mode == LogContextMode.MDC);
+  }
+
   public static void logContextPut(String key, Object value) {
-    MDC.put(key, value);
+    LogContext.put(key, value);
   }
 
   public static void logContextRemove(String key) {
-    MDC.remove(key);
+    LogContext.remove(key);
   }
 
+  /**
+   * Runs {@code runnable} with {@code contexts} added to the log context,
+   * which is restored afterwards.
+   */
   public static void withLogContext(Runnable runnable,
       Pair<String, Object>... contexts) {
+    LogContext previous = LogContext.current();
     try {
       for (Pair<String, Object> context : contexts) {
         logContextPut(context.left, context.right);
       }
       runnable.run();
     } finally {
-      for (Pair<String, Object> context : contexts) {
-        logContextRemove(context.left);
-      }
+      LogContext.attach(previous);
     }
   }
 
+  /**
+   * Returns a runnable running {@code runnable} with the current log context,
+   * on whichever thread it runs.
+   */
+  public static Runnable withCurrentLogContext(final Runnable runnable) {
+    final LogContext context = LogContext.current();
+    return new Runnable() {
+      @Override
+      public void run() {
+        LogContext previous = LogContext.attach(context);
+        try {
+          runnable.run();
+        } finally {
+          LogContext.attach(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a callable calling {@code callable} with the current log context,
+   * on whichever thread it runs.
+   */
+  public static <T> Callable<T> withCurrentLogContext(
+      final Callable<T> callable) {
+    final LogContext context = LogContext.current();
+    return new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        LogContext previous = LogContext.attach(context);
+        try {
+          return callable.call();
+        } finally {
+          LogContext.attach(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns an executor running each task with the log context of the thread
+   * submitting it. Passing it to {@link java.util.concurrent.CompletableFuture}'s
+   * asynchronous methods carries the context through the stages.
+   */
+  public static Executor withCurrentLogContext(final Executor executor) {
+    return new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        executor.execute(withCurrentLogContext(command));
+      }
+    };
+  }
+
+  /**
+   * Sends the statements of all logs to {@code writer}, or back to log4j's
+   * appenders if {@code writer} is {@code null}. Levels remain controlled by
+   * log4j's configuration.
+   */
+  public static void setAsyncWriter(AsyncLogWriter writer) {
+    asyncWriter = writer;
+  }
+
+  private static volatile AsyncLogWriter asyncWriter;
+
   private final org.apache.commons.logging.Log log;
+  private final String name;
+  private volatile CallSites callSites;
 
   @VisibleForTesting
   Log(Class<?> clazz) {
     this.log = LogFactory.getLog(clazz);
+    this.name = clazz.getName();
   }
 
   @VisibleForTesting
   Log(String name) {
     this.log = LogFactory.getLog(name);
+    this.name = name;
   }
 
   public boolean isTraceEnabled() {
@@ -75,68 +191,228 @@ public class Log {
 
   public void trace(String message) {
     if (log.isTraceEnabled()) {
-      log.trace(message);
+      emit(Level.TRACE, message, null);
+    }
+  }
+
+  public void trace(String format, Object arg) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE,
+          new FormattedMessage(format, new Object[] { arg }), null);
+    }
+  }
+
+  public void trace(String format, Object arg1, Object arg2) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), null);
+    }
+  }
+
+  public void trace(String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), null);
+    }
+  }
+
+  public void trace(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), null);
     }
   }
 
   public void trace(String format, Object... args) {
     if (log.isTraceEnabled()) {
-      log.trace(format(format, args));
+      emit(Level.TRACE, new FormattedMessage(format, args), null);
     }
   }
 
   public void trace(Throwable t) {
     if (log.isTraceEnabled()) {
-      log.trace(t);
+      emit(Level.TRACE, t, null);
     }
   }
 
   public void trace(Throwable t, String message) {
     if (log.isTraceEnabled()) {
-      log.trace(message, t);
+      emit(Level.TRACE, message, t);
+    }
+  }
+
+  public void trace(Throwable t, String format, Object arg) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE, new FormattedMessage(format, new Object[] { arg }), t);
+    }
+  }
+
+  public void trace(Throwable t, String format, Object arg1, Object arg2) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), t);
+    }
+  }
+
+  public void trace(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), t);
+    }
+  }
+
+  public void trace(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isTraceEnabled()) {
+      emit(Level.TRACE, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), t);
     }
   }
 
   public void trace(Throwable t, String format, Object... args) {
     if (log.isTraceEnabled()) {
-      log.trace(format(format, args), t);
+      emit(Level.TRACE, new FormattedMessage(format, args), t);
     }
   }
 
+  /**
+   * Starts a trace statement. The returned builder does nothing if trace is
+   * disabled.
+   */
+  public LogBuilder atTrace() {
+    return log.isTraceEnabled() ?
+        new LogBuilder(this, Level.TRACE) : LogBuilder.NOOP;
+  }
+
+  /**
+   * Starts a structured trace statement. The returned builder does nothing if
+   * trace is disabled.
+   */
+  public StructuredLogBuilder trace() {
+    return log.isTraceEnabled() ?
+        new StructuredLogBuilder(this, Level.TRACE) :
+        StructuredLogBuilder.NOOP;
+  }
+
   public boolean isDebugEnabled() {
     return log.isDebugEnabled();
   }
 
   public void debug(String message) {
     if (log.isDebugEnabled()) {
-      log.debug(message);
+      emit(Level.DEBUG, message, null);
+    }
+  }
+
+  public void debug(String format, Object arg) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG,
+          new FormattedMessage(format, new Object[] { arg }), null);
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), null);
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), null);
+    }
+  }
+
+  public void debug(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), null);
     }
   }
 
   public void debug(String format, Object... args) {
     if (log.isDebugEnabled()) {
-      log.debug(format(format, args));
+      emit(Level.DEBUG, new FormattedMessage(format, args), null);
     }
   }
 
   public void debug(Throwable t) {
     if (log.isDebugEnabled()) {
-      log.debug(t == null ? null : t.getMessage(), t);
+      emit(Level.DEBUG, t == null ? null : t.getMessage(), t);
     }
   }
 
   public void debug(Throwable t, String message) {
     if (log.isDebugEnabled()) {
-      log.debug(message, t);
+      emit(Level.DEBUG, message, t);
+    }
+  }
+
+  public void debug(Throwable t, String format, Object arg) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG, new FormattedMessage(format, new Object[] { arg }), t);
+    }
+  }
+
+  public void debug(Throwable t, String format, Object arg1, Object arg2) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), t);
+    }
+  }
+
+  public void debug(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), t);
+    }
+  }
+
+  public void debug(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isDebugEnabled()) {
+      emit(Level.DEBUG, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), t);
     }
   }
 
   public void debug(Throwable t, String format, Object... args) {
     if (log.isDebugEnabled()) {
-      log.debug(format(format, args), t);
+      emit(Level.DEBUG, new FormattedMessage(format, args), t);
     }
   }
 
+  /**
+   * Starts a debug statement. The returned builder does nothing if debug is
+   * disabled.
+   */
+  public LogBuilder atDebug() {
+    return log.isDebugEnabled() ?
+        new LogBuilder(this, Level.DEBUG) : LogBuilder.NOOP;
+  }
+
+  /**
+   * Starts a structured debug statement. The returned builder does nothing if
+   * debug is disabled.
+   */
+  public StructuredLogBuilder debug() {
+    return log.isDebugEnabled() ?
+        new StructuredLogBuilder(this, Level.DEBUG) :
+        StructuredLogBuilder.NOOP;
+  }
+
+  public boolean isInfoEnabled() {
+    return log.isInfoEnabled();
+  }
+
   /**
    * Log throwable with message and stack trace according to the logging level
    * settings, as in log4j and slf4j. This is probably not what you expect.
@@ -151,27 +427,121 @@ public class Log {
    */
   @Deprecated
   public void info(String msg, Throwable t) {
-    log.info(msg, t);
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, msg, t);
+    }
   }
 
   public void info(String message) {
-    log.info(message);
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, message, null);
+    }
+  }
+
+  public void info(String format, Object arg) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO,
+          new FormattedMessage(format, new Object[] { arg }), null);
+    }
+  }
+
+  public void info(String format, Object arg1, Object arg2) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), null);
+    }
+  }
+
+  public void info(String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), null);
+    }
+  }
+
+  public void info(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), null);
+    }
   }
 
   public void info(String format, Object... args) {
-    log.info(format(format, args));
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(format, args), null);
+    }
   }
 
   public void info(Throwable t) {
-    log.info(t == null ? null : t.getMessage(), t);
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, t == null ? null : t.getMessage(), t);
+    }
   }
 
   public void info(Throwable t, String message) {
-    log.info(message, t);
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, message, t);
+    }
+  }
+
+  public void info(Throwable t, String format, Object arg) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(format, new Object[] { arg }), t);
+    }
+  }
+
+  public void info(Throwable t, String format, Object arg1, Object arg2) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), t);
+    }
+  }
+
+  public void info(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), t);
+    }
+  }
+
+  public void info(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), t);
+    }
   }
 
   public void info(Throwable t, String format, Object... args) {
-    log.info(format(format, args), t);
+    if (log.isInfoEnabled()) {
+      emit(Level.INFO, new FormattedMessage(format, args), t);
+    }
+  }
+
+  /**
+   * Starts a info statement. The returned builder does nothing if info is
+   * disabled.
+   */
+  public LogBuilder atInfo() {
+    return log.isInfoEnabled() ?
+        new LogBuilder(this, Level.INFO) : LogBuilder.NOOP;
+  }
+
+  /**
+   * Starts a structured info statement. The returned builder does nothing if
+   * info is disabled.
+   */
+  public StructuredLogBuilder info() {
+    return log.isInfoEnabled() ?
+        new StructuredLogBuilder(this, Level.INFO) :
+        StructuredLogBuilder.NOOP;
+  }
+
+  public boolean isWarnEnabled() {
+    return log.isWarnEnabled();
   }
 
   /**
@@ -188,27 +558,121 @@ public class Log {
    */
   @Deprecated
   public void warn(String msg, Throwable t) {
-    log.warn(msg, t);
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, msg, t);
+    }
   }
 
   public void warn(String message) {
-    log.warn(message);
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, message, null);
+    }
+  }
+
+  public void warn(String format, Object arg) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN,
+          new FormattedMessage(format, new Object[] { arg }), null);
+    }
+  }
+
+  public void warn(String format, Object arg1, Object arg2) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), null);
+    }
+  }
+
+  public void warn(String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), null);
+    }
+  }
+
+  public void warn(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), null);
+    }
   }
 
   public void warn(String format, Object... args) {
-    log.warn(format(format, args));
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(format, args), null);
+    }
   }
 
   public void warn(Throwable t) {
-    log.warn(t == null ? null : t.getMessage(), t);
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, t == null ? null : t.getMessage(), t);
+    }
   }
 
   public void warn(Throwable t, String message) {
-    log.warn(message, t);
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, message, t);
+    }
+  }
+
+  public void warn(Throwable t, String format, Object arg) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(format, new Object[] { arg }), t);
+    }
+  }
+
+  public void warn(Throwable t, String format, Object arg1, Object arg2) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), t);
+    }
+  }
+
+  public void warn(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), t);
+    }
+  }
+
+  public void warn(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), t);
+    }
   }
 
   public void warn(Throwable t, String format, Object... args) {
-    log.warn(format(format, args), t);
+    if (log.isWarnEnabled()) {
+      emit(Level.WARN, new FormattedMessage(format, args), t);
+    }
+  }
+
+  /**
+   * Starts a warn statement. The returned builder does nothing if warn is
+   * disabled.
+   */
+  public LogBuilder atWarn() {
+    return log.isWarnEnabled() ?
+        new LogBuilder(this, Level.WARN) : LogBuilder.NOOP;
+  }
+
+  /**
+   * Starts a structured warn statement. The returned builder does nothing if
+   * warn is disabled.
+   */
+  public StructuredLogBuilder warn() {
+    return log.isWarnEnabled() ?
+        new StructuredLogBuilder(this, Level.WARN) :
+        StructuredLogBuilder.NOOP;
+  }
+
+  public boolean isErrorEnabled() {
+    return log.isErrorEnabled();
   }
 
   /**
@@ -225,27 +689,134 @@ public class Log {
    */
   @Deprecated
   public void error(String msg, Throwable t) {
-    log.error(msg, t);
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, msg, t);
+    }
   }
 
   public void error(String message) {
-    log.error(message);
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, message, null);
+    }
+  }
+
+  public void error(String format, Object arg) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR,
+          new FormattedMessage(format, new Object[] { arg }), null);
+    }
+  }
+
+  public void error(String format, Object arg1, Object arg2) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), null);
+    }
+  }
+
+  public void error(String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), null);
+    }
+  }
+
+  public void error(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), null);
+    }
   }
 
   public void error(String format, Object... args) {
-    log.error(format(format, args));
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(format, args), null);
+    }
   }
 
   public void error(Throwable t) {
-    log.error(t == null ? null : t.getMessage(), t);
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, t == null ? null : t.getMessage(), t);
+    }
   }
 
   public void error(Throwable t, String message) {
-    log.error(message, t);
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, message, t);
+    }
+  }
+
+  public void error(Throwable t, String format, Object arg) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(format, new Object[] { arg }), t);
+    }
+  }
+
+  public void error(Throwable t, String format, Object arg1, Object arg2) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR,
+          new FormattedMessage(format, new Object[] { arg1, arg2 }), t);
+    }
+  }
+
+  public void error(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3 }), t);
+    }
+  }
+
+  public void error(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(
+          format, new Object[] { arg1, arg2, arg3, arg4 }), t);
+    }
   }
 
   public void error(Throwable t, String format, Object... args) {
-    log.error(format(format, args), t);
+    if (log.isErrorEnabled()) {
+      emit(Level.ERROR, new FormattedMessage(format, args), t);
+    }
+  }
+
+  /**
+   * Starts a error statement. The returned builder does nothing if error is
+   * disabled.
+   */
+  public LogBuilder atError() {
+    return log.isErrorEnabled() ?
+        new LogBuilder(this, Level.ERROR) : LogBuilder.NOOP;
+  }
+
+  /**
+   * Starts a structured error statement. The returned builder does nothing if
+   * error is disabled.
+   */
+  public StructuredLogBuilder error() {
+    return log.isErrorEnabled() ?
+        new StructuredLogBuilder(this, Level.ERROR) :
+        StructuredLogBuilder.NOOP;
+  }
+
+  /**
+   * Returns a view of this log letting through at most
+   * {@code permitsPerSecond} statements per call site and second.
+   */
+  public ThrottledLog rateLimited(int permitsPerSecond) {
+    return ThrottledLog.rateLimited(
+        this, permitsPerSecond, Ticker.systemTicker());
+  }
+
+  /**
+   * Returns a view of this log letting through each statement with
+   * {@code probability}.
+   */
+  public ThrottledLog sampled(double probability) {
+    return ThrottledLog.sampled(this, probability, Ticker.systemTicker());
   }
 
   public org.apache.commons.logging.Log getLog() {
@@ -260,4 +831,36 @@ public class Log {
     return new CommonsLogStopWatch(tag, log);
   }
 
+  boolean isEnabled(Level level) {
+    return level.isEnabled(log);
+  }
+
+  /**
+   * The call sites of this log's throttled statements, created on the
+   * {@code ticker} of the first throttled view used.
+   */
+  CallSites callSites(Ticker ticker) {
+    CallSites sites = callSites;
+    if (sites == null) {
+      synchronized (this) {
+        sites = callSites;
+        if (sites == null) {
+          callSites = sites = new CallSites(this, ticker);
+        }
+      }
+    }
+    return sites;
+  }
+
+  /**
+   * Logs a statement whose level is known to be enabled. A closed
+   * asynchronous writer falls back to log4j.
+   */
+  void emit(Level level, Object message, Throwable t) {
+    AsyncLogWriter writer = asyncWriter;
+    if (writer == null || !writer.append(level, name, message, t)) {
+      level.log(log, message, t);
+    }
+  }
+
 }
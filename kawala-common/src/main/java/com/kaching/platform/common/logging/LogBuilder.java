@@ -0,0 +1,105 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.util.Arrays;
+
+/**
+ * A log statement assembled piecemeal, obtained from {@link Log#atInfo()} and
+ * the other {@code at} methods of {@link Log}. If the level is disabled, the
+ * builder is a shared instance ignoring every call.
+ *
+ * <pre>
+ * log.atWarn()
+ *     .withThrowable(e)
+ *     .addArgument(order)
+ *     .log("unable to process %s");
+ * </pre>
+ *
+ * Builders are not thread safe and are meant to be used by a single
+ * statement.
+ */
+public class LogBuilder {
+
+  static final LogBuilder NOOP = new LogBuilder(null, null) {
+
+    @Override
+    public LogBuilder withThrowable(Throwable t) {
+      return this;
+    }
+
+    @Override
+    public LogBuilder addArgument(Object arg) {
+      return this;
+    }
+
+    @Override
+    public void log(String format) {
+    }
+
+    @Override
+    public void log(String format, Object... args) {
+    }
+
+  };
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private final Log log;
+  private final Level level;
+  private Throwable throwable;
+  private Object[] args = NO_ARGS;
+  private int argsCount;
+
+  LogBuilder(Log log, Level level) {
+    this.log = log;
+    this.level = level;
+  }
+
+  public LogBuilder withThrowable(Throwable t) {
+    this.throwable = t;
+    return this;
+  }
+
+  /**
+   * Adds an argument to render in the next {@code %s} placeholder of the
+   * format.
+   */
+  public LogBuilder addArgument(Object arg) {
+    if (argsCount == args.length) {
+      args = Arrays.copyOf(args, Math.max(4, 2 * argsCount));
+    }
+    args[argsCount++] = arg;
+    return this;
+  }
+
+  /**
+   * Logs {@code format}, rendered with the arguments added so far.
+   */
+  public void log(String format) {
+    Object message = argsCount == 0 ?
+        format :
+        new FormattedMessage(format, Arrays.copyOf(args, argsCount));
+    log.emit(level, message, throwable);
+  }
+
+  /**
+   * Logs {@code format}, rendered with the arguments added so far followed by
+   * {@code args}.
+   */
+  public void log(String format, Object... args) {
+    for (Object arg : args) {
+      addArgument(arg);
+    }
+    log(format);
+  }
+
+}
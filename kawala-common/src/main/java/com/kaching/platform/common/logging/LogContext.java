@@ -0,0 +1,218 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.apache.log4j.MDC;
+
+/**
+ * The log context of a thread, as set by {@link Log#logContextPut} and
+ * {@link Log#withLogContext}. Contexts are immutable lists of pairs, most
+ * recent first, sharing their tails: taking a snapshot is reading a
+ * reference, and adding a pair allocates a single node.
+ *
+ * <p>The current context is held in an {@link InheritableThreadLocal}, so
+ * that a new thread starts with the context of the thread creating it, as it
+ * does with the MDC; being immutable, the context is shared rather than
+ * copied. When mirroring is on, changes are also applied to log4j's
+ * {@link MDC} for layouts to render; otherwise the MDC is left untouched.</p>
+ */
+final class LogContext implements Iterable<Entry<String, Object>> {
+
+  static final LogContext EMPTY = new LogContext(null, 0);
+
+  private static final ThreadLocal<LogContext> CURRENT =
+      new InheritableThreadLocal<LogContext>() {
+        @Override
+        protected LogContext initialValue() {
+          return EMPTY;
+        }
+      };
+
+  private static volatile boolean mirrorToMdc = true;
+
+  private final Node head;
+  private final int size;
+
+  private LogContext(Node head, int size) {
+    this.head = head;
+    this.size = size;
+  }
+
+  static void setMirrorToMdc(boolean mirror) {
+    mirrorToMdc = mirror;
+  }
+
+  static boolean isMirroredToMdc() {
+    return mirrorToMdc;
+  }
+
+  static LogContext current() {
+    return CURRENT.get();
+  }
+
+  static void put(String key, Object value) {
+    CURRENT.set(CURRENT.get().with(key, value));
+    if (mirrorToMdc) {
+      MDC.put(key, value);
+    }
+  }
+
+  static void remove(String key) {
+    CURRENT.set(CURRENT.get().without(key));
+    if (mirrorToMdc) {
+      MDC.remove(key);
+    }
+  }
+
+  /**
+   * Makes {@code context} the current context, returning the context it
+   * replaces.
+   */
+  static LogContext attach(LogContext context) {
+    LogContext previous = CURRENT.get();
+    if (previous == context) {
+      return previous;
+    }
+    CURRENT.set(context);
+    if (mirrorToMdc) {
+      for (Node node = previous.head; node != null; node = node.next) {
+        if (context.get(node.key) == null) {
+          MDC.remove(node.key);
+        }
+      }
+      for (Node node = context.head; node != null; node = node.next) {
+        if (previous.get(node.key) != node.value) {
+          MDC.put(node.key, node.value);
+        }
+      }
+    }
+    return previous;
+  }
+
+  /**
+   * Returns this context with {@code key} bound to {@code value}, or without
+   * {@code key} if {@code value} is {@code null}.
+   */
+  LogContext with(String key, Object value) {
+    LogContext without = without(key);
+    if (value == null) {
+      return without;
+    }
+    return new LogContext(new Node(key, value, without.head), without.size + 1);
+  }
+
+  /**
+   * Returns this context without {@code key}, copying the pairs added after
+   * it and sharing the others.
+   */
+  LogContext without(String key) {
+    if (get(key) == null) {
+      return this;
+    }
+    if (size == 1) {
+      return EMPTY;
+    }
+    return new LogContext(without(head, key), size - 1);
+  }
+
+  private static Node without(Node node, String key) {
+    return node.key.equals(key) ?
+        node.next : new Node(node.key, node.value, without(node.next, key));
+  }
+
+  Object get(String key) {
+    for (Node node = head; node != null; node = node.next) {
+      if (node.key.equals(key)) {
+        return node.value;
+      }
+    }
+    return null;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Iterator<Entry<String, Object>> iterator() {
+    return new Iterator<Entry<String, Object>>() {
+      private Node next = head;
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Entry<String, Object> next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Node node = next;
+        next = node.next;
+        return node;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder().append('{');
+    for (Node node = head; node != null; node = node.next) {
+      if (node != head) {
+        builder.append(", ");
+      }
+      builder.append(node.key).append('=').append(node.value);
+    }
+    return builder.append('}').toString();
+  }
+
+  private static class Node implements Entry<String, Object> {
+    final String key;
+    final Object value;
+    final Node next;
+
+    Node(String key, Object value, Node next) {
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
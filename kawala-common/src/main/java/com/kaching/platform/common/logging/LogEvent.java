@@ -0,0 +1,85 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * A statement captured on the logging thread for an {@link AsyncLogWriter}.
+ * The message is rendered when the event is created, and the log context is
+ * an immutable snapshot, so that later changes on the logging thread do not
+ * leak in.
+ */
+class LogEvent {
+
+  final long timeMillis;
+  final Level level;
+  final String logger;
+  final String thread;
+  final String message;
+  final Throwable throwable;
+  final LogContext context;
+  /** The pairs of a structured statement, or {@code null}. */
+  final KeyValues keyValues;
+
+  LogEvent(
+      long timeMillis, Level level, String logger, String thread,
+      String message, Throwable throwable, LogContext context,
+      KeyValues keyValues) {
+    this.timeMillis = timeMillis;
+    this.level = level;
+    this.logger = logger;
+    this.thread = thread;
+    this.message = message;
+    this.throwable = throwable;
+    this.context = context;
+    this.keyValues = keyValues;
+  }
+
+  static LogEvent capture(
+      Level level, String logger, Object message, Throwable throwable) {
+    String rendered;
+    LogContext context;
+    KeyValues keyValues;
+    if (message instanceof StructuredMessage) {
+      rendered = ((StructuredMessage) message).message;
+      context = ((StructuredMessage) message).context;
+      keyValues = ((StructuredMessage) message).keyValues;
+    } else {
+      rendered = String.valueOf(message);
+      context = LogContext.current();
+      keyValues = null;
+    }
+    return new LogEvent(
+        System.currentTimeMillis(),
+        level,
+        logger,
+        Thread.currentThread().getName(),
+        rendered,
+        throwable,
+        context,
+        keyValues);
+  }
+
+  /**
+   * The stack trace of the throwable, or {@code null}.
+   */
+  String stackTrace() {
+    if (throwable == null) {
+      return null;
+    }
+    StringWriter stackTrace = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(stackTrace));
+    return stackTrace.toString();
+  }
+
+}
@@ -0,0 +1,24 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes {@link LogEvent}s for an {@link AsyncLogWriter}. Encoders are only
+ * used by the writer thread.
+ */
+interface LogEventEncoder {
+
+  void encode(LogEvent event, OutputStream out) throws IOException;
+
+}
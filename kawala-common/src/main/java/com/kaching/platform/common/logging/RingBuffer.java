@@ -0,0 +1,97 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer. Each
+ * slot carries a sequence number telling whether it is free for the producer
+ * claiming it or filled for the consumer.
+ */
+class RingBuffer<E> {
+
+  private final int capacity;
+  private final int mask;
+  private final Object[] elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  RingBuffer(int capacity) {
+    checkArgument(0 < capacity && capacity <= 1 << 30,
+        "capacity must be between 1 and 2^30");
+    // rounded up to a power of two
+    this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = this.capacity - 1;
+    this.elements = new Object[this.capacity];
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Adds {@code e} unless the buffer is full.
+   */
+  boolean offer(E e) {
+    long position;
+    int index;
+    while (true) {
+      position = tail.get();
+      index = (int) position & mask;
+      long sequence = sequences.get(index);
+      if (sequence == position) {
+        if (tail.compareAndSet(position, position + 1)) {
+          break;
+        }
+      } else if (sequence < position) {
+        return false;
+      }
+    }
+    elements[index] = e;
+    sequences.set(index, position + 1);
+    return true;
+  }
+
+  /**
+   * Removes the oldest element, or returns {@code null} if the buffer is
+   * empty. Must only be called by the consumer thread.
+   */
+  @SuppressWarnings("unchecked")
+  E poll() {
+    long position = head.get();
+    int index = (int) position & mask;
+    if (sequences.get(index) != position + 1) {
+      return null;
+    }
+    E e = (E) elements[index];
+    elements[index] = null;
+    sequences.set(index, position + capacity);
+    head.lazySet(position + 1);
+    return e;
+  }
+
+  /**
+   * An estimate of the number of elements in the buffer.
+   */
+  int size() {
+    return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+/**
+ * A structured statement, obtained from {@link Log#info()} and the other
+ * no-argument level methods of {@link Log}. Values are kept unboxed, and the
+ * log context is captured when the statement is emitted and rendered with
+ * its pairs by log4j's appenders and by an {@link AsyncLogWriter} alike.
+ *
+ * <pre>
+ * log.info()
+ *     .message("order filled")
+ *     .kv("account", accountId)
+ *     .kv("latency", nanos)
+ *     .emit();
+ * </pre>
+ *
+ * If the level is disabled, the builder is a shared instance ignoring every
+ * call. Builders are not thread safe and are meant to be used by a single
+ * statement.
+ */
+public class StructuredLogBuilder {
+
+  static final StructuredLogBuilder NOOP = new StructuredLogBuilder(null, null) {
+
+    @Override
+    public StructuredLogBuilder message(String message) {
+      return this;
+    }
+
+    @Override
+    public StructuredLogBuilder withThrowable(Throwable t) {
+      return this;
+    }
+
+    @Override
+    public StructuredLogBuilder kv(String key, long value) {
+      return this;
+    }
+
+    @Override
+    public StructuredLogBuilder kv(String key, double value) {
+      return this;
+    }
+
+    @Override
+    public StructuredLogBuilder kv(String key, boolean value) {
+      return this;
+    }
+
+    @Override
+    public StructuredLogBuilder kv(String key, Object value) {
+      return this;
+    }
+
+    @Override
+    public void emit() {
+    }
+
+  };
+
+  private final Log log;
+  private final Level level;
+  private final KeyValues keyValues;
+  private String message;
+  private Throwable throwable;
+
+  StructuredLogBuilder(Log log, Level level) {
+    this.log = log;
+    this.level = level;
+    this.keyValues = log == null ? null : new KeyValues();
+  }
+
+  public StructuredLogBuilder message(String message) {
+    this.message = message;
+    return this;
+  }
+
+  public StructuredLogBuilder withThrowable(Throwable t) {
+    this.throwable = t;
+    return this;
+  }
+
+  public StructuredLogBuilder kv(String key, long value) {
+    keyValues.add(key, value);
+    return this;
+  }
+
+  public StructuredLogBuilder kv(String key, double value) {
+    keyValues.add(key, value);
+    return this;
+  }
+
+  public StructuredLogBuilder kv(String key, boolean value) {
+    keyValues.add(key, value);
+    return this;
+  }
+
+  /**
+   * Adds a value. Boxed numbers and booleans are stored as their primitive
+   * counterparts, other values as their string representation.
+   */
+  public StructuredLogBuilder kv(String key, Object value) {
+    keyValues.add(key, value);
+    return this;
+  }
+
+  public void emit() {
+    log.emit(level,
+        new StructuredMessage(message, LogContext.current(), keyValues), throwable);
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import java.util.Map.Entry;
+
+/**
+ * The message of a structured statement, with the log context of the thread
+ * that emitted it. Rendered for log4j's appenders, it is a JSON object holding
+ * the message and the key/value pairs, keyed as {@link JsonLogEncoder} does.
+ * The pairs of the log context are included only if they were not mirrored
+ * to the MDC when the statement was emitted, since layouts render the MDC
+ * themselves.
+ */
+class StructuredMessage {
+
+  final String message;
+  final LogContext context;
+  final KeyValues keyValues;
+  private final boolean renderContext;
+
+  StructuredMessage(String message, LogContext context, KeyValues keyValues) {
+    this.message = message;
+    this.context = context;
+    this.keyValues = keyValues;
+    this.renderContext = !LogContext.isMirroredToMdc();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(64 + 16 * keyValues.size());
+    builder.append('{');
+    boolean first = true;
+    if (message != null) {
+      builder.append("\"message\":");
+      Json.appendString(builder, message);
+      first = false;
+    }
+    if (renderContext) {
+      for (Entry<String, Object> entry : context) {
+        first = appendKey(builder, entry.getKey(), first);
+        Json.appendString(builder, String.valueOf(entry.getValue()));
+      }
+    }
+    for (int i = 0; i < keyValues.size(); i++) {
+      first = appendKey(builder, keyValues.key(i), first);
+      keyValues.appendValue(i, builder, true);
+    }
+    return builder.append('}').toString();
+  }
+
+  private static boolean appendKey(StringBuilder builder, String key, boolean first) {
+    if (!first) {
+      builder.append(',');
+    }
+    Json.appendKey(builder, key);
+    return false;
+  }
+
+}
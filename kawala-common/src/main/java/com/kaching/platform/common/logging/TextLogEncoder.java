@@ -0,0 +1,64 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Map.Entry;
+
+/**
+ * Encodes events as lines of text,
+ * {@code 2010-06-01T12:00:00.000Z INFO [thread] logger - message {key=value}},
+ * followed by the stack trace if any. The pairs of structured statements
+ * follow the message as {@code key=value}.
+ */
+class TextLogEncoder implements LogEventEncoder {
+
+  private final StringBuilder builder = new StringBuilder(256);
+
+  @Override
+  public void encode(LogEvent event, OutputStream out) throws IOException {
+    builder.setLength(0);
+    builder.append(Instant.ofEpochMilli(event.timeMillis))
+        .append(' ').append(event.level)
+        .append(" [").append(event.thread).append("] ")
+        .append(event.logger)
+        .append(" - ").append(event.message);
+    KeyValues keyValues = event.keyValues;
+    if (keyValues != null) {
+      for (int i = 0; i < keyValues.size(); i++) {
+        builder.append(' ').append(keyValues.key(i)).append('=');
+        keyValues.appendValue(i, builder, false);
+      }
+    }
+    if (!event.context.isEmpty()) {
+      builder.append(" {");
+      boolean first = true;
+      for (Entry<String, Object> entry : event.context) {
+        if (!first) {
+          builder.append(", ");
+        }
+        builder.append(entry.getKey()).append('=').append(entry.getValue());
+        first = false;
+      }
+      builder.append('}');
+    }
+    builder.append('\n');
+    if (event.throwable != null) {
+      builder.append(event.stackTrace());
+    }
+    out.write(builder.toString().getBytes(UTF_8));
+  }
+
+}
@@ -0,0 +1,512 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.logging;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Ticker;
+import com.kaching.platform.common.logging.CallSites.CallSite;
+import com.kaching.platform.common.logging.CallSites.Policy;
+
+/**
+ * A view of a {@link Log} whose statements are throttled per call site,
+ * obtained from {@link Log#rateLimited(int)} or {@link Log#sampled(double)}.
+ *
+ * <pre>
+ * log.rateLimited(10).warn("unable to reach %s", host);
+ * </pre>
+ *
+ * Call sites are identified by level and format, and their counters are kept
+ * by the underlying log so that views can be created inline; rate limited and
+ * sampled views keep separate counters. Every second, each call site which
+ * suppressed statements reports how many at its level, see
+ * {@link CallSites}. Statements taking a throwable alone are identified by
+ * the class of the throwable. Permitted statements are passed on to the
+ * corresponding method of the log, so that they are logged exactly as the
+ * log would have.
+ */
+public abstract class ThrottledLog {
+
+  static ThrottledLog rateLimited(
+      Log log, final int permitsPerSecond, Ticker ticker) {
+    checkArgument(permitsPerSecond >= 0,
+        "permits per second must be non-negative: %s", permitsPerSecond);
+    return new ThrottledLog(log, Policy.RATE_LIMITED, ticker) {
+      @Override
+      boolean permit(CallSite site) {
+        if (site.exhausted) {
+          return false;
+        }
+        site.permitted.increment();
+        if (site.permitted.sum() <= permitsPerSecond) {
+          return true;
+        }
+        site.exhausted = true;
+        return false;
+      }
+    };
+  }
+
+  static ThrottledLog sampled(
+      Log log, final double probability, Ticker ticker) {
+    checkArgument(0.0 <= probability && probability <= 1.0,
+        "probability must be within [0, 1]: %s", probability);
+    return new ThrottledLog(log, Policy.SAMPLED, ticker) {
+      @Override
+      boolean permit(CallSite site) {
+        return ThreadLocalRandom.current().nextDouble() < probability;
+      }
+    };
+  }
+
+  private final Log log;
+  private final Policy policy;
+  private final Ticker ticker;
+
+  private ThrottledLog(Log log, Policy policy, Ticker ticker) {
+    this.log = log;
+    this.policy = policy;
+    this.ticker = ticker;
+  }
+
+  abstract boolean permit(CallSite site);
+
+  public void trace(String message) {
+    if (permit(Level.TRACE, message)) {
+      log.trace(message);
+    }
+  }
+
+  public void trace(String format, Object arg) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(format, arg);
+    }
+  }
+
+  public void trace(String format, Object arg1, Object arg2) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(format, arg1, arg2);
+    }
+  }
+
+  public void trace(String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void trace(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void trace(String format, Object... args) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(format, args);
+    }
+  }
+
+  public void trace(Throwable t) {
+    if (permit(Level.TRACE, key(t))) {
+      log.trace(t);
+    }
+  }
+
+  public void trace(Throwable t, String message) {
+    if (permit(Level.TRACE, message)) {
+      log.trace(t, message);
+    }
+  }
+
+  public void trace(Throwable t, String format, Object arg) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(t, format, arg);
+    }
+  }
+
+  public void trace(Throwable t, String format, Object arg1, Object arg2) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(t, format, arg1, arg2);
+    }
+  }
+
+  public void trace(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(t, format, arg1, arg2, arg3);
+    }
+  }
+
+  public void trace(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(t, format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void trace(Throwable t, String format, Object... args) {
+    if (permit(Level.TRACE, format)) {
+      log.trace(t, format, args);
+    }
+  }
+
+  public void debug(String message) {
+    if (permit(Level.DEBUG, message)) {
+      log.debug(message);
+    }
+  }
+
+  public void debug(String format, Object arg) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(format, arg);
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(format, arg1, arg2);
+    }
+  }
+
+  public void debug(String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void debug(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void debug(String format, Object... args) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(format, args);
+    }
+  }
+
+  public void debug(Throwable t) {
+    if (permit(Level.DEBUG, key(t))) {
+      log.debug(t);
+    }
+  }
+
+  public void debug(Throwable t, String message) {
+    if (permit(Level.DEBUG, message)) {
+      log.debug(t, message);
+    }
+  }
+
+  public void debug(Throwable t, String format, Object arg) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(t, format, arg);
+    }
+  }
+
+  public void debug(Throwable t, String format, Object arg1, Object arg2) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(t, format, arg1, arg2);
+    }
+  }
+
+  public void debug(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(t, format, arg1, arg2, arg3);
+    }
+  }
+
+  public void debug(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(t, format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void debug(Throwable t, String format, Object... args) {
+    if (permit(Level.DEBUG, format)) {
+      log.debug(t, format, args);
+    }
+  }
+
+  public void info(String message) {
+    if (permit(Level.INFO, message)) {
+      log.info(message);
+    }
+  }
+
+  public void info(String format, Object arg) {
+    if (permit(Level.INFO, format)) {
+      log.info(format, arg);
+    }
+  }
+
+  public void info(String format, Object arg1, Object arg2) {
+    if (permit(Level.INFO, format)) {
+      log.info(format, arg1, arg2);
+    }
+  }
+
+  public void info(String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.INFO, format)) {
+      log.info(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void info(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.INFO, format)) {
+      log.info(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void info(String format, Object... args) {
+    if (permit(Level.INFO, format)) {
+      log.info(format, args);
+    }
+  }
+
+  public void info(Throwable t) {
+    if (permit(Level.INFO, key(t))) {
+      log.info(t);
+    }
+  }
+
+  public void info(Throwable t, String message) {
+    if (permit(Level.INFO, message)) {
+      log.info(t, message);
+    }
+  }
+
+  public void info(Throwable t, String format, Object arg) {
+    if (permit(Level.INFO, format)) {
+      log.info(t, format, arg);
+    }
+  }
+
+  public void info(Throwable t, String format, Object arg1, Object arg2) {
+    if (permit(Level.INFO, format)) {
+      log.info(t, format, arg1, arg2);
+    }
+  }
+
+  public void info(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.INFO, format)) {
+      log.info(t, format, arg1, arg2, arg3);
+    }
+  }
+
+  public void info(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.INFO, format)) {
+      log.info(t, format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void info(Throwable t, String format, Object... args) {
+    if (permit(Level.INFO, format)) {
+      log.info(t, format, args);
+    }
+  }
+
+  public void warn(String message) {
+    if (permit(Level.WARN, message)) {
+      log.warn(message);
+    }
+  }
+
+  public void warn(String format, Object arg) {
+    if (permit(Level.WARN, format)) {
+      log.warn(format, arg);
+    }
+  }
+
+  public void warn(String format, Object arg1, Object arg2) {
+    if (permit(Level.WARN, format)) {
+      log.warn(format, arg1, arg2);
+    }
+  }
+
+  public void warn(String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.WARN, format)) {
+      log.warn(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void warn(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.WARN, format)) {
+      log.warn(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void warn(String format, Object... args) {
+    if (permit(Level.WARN, format)) {
+      log.warn(format, args);
+    }
+  }
+
+  public void warn(Throwable t) {
+    if (permit(Level.WARN, key(t))) {
+      log.warn(t);
+    }
+  }
+
+  public void warn(Throwable t, String message) {
+    if (permit(Level.WARN, message)) {
+      log.warn(t, message);
+    }
+  }
+
+  public void warn(Throwable t, String format, Object arg) {
+    if (permit(Level.WARN, format)) {
+      log.warn(t, format, arg);
+    }
+  }
+
+  public void warn(Throwable t, String format, Object arg1, Object arg2) {
+    if (permit(Level.WARN, format)) {
+      log.warn(t, format, arg1, arg2);
+    }
+  }
+
+  public void warn(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.WARN, format)) {
+      log.warn(t, format, arg1, arg2, arg3);
+    }
+  }
+
+  public void warn(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.WARN, format)) {
+      log.warn(t, format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void warn(Throwable t, String format, Object... args) {
+    if (permit(Level.WARN, format)) {
+      log.warn(t, format, args);
+    }
+  }
+
+  public void error(String message) {
+    if (permit(Level.ERROR, message)) {
+      log.error(message);
+    }
+  }
+
+  public void error(String format, Object arg) {
+    if (permit(Level.ERROR, format)) {
+      log.error(format, arg);
+    }
+  }
+
+  public void error(String format, Object arg1, Object arg2) {
+    if (permit(Level.ERROR, format)) {
+      log.error(format, arg1, arg2);
+    }
+  }
+
+  public void error(String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.ERROR, format)) {
+      log.error(format, arg1, arg2, arg3);
+    }
+  }
+
+  public void error(
+      String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.ERROR, format)) {
+      log.error(format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void error(String format, Object... args) {
+    if (permit(Level.ERROR, format)) {
+      log.error(format, args);
+    }
+  }
+
+  public void error(Throwable t) {
+    if (permit(Level.ERROR, key(t))) {
+      log.error(t);
+    }
+  }
+
+  public void error(Throwable t, String message) {
+    if (permit(Level.ERROR, message)) {
+      log.error(t, message);
+    }
+  }
+
+  public void error(Throwable t, String format, Object arg) {
+    if (permit(Level.ERROR, format)) {
+      log.error(t, format, arg);
+    }
+  }
+
+  public void error(Throwable t, String format, Object arg1, Object arg2) {
+    if (permit(Level.ERROR, format)) {
+      log.error(t, format, arg1, arg2);
+    }
+  }
+
+  public void error(
+      Throwable t, String format, Object arg1, Object arg2, Object arg3) {
+    if (permit(Level.ERROR, format)) {
+      log.error(t, format, arg1, arg2, arg3);
+    }
+  }
+
+  public void error(
+      Throwable t, String format,
+      Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (permit(Level.ERROR, format)) {
+      log.error(t, format, arg1, arg2, arg3, arg4);
+    }
+  }
+
+  public void error(Throwable t, String format, Object... args) {
+    if (permit(Level.ERROR, format)) {
+      log.error(t, format, args);
+    }
+  }
+
+  private static String key(Throwable t) {
+    return t == null ? null : t.getClass().getName();
+  }
+
+  private boolean permit(Level level, String format) {
+    if (!log.isEnabled(level)) {
+      return false;
+    }
+    CallSites sites = log.callSites(ticker);
+    sites.roll();
+    CallSite site = sites.get(policy, level, format);
+    if (permit(site)) {
+      return true;
+    }
+    site.suppress();
+    return false;
+  }
+
+}
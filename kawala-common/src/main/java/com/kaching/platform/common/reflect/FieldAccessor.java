@@ -0,0 +1,100 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.reflect;
+
+import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import com.google.common.base.Throwables;
+
+/**
+ * A field resolved once into method handles. Reading and writing through an
+ * accessor performs no lookup and no access check.
+ *
+ * @see ReflectUtils#fieldAccessor(Class, String)
+ */
+public final class FieldAccessor {
+
+  private final Field field;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  FieldAccessor(Field field) {
+    field.setAccessible(true);
+    this.field = field;
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    boolean isStatic = Modifier.isStatic(field.getModifiers());
+    try {
+      MethodHandle getter = lookup.unreflectGetter(field);
+      if (isStatic) {
+        getter = MethodHandles.dropArguments(getter, 0, Object.class);
+      }
+      this.getter = getter.asType(methodType(Object.class, Object.class));
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+    MethodHandle setter;
+    try {
+      setter = lookup.unreflectSetter(field);
+      if (isStatic) {
+        setter = MethodHandles.dropArguments(setter, 0, Object.class);
+      }
+      setter = setter.asType(methodType(void.class, Object.class, Object.class));
+    } catch (IllegalAccessException e) {
+      // static final fields cannot be written
+      setter = null;
+    }
+    this.setter = setter;
+  }
+
+  /**
+   * Gets the value of this field.
+   * @param target the object to read from, ignored for static fields
+   */
+  public Object get(Object target) {
+    try {
+      return getter.invokeExact(target);
+    } catch (Throwable e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Sets the value of this field.
+   * @param target the object to write to, ignored for static fields
+   * @param value the new value
+   */
+  public void set(Object target, Object value) {
+    if (setter == null) {
+      throw new UnsupportedOperationException(format("%s is not writable", field));
+    }
+    try {
+      setter.invokeExact(target, value);
+    } catch (Throwable e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  public Field getField() {
+    return field;
+  }
+
+  @Override
+  public String toString() {
+    return "accessor " + field;
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.reflect;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.google.common.base.Throwables;
+
+/**
+ * A method resolved once into a method handle. Invoking through an invoker
+ * performs no lookup and no access check. Unchecked exceptions and errors
+ * thrown by the method are rethrown as is rather than wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}; checked exceptions are
+ * wrapped in a {@link RuntimeException}.
+ *
+ * @see ReflectUtils#methodInvoker(Class, String, Class...)
+ */
+public final class MethodInvoker {
+
+  private final Method method;
+  private final MethodHandle handle;
+
+  MethodInvoker(Method method) {
+    method.setAccessible(true);
+    this.method = method;
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflect(method);
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      int arity = method.getParameterTypes().length;
+      this.handle = handle
+          .asType(genericMethodType(arity + 1))
+          .asSpreader(Object[].class, arity);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Invokes this method.
+   * @param target the receiver, ignored for static methods
+   * @param arguments the arguments, one per parameter
+   */
+  public Object invoke(Object target, Object... arguments) {
+    try {
+      return handle.invokeExact(target, arguments);
+    } catch (Throwable e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  @Override
+  public String toString() {
+    return "invoker " + method;
+  }
+
+}
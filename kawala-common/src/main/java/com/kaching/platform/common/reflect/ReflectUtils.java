@@ -10,7 +10,18 @@
  */
 package com.kaching.platform.common.reflect;
 
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 
 public final class ReflectUtils {
   private ReflectUtils() {}
@@ -22,30 +33,136 @@ public final class ReflectUtils {
    *   to expression actual computations
    */
 
+  private static final ClassValue<ConcurrentMap<String, FieldAccessor>> FIELDS =
+      new ClassValue<ConcurrentMap<String, FieldAccessor>>() {
+        @Override
+        protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<String, FieldAccessor>();
+        }
+      };
+
+  private static final ClassValue<ConcurrentMap<MethodKey, MethodInvoker>> METHODS =
+      new ClassValue<ConcurrentMap<MethodKey, MethodInvoker>>() {
+        @Override
+        protected ConcurrentMap<MethodKey, MethodInvoker> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<MethodKey, MethodInvoker>();
+        }
+      };
+
   /**
    * Gets a field from an object.
    * @param obj object from which to read the field
    * @param name the field name to read
+   * @see #fieldAccessor(Class, String)
    */
   public static Object getField(Object obj, String name) {
-    try {
-      Class<? extends Object> klass = obj.getClass();
-      do {
-        try {
-          Field field = klass.getDeclaredField(name);
-          field.setAccessible(true);
-          return field.get(obj);
-        } catch (NoSuchFieldException e) {
-          klass = klass.getSuperclass();
+    return fieldAccessor(obj.getClass(), name).get(obj);
+  }
+
+  /**
+   * Gets a cached accessor for a field declared by a class or one of its
+   * superclasses. The field is resolved once per class and name, subsequent
+   * calls return the same accessor.
+   * @param klass the class to start searching from
+   * @param name the field name
+   * @throws IllegalArgumentException if no such field exists
+   */
+  public static FieldAccessor fieldAccessor(Class<?> klass, String name) {
+    ConcurrentMap<String, FieldAccessor> fields = FIELDS.get(klass);
+    FieldAccessor accessor = fields.get(name);
+    if (accessor == null) {
+      accessor = new FieldAccessor(findField(klass, name));
+      FieldAccessor existing = fields.putIfAbsent(name, accessor);
+      if (existing != null) {
+        accessor = existing;
+      }
+    }
+    return accessor;
+  }
+
+  /**
+   * Gets a cached invoker for a method declared by a class or one of its
+   * superclasses. The method is resolved once per class and signature,
+   * subsequent calls return the same invoker.
+   * @param klass the class to start searching from
+   * @param name the method name
+   * @param parameterTypes the method's parameter types
+   * @throws IllegalArgumentException if no such method exists
+   */
+  public static MethodInvoker methodInvoker(
+      Class<?> klass, String name, Class<?>... parameterTypes) {
+    ConcurrentMap<MethodKey, MethodInvoker> methods = METHODS.get(klass);
+    MethodInvoker invoker = methods.get(new MethodKey(name, parameterTypes));
+    if (invoker == null) {
+      invoker = new MethodInvoker(findMethod(klass, name, parameterTypes));
+      MethodInvoker existing = methods.putIfAbsent(
+          new MethodKey(name, parameterTypes.clone()), invoker);
+      if (existing != null) {
+        invoker = existing;
+      }
+    }
+    return invoker;
+  }
+
+  private static Field findField(Class<?> klass, String name) {
+    for (Class<?> c = klass; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (field.getName().equals(name)) {
+          return field;
+        }
+      }
+    }
+    throw new IllegalArgumentException(format("no field %s in %s", name, klass));
+  }
+
+  private static Method findMethod(
+      Class<?> klass, String name, Class<?>[] parameterTypes) {
+    for (Class<?> c = klass; c != null; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        if (method.getName().equals(name)
+            && Arrays.equals(method.getParameterTypes(), parameterTypes)
+            && !method.isBridge()) {
+          return method;
         }
-      } while (klass != null);
-      throw new RuntimeException(); // true no such field exception
-    } catch (SecurityException e) {
-      throw new RuntimeException(e);
-    } catch (IllegalArgumentException e) {
-      throw new RuntimeException(e);
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
+      }
+    }
+    throw new IllegalArgumentException(format("no method %s(%s) in %s",
+        name, Joiner.on(", ").join(Lists.transform(asList(parameterTypes),
+            new Function<Class<?>, String>() {
+              @Override
+              public String apply(Class<?> type) {
+                return type.getName();
+              }
+            })), klass));
+  }
+
+  /**
+   * The name and parameter types of a method.
+   */
+  private static final class MethodKey {
+    private final String name;
+    private final Class<?>[] parameterTypes;
+    private final int hash;
+
+    MethodKey(String name, Class<?>[] parameterTypes) {
+      this.name = name;
+      this.parameterTypes = parameterTypes;
+      this.hash = 31 * name.hashCode() + Arrays.hashCode(parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (!(that instanceof MethodKey)) {
+        return false;
+      }
+      MethodKey other = (MethodKey) that;
+      return hash == other.hash && name.equals(other.name) &&
+          Arrays.equals(parameterTypes, other.parameterTypes);
     }
   }
 
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.types;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+
+/**
+ * Implementation of a {@link GenericArrayType}, equal to the JDK's. The hash
+ * code is computed once.
+ */
+class GenericArrayTypeImpl implements GenericArrayType {
+
+  private final Type componentType;
+  private final int hash;
+
+  GenericArrayTypeImpl(Type componentType) {
+    this.componentType = componentType;
+    this.hash = componentType.hashCode();
+  }
+
+  @Override
+  public Type getGenericComponentType() {
+    return componentType;
+  }
+
+  @Override
+  public boolean equals(Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (that instanceof GenericArrayTypeImpl && hash != that.hashCode()) {
+      return false;
+    }
+    return that instanceof GenericArrayType &&
+        componentType.equals(((GenericArrayType) that).getGenericComponentType());
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return componentType.getTypeName() + "[]";
+  }
+
+}
@@ -12,32 +12,104 @@ package com.kaching.platform.common.types;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 
 /**
- * Implementation of a {@link ParameterizedType}.
+ * Implementation of a {@link ParameterizedType}, equal to the JDK's. The hash
+ * code is computed once; canonical instances are obtained from
+ * {@link Types#newParameterizedType(Type, Type...)}.
  */
-// TODO(pascal): replace by Guice's implementation com.google.inject.internal.MoreTypes.ParameterizedTypeImpl
-// Use Types.newParameterizedType(Type, Type[])
 public class ParameterizedTypeImpl implements ParameterizedType {
 
+  private final Type ownerType;
   private final Type rawType;
   private final Type[] actualTypeParameters;
+  private final int hash;
 
+  /**
+   * Creates the type {@code type} parameterized by a copy of
+   * {@code parameters}, owned by the class declaring {@code type}, if any.
+   */
   public ParameterizedTypeImpl(Type type, Type[] parameters) {
+    this(ownerOf(type), type, parameters.clone());
+  }
+
+  /**
+   * Creates a type holding {@code parameters} itself, which callers must
+   * therefore not modify afterwards.
+   */
+  ParameterizedTypeImpl(Type ownerType, Type type, Type[] parameters) {
+    this.ownerType = ownerType;
     this.rawType = type;
     this.actualTypeParameters = parameters;
+    this.hash = Arrays.hashCode(parameters) ^
+        (ownerType == null ? 0 : ownerType.hashCode()) ^
+        rawType.hashCode();
+  }
+
+  static Type ownerOf(Type type) {
+    return type instanceof Class<?> ? ((Class<?>) type).getDeclaringClass() : null;
   }
 
   public Type[] getActualTypeArguments() {
-    return actualTypeParameters;
+    return actualTypeParameters.clone();
   }
 
   public Type getOwnerType() {
-    return null;
+    return ownerType;
   }
 
   public Type getRawType() {
     return rawType;
   }
 
+  @Override
+  public boolean equals(Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (that instanceof ParameterizedTypeImpl) {
+      ParameterizedTypeImpl other = (ParameterizedTypeImpl) that;
+      return hash == other.hash &&
+          rawType.equals(other.rawType) &&
+          (ownerType == null ? other.ownerType == null : ownerType.equals(other.ownerType)) &&
+          Arrays.equals(actualTypeParameters, other.actualTypeParameters);
+    }
+    if (!(that instanceof ParameterizedType)) {
+      return false;
+    }
+    ParameterizedType other = (ParameterizedType) that;
+    return rawType.equals(other.getRawType()) &&
+        (ownerType == null ?
+            other.getOwnerType() == null : ownerType.equals(other.getOwnerType())) &&
+        Arrays.equals(actualTypeParameters, other.getActualTypeArguments());
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (ownerType != null && rawType instanceof Class<?>) {
+      builder.append(ownerType.getTypeName())
+          .append('$').append(((Class<?>) rawType).getSimpleName());
+    } else {
+      builder.append(rawType.getTypeName());
+    }
+    if (actualTypeParameters.length != 0) {
+      builder.append('<');
+      for (int i = 0; i < actualTypeParameters.length; i++) {
+        if (i != 0) {
+          builder.append(", ");
+        }
+        builder.append(actualTypeParameters[i].getTypeName());
+      }
+      builder.append('>');
+    }
+    return builder.toString();
+  }
+
 }
@@ -1,22 +1,155 @@
 package com.kaching.platform.common.types;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Operations on {@link Type}s. Results involving other types than classes are
+ * memoized per raw class, in {@link ClassValue}s. Results are found by the
+ * identity of the types, then by their structure, so that equal types
+ * obtained from reflection, Guice or this package share their results. Memos
+ * are small direct-mapped tables, in which a pair evicts the pair occupying
+ * its slot, and they hold the types weakly: the raw class is often a class of
+ * the JDK or of this library, whose memo must not keep the classes of an
+ * application, and their class loader, from being unloaded.
+ *
+ * <p>This class also creates canonical types, see
+ * {@link #canonicalize(Type)}.</p>
+ */
 public class Types {
 
+  /** The number of slots of a memo, a power of two. */
+  static final int CACHED_PAIRS_PER_CLASS = 256;
+
+  private static final Type[] NO_TYPES = new Type[0];
+  private static final Interner<Type> CANONICAL_TYPES = Interners.newWeakInterner();
+
+  private static final ClassValue<Memo> IS_INSTANCE = newCache();
+  private static final ClassValue<Memo> IS_ASSIGNABLE_FROM = newCache();
+
+  private static ClassValue<Memo> newCache() {
+    return new ClassValue<Memo>() {
+      @Override
+      protected Memo computeValue(Class<?> type) {
+        return new Memo();
+      }
+    };
+  }
+
   /**
    * Verifies that {@code b} is an instance of the type scheme {@code a}.
    */
   public static boolean isInstance(Type a, Type b) {
+    if (a instanceof Class<?>) {
+      return a.equals(b);
+    }
+    return cached(IS_INSTANCE, a, b);
+  }
+
+  /**
+   * Equivalent of {@link Class#isAssignableFrom(Class)} at the {@link Type}
+   * level.
+   */
+  public static boolean isAssignableFrom(Type a, Type b) {
+    if (a instanceof Class<?> && b instanceof Class<?>) {
+      return ((Class<?>) a).isAssignableFrom((Class<?>) b);
+    }
+    return cached(IS_ASSIGNABLE_FROM, a, b);
+  }
+
+  /**
+   * Returns the canonical type {@code rawType} parameterized by
+   * {@code arguments}.
+   *
+   * @see #canonicalize(Type)
+   */
+  public static ParameterizedType newParameterizedType(
+      Type rawType, Type... arguments) {
+    return (ParameterizedType) CANONICAL_TYPES.intern(new ParameterizedTypeImpl(
+        ParameterizedTypeImpl.ownerOf(rawType), rawType, canonicalize(arguments)));
+  }
+
+  /**
+   * Returns the canonical array type of {@code componentType}.
+   *
+   * @see #canonicalize(Type)
+   */
+  public static GenericArrayType arrayOf(Type componentType) {
+    return (GenericArrayType) CANONICAL_TYPES.intern(
+        new GenericArrayTypeImpl(canonicalize(componentType)));
+  }
+
+  /**
+   * Returns the canonical wildcard type {@code ? extends bound}.
+   *
+   * @see #canonicalize(Type)
+   */
+  public static WildcardType subtypeOf(Type bound) {
+    return (WildcardType) CANONICAL_TYPES.intern(new WildcardTypeImpl(
+        new Type[] { canonicalize(bound) }, NO_TYPES));
+  }
+
+  /**
+   * Returns the canonical wildcard type {@code ? super bound}.
+   *
+   * @see #canonicalize(Type)
+   */
+  public static WildcardType supertypeOf(Type bound) {
+    return (WildcardType) CANONICAL_TYPES.intern(new WildcardTypeImpl(
+        new Type[] { Object.class }, new Type[] { canonicalize(bound) }));
+  }
+
+  /**
+   * Returns the canonical instance of {@code type}. Canonical types are
+   * hash-consed: equal canonical types are the same instance, so that
+   * comparing them is comparing references, and their hash codes are
+   * computed once. They are held weakly, and equal to the JDK's types.
+   * Classes and type variables are their own canonical instances.
+   */
+  public static Type canonicalize(Type type) {
+    if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      Type ownerType = parameterizedType.getOwnerType();
+      return CANONICAL_TYPES.intern(new ParameterizedTypeImpl(
+          ownerType == null ? null : canonicalize(ownerType),
+          parameterizedType.getRawType(),
+          canonicalize(parameterizedType.getActualTypeArguments())));
+    } else if (type instanceof GenericArrayType) {
+      return arrayOf(((GenericArrayType) type).getGenericComponentType());
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      return CANONICAL_TYPES.intern(new WildcardTypeImpl(
+          canonicalize(wildcardType.getUpperBounds()),
+          canonicalize(wildcardType.getLowerBounds())));
+    }
+    return type;
+  }
+
+  static Type[] canonicalize(Type[] types) {
+    if (types.length == 0) {
+      return NO_TYPES;
+    }
+    Type[] canonicalTypes = new Type[types.length];
+    for (int i = 0; i < types.length; i++) {
+      canonicalTypes[i] = canonicalize(types[i]);
+    }
+    return canonicalTypes;
+  }
+
+  /** {@link #isInstance(Type, Type)}, uncached. */
+  static boolean computeIsInstance(Type a, Type b) {
     if (a instanceof Class<?>) {
       return a.equals(b);
     } else if (a instanceof GenericArrayType) {
       if (b instanceof GenericArrayType) {
-        return isInstance(
+        return computeIsInstance(
             ((GenericArrayType) a).getGenericComponentType(),
             ((GenericArrayType) b).getGenericComponentType());
       } else {
@@ -35,7 +168,7 @@ public class Types {
         return false;
       }
       for (int i = 0; i < actualTypeArgumentsA.length; i++) {
-        if (!isInstance(actualTypeArgumentsA[i], actualTypeArgumentsB[i])) {
+        if (!computeIsInstance(actualTypeArgumentsA[i], actualTypeArgumentsB[i])) {
           return false;
         }
       }
@@ -43,18 +176,18 @@ public class Types {
     } else if (a instanceof TypeVariable<?>) {
       TypeVariable<?> typeVariable = (TypeVariable<?>) a;
       for (Type bound : typeVariable.getBounds()) {
-        return isAssignableFrom(bound, b);
+        return computeIsAssignableFrom(bound, b);
       }
       return true;
     } else if (a instanceof WildcardType) {
       WildcardType wildcardType = (WildcardType) a;
       for (Type lowerBound : wildcardType.getLowerBounds()) {
-        if (!isAssignableFrom(b, lowerBound)) {
+        if (!computeIsAssignableFrom(b, lowerBound)) {
           return false;
         }
       }
       for (Type upperBound : wildcardType.getUpperBounds()) {
-        if (!isAssignableFrom(upperBound, b)) {
+        if (!computeIsAssignableFrom(upperBound, b)) {
           return false;
         }
       }
@@ -62,26 +195,21 @@ public class Types {
     }
     throw new IllegalStateException();
   }
-
-
-  /**
-   * Equivalent of {@link Class#isAssignableFrom(Class)} at the {@link Type}
-   * level.
-   */
-  public static boolean isAssignableFrom(Type a, Type b) {
+  /** {@link #isAssignableFrom(Type, Type)}, uncached. */
+  static boolean computeIsAssignableFrom(Type a, Type b) {
     if (a instanceof Class<?>) {
       Class<?> classA = (Class<?>) a;
       if (b instanceof Class<?>) {
         return classA.isAssignableFrom((Class<?>) b);
       } else if (b instanceof GenericArrayType) {
-        return classA.isArray() && isAssignableFrom(
+        return classA.isArray() && computeIsAssignableFrom(
             classA.getComponentType(), ((GenericArrayType) b).getGenericComponentType());
       } else if (b instanceof ParameterizedType) {
         return classA.isAssignableFrom((Class<?>) ((ParameterizedType) b).getRawType());
       } else if (b instanceof TypeVariable<?>) {
         TypeVariable<?> typeVariableB = (TypeVariable<?>) b;
         for (Type upperBound : typeVariableB.getBounds()) {
-          if (!isAssignableFrom(a, upperBound)) {
+          if (!computeIsAssignableFrom(a, upperBound)) {
             return false;
           }
         }
@@ -89,7 +217,7 @@ public class Types {
       } else if (b instanceof WildcardType) {
         WildcardType wildcardTypeB = (WildcardType) b;
         for (Type upperBound : wildcardTypeB.getUpperBounds()) {
-          if (!isAssignableFrom(a, upperBound)) {
+          if (!computeIsAssignableFrom(a, upperBound)) {
             return false;
           }
         }
@@ -97,14 +225,14 @@ public class Types {
       }
     } else if (a instanceof GenericArrayType) {
       if (b instanceof GenericArrayType) {
-        return isAssignableFrom(
+        return computeIsAssignableFrom(
             ((GenericArrayType) a).getGenericComponentType(),
             ((GenericArrayType) b).getGenericComponentType());
       }
     } else if (a instanceof ParameterizedType) {
       ParameterizedType parameterizedTypeA = (ParameterizedType) a;
       if (b instanceof Class<?>) {
-        return isAssignableFrom(parameterizedTypeA.getRawType(), b);
+        return computeIsAssignableFrom(parameterizedTypeA.getRawType(), b);
       } else if (b instanceof ParameterizedType) {
         ParameterizedType parameterizedTypeB = (ParameterizedType) b;
         Type[] actualTypeArgumentsA = parameterizedTypeA.getActualTypeArguments();
@@ -113,17 +241,17 @@ public class Types {
           return false;
         }
         for (int i = 0; i < actualTypeArgumentsA.length; i++) {
-          if (!isInstance(actualTypeArgumentsA[i], actualTypeArgumentsB[i])) {
+          if (!computeIsInstance(actualTypeArgumentsA[i], actualTypeArgumentsB[i])) {
             return false;
           }
         }
-        return isAssignableFrom(
+        return computeIsAssignableFrom(
             parameterizedTypeA.getRawType(),
             parameterizedTypeB.getRawType());
       }
     } else if (a instanceof TypeVariable<?>) {
       for (Type bound : ((TypeVariable<?>) a).getBounds()) {
-        if (!isAssignableFrom(bound, b)) {
+        if (!computeIsAssignableFrom(bound, b)) {
           return false;
         }
       }
@@ -132,7 +260,7 @@ public class Types {
       WildcardType wildcardType = (WildcardType) a;
       Type[] lowerBounds = wildcardType.getLowerBounds();
       for (Type lowerBound : lowerBounds) {
-        if (!isAssignableFrom(lowerBound, b)) {
+        if (!computeIsAssignableFrom(lowerBound, b)) {
           return false;
         }
       }
@@ -141,4 +269,181 @@ public class Types {
     return false;
   }
 
+  /**
+   * Looks up the result for the very instances {@code a} and {@code b}, then
+   * for structurally equal ones, computing it if neither is known.
+   */
+  private static boolean cached(ClassValue<Memo> cache, Type a, Type b) {
+    if (a == null || b == null) {
+      return compute(cache, a, b);
+    }
+    Memo memo = cache.get(cacheOwner(a, b));
+    int identityHash = spread(
+        31 * System.identityHashCode(a) + System.identityHashCode(b));
+    int identitySlot = identityHash & (CACHED_PAIRS_PER_CLASS - 1);
+    Entry entry = memo.byIdentity[identitySlot];
+    if (entry != null && entry.a.get() == a && entry.b.get() == b) {
+      return entry.result;
+    }
+    int hash = spread(31 * hash(a) + hash(b));
+    int slot = hash & (CACHED_PAIRS_PER_CLASS - 1);
+    entry = memo.byStructure[slot];
+    boolean result;
+    if (entry != null && entry.hash == hash &&
+        equal(a, entry.a.get()) && equal(b, entry.b.get())) {
+      result = entry.result;
+    } else {
+      result = compute(cache, a, b);
+      memo.byStructure[slot] = new Entry(a, b, hash, result);
+    }
+    memo.byIdentity[identitySlot] = new Entry(a, b, identityHash, result);
+    return result;
+  }
+
+  private static boolean compute(ClassValue<Memo> cache, Type a, Type b) {
+    return cache == IS_INSTANCE ?
+        computeIsInstance(a, b) : computeIsAssignableFrom(a, b);
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * The class whose cache holds the result for {@code a} and {@code b}: the
+   * raw class of {@code b}, usually the most specific, or else of {@code a}.
+   */
+  private static Class<?> cacheOwner(Type a, Type b) {
+    Class<?> owner = rawClass(b);
+    if (owner == null) {
+      owner = rawClass(a);
+    }
+    return owner == null ? Object.class : owner;
+  }
+
+  private static Class<?> rawClass(Type type) {
+    if (type instanceof Class<?>) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      Type rawType = ((ParameterizedType) type).getRawType();
+      return rawType instanceof Class<?> ? (Class<?>) rawType : null;
+    } else if (type instanceof GenericArrayType) {
+      return rawClass(((GenericArrayType) type).getGenericComponentType());
+    }
+    return null;
+  }
+
+  /**
+   * Structural equality of types, regardless of their implementations.
+   * Type variables and types of unknown kinds are compared with
+   * {@link Object#equals(Object)}.
+   */
+  static boolean equal(Type a, Type b) {
+    if (a == b) {
+      return true;
+    } else if (a instanceof ParameterizedTypeImpl && b instanceof ParameterizedTypeImpl) {
+      return a.equals(b);
+    } else if (a == null || b == null ||
+        a instanceof Class<?> || b instanceof Class<?>) {
+      return false;
+    } else if (a instanceof ParameterizedType) {
+      if (!(b instanceof ParameterizedType)) {
+        return false;
+      }
+      ParameterizedType parameterizedTypeA = (ParameterizedType) a;
+      ParameterizedType parameterizedTypeB = (ParameterizedType) b;
+      return equal(parameterizedTypeA.getRawType(), parameterizedTypeB.getRawType()) &&
+          equal(parameterizedTypeA.getOwnerType(), parameterizedTypeB.getOwnerType()) &&
+          equal(parameterizedTypeA.getActualTypeArguments(),
+              parameterizedTypeB.getActualTypeArguments());
+    } else if (a instanceof GenericArrayType) {
+      return b instanceof GenericArrayType && equal(
+          ((GenericArrayType) a).getGenericComponentType(),
+          ((GenericArrayType) b).getGenericComponentType());
+    } else if (a instanceof WildcardType) {
+      if (!(b instanceof WildcardType)) {
+        return false;
+      }
+      WildcardType wildcardTypeA = (WildcardType) a;
+      WildcardType wildcardTypeB = (WildcardType) b;
+      return equal(wildcardTypeA.getUpperBounds(), wildcardTypeB.getUpperBounds()) &&
+          equal(wildcardTypeA.getLowerBounds(), wildcardTypeB.getLowerBounds());
+    }
+    return a.equals(b);
+  }
+
+  private static boolean equal(Type[] a, Type[] b) {
+    if (a.length != b.length) {
+      return false;
+    }
+    for (int i = 0; i < a.length; i++) {
+      if (!equal(a[i], b[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A hash code consistent with {@link #equal(Type, Type)}, and with the
+   * JDK's own implementations of parameterized, array and wildcard types.
+   */
+  static int hash(Type type) {
+    if (type == null) {
+      return 0;
+    } else if (type instanceof Class<?> ||
+        type instanceof ParameterizedTypeImpl ||
+        type instanceof GenericArrayTypeImpl ||
+        type instanceof WildcardTypeImpl) {
+      return type.hashCode();
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      Type ownerType = parameterizedType.getOwnerType();
+      return hash(parameterizedType.getActualTypeArguments()) ^
+          hash(ownerType) ^
+          hash(parameterizedType.getRawType());
+    } else if (type instanceof GenericArrayType) {
+      return hash(((GenericArrayType) type).getGenericComponentType());
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      return hash(wildcardType.getLowerBounds()) ^
+          hash(wildcardType.getUpperBounds());
+    }
+    return type.hashCode();
+  }
+
+  private static int hash(Type[] types) {
+    int hash = 1;
+    for (Type type : types) {
+      hash = 31 * hash + hash(type);
+    }
+    return hash;
+  }
+
+  /**
+   * The memo of a class. Slots are read and written without synchronization:
+   * entries are immutable, and a slot lost to a race is only a miss.
+   */
+  private static class Memo {
+    final Entry[] byIdentity = new Entry[CACHED_PAIRS_PER_CLASS];
+    final Entry[] byStructure = new Entry[CACHED_PAIRS_PER_CLASS];
+  }
+
+  /**
+   * A result for a pair of types, held weakly.
+   */
+  private static class Entry {
+    final WeakReference<Type> a;
+    final WeakReference<Type> b;
+    final int hash;
+    final boolean result;
+
+    Entry(Type a, Type b, int hash, boolean result) {
+      this.a = new WeakReference<Type>(a);
+      this.b = new WeakReference<Type>(b);
+      this.hash = hash;
+      this.result = result;
+    }
+  }
+
 }
@@ -10,25 +10,45 @@
  */
 package com.kaching.platform.common.types;
 
-import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
-import static java.lang.Math.min;
 import static java.lang.String.format;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
-import java.util.LinkedList;
-import java.util.List;
+import java.lang.reflect.WildcardType;
 import java.util.Map;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 /**
  * Unification for Java made easy. See
  * {@link http://blog.kaching.com/index.php/2009/01/16/unifying-type-parameters-in-java/}.
+ *
+ * <p>The type arguments of all the supertypes of a class, as seen from that
+ * class, are computed once and kept in a {@link ClassValue}, which does not
+ * keep the class's loader from being unloaded. They are canonical types, see
+ * {@link Types#canonicalize(Type)}.</p>
  */
 public final class Unification {
   private Unification() {}
 
+  /**
+   * Type arguments of the supertypes of a class. A supertype extended without
+   * type arguments although it has type parameters maps to {@code null}.
+   */
+  private static final ClassValue<Map<Class<?>, Type[]>> SUPERTYPE_ARGUMENTS =
+      new ClassValue<Map<Class<?>, Type[]>>() {
+        @Override
+        protected Map<Class<?>, Type[]> computeValue(Class<?> type) {
+          return computeSupertypeArguments(type);
+        }
+      };
+
+  private static final Type[] NO_TYPES = new Type[0];
+
   public static Type getActualTypeArgument(
       Class<?> subClass, Class<?> superClass, int typeParameterIndex) {
     if (superClass.getTypeParameters().length <= typeParameterIndex) {
@@ -36,183 +56,139 @@ public final class Unification {
           "%s does not have a type parameter of index %s",
           superClass, typeParameterIndex));
     }
-
-    /* Assume the hierarchy is
-     *
-     *   A extends B<Integer>
-     *   B<T1> extends C<List<T1>>
-     *   C<T2>
-     *
-     * and we are resolving for T2.
-     */
-
-    // 1. Compute the linear hierarchy.
-    // e.g. the inverted list [C, B, A] containing ClassWithType
-    List<ClassWithType> linearHierarchy = getLinearHierarchy(subClass, superClass, null);
-    if (linearHierarchy == null) {
+    Map<Class<?>, Type[]> supertypeArguments = SUPERTYPE_ARGUMENTS.get(subClass);
+    Type[] arguments = supertypeArguments.get(superClass);
+    if (arguments == null) {
+      if (supertypeArguments.containsKey(superClass)) {
+        throw new IllegalArgumentException(format(
+            "%s does extend parametrically %s", subClass, superClass));
+      }
       throw new IllegalArgumentException(format(
           "%s does not have %s as super class", subClass, superClass));
     }
-
-    // 2. We now group by pairs actual type arguments and type variables.
-    // e.g. [(Integer, T1), (List<T1>, T2)]
-    LinkedList<GenericTypeInstantiation> chain = groupInGenericTypeInstantiations(
-        superClass.getTypeParameters()[typeParameterIndex],
-        linearHierarchy);
-
-    // 3. Unify, i.e. solve for the rightmost type variable.
-    return unify(chain);
+    return arguments[typeParameterIndex];
   }
 
-  private static List<ClassWithType> getLinearHierarchy(
-      Class<?> subClass, Class<?> superClass, ParameterizedType type) {
-    List<ClassWithType> linearHierarchy;
-
-    // interfaces (array will be empty if class implements none)
-    Class<?>[] interfaces = subClass.getInterfaces();
-    Type[] genericInterfaces = subClass.getGenericInterfaces();
-    for (int i = 0; i < min(interfaces.length, genericInterfaces.length); i++) {
-      if (interfaces[i].equals(superClass)) {
-        return newArrayList(
-            new ClassWithType(
-                interfaces[i], castToParameterizedType(subClass, genericInterfaces[i])),
-            new ClassWithType(subClass, type));
-      } else if (genericInterfaces[i] instanceof ParameterizedType) {
-        linearHierarchy = getLinearHierarchy(
-            interfaces[i], superClass, (ParameterizedType) genericInterfaces[i]);
-        if (linearHierarchy != null) {
-          linearHierarchy.add(new ClassWithType(subClass, type));
-          return linearHierarchy;
-        }
-      }
-    }
+  /**
+   * Walks the supertypes of {@code type}, interfaces first, binding the type
+   * parameters of each supertype to the arguments it is extended with, as
+   * seen from {@code type}.
+   *
+   * <p>Assume the hierarchy is</p>
+   * <pre>
+   *   A extends B&lt;Integer&gt;
+   *   B&lt;T1&gt; extends C&lt;List&lt;T1&gt;&gt;
+   *   C&lt;T2&gt;
+   * </pre>
+   * <p>then the arguments of {@code B} are {@code [Integer]} and those of
+   * {@code C}, obtained by binding {@code T1} to {@code Integer} in
+   * {@code C<List<T1>>}, are {@code [List<Integer>]}.</p>
+   */
+  static Map<Class<?>, Type[]> computeSupertypeArguments(Class<?> type) {
+    Map<Class<?>, Type[]> supertypeArguments = Maps.newHashMap();
+    collectSupertypes(type, ImmutableMap.<TypeVariable<?>, Type>of(), supertypeArguments);
+    return supertypeArguments;
+  }
 
-    // superclass
-    Class<?> superclass = subClass.getSuperclass();
-    if (superclass == null) {
-      return null;
+  private static void collectSupertypes(
+      Class<?> type, Map<TypeVariable<?>, Type> bindings,
+      Map<Class<?>, Type[]> supertypeArguments) {
+    for (Type genericInterface : type.getGenericInterfaces()) {
+      collectSupertype(genericInterface, bindings, supertypeArguments);
     }
-    Type genericSuperclass = subClass.getGenericSuperclass();
-    if (superclass.equals(Object.class)) {
-      return null;
-    } else if (superclass.equals(superClass)) {
-      return newArrayList(
-            new ClassWithType(superclass, castToParameterizedType(subClass, genericSuperclass)),
-            new ClassWithType(subClass, type));
-    } else {
-      linearHierarchy = getLinearHierarchy(superclass, superClass,
-            genericSuperclass instanceof ParameterizedType ?
-                (ParameterizedType) genericSuperclass : null);
-      if (linearHierarchy !=null) {
-        linearHierarchy.add(new ClassWithType(subClass, type));
-      }
-      return linearHierarchy;
+    Type genericSuperclass = type.getGenericSuperclass();
+    if (genericSuperclass != null) {
+      collectSupertype(genericSuperclass, bindings, supertypeArguments);
     }
   }
 
-  private static ParameterizedType castToParameterizedType(Class<?> subClass, Type type) {
-    if (!(type instanceof ParameterizedType)) {
-      throw new IllegalArgumentException(format(
-          "%s does extend parametrically %s", subClass, type));
+  private static void collectSupertype(
+      Type supertype, Map<TypeVariable<?>, Type> bindings,
+      Map<Class<?>, Type[]> supertypeArguments) {
+    Class<?> rawType;
+    Type[] arguments;
+    if (supertype instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) supertype;
+      rawType = (Class<?>) parameterizedType.getRawType();
+      arguments = Types.canonicalize(
+          substitute(bindings, parameterizedType.getActualTypeArguments()));
+    } else {
+      rawType = (Class<?>) supertype;
+      arguments = rawType.getTypeParameters().length == 0 ? NO_TYPES : null;
     }
-    return (ParameterizedType) type;
-  }
-
-  private static LinkedList<GenericTypeInstantiation> groupInGenericTypeInstantiations(
-      TypeVariable<?> targetTypeVariable, List<ClassWithType> linearHierarchy) {
-    LinkedList<GenericTypeInstantiation> chain = new LinkedList<GenericTypeInstantiation>();
-    int max = linearHierarchy.size() - 1;
-    resolve: for (int i = 0; i < max; /* done in loop */) {
-      final ClassWithType classWithType = linearHierarchy.get(i);
-      TypeVariable<?>[] typeParameters = classWithType.clazz.getTypeParameters();
-      for (int index = 0; index < typeParameters.length; index++) {
-        if (targetTypeVariable.equals(typeParameters[index])) {
-          Type actualTypeVariable = classWithType.type.getActualTypeArguments()[index];
-          chain.addFirst(new GenericTypeInstantiation(
-              actualTypeVariable,
-              typeParameters[index]));
-
-          // next
-          i++;
-          TypeVariable<?>[] potentialTargetTypeParameters = linearHierarchy.get(i).clazz.getTypeParameters();
-          if (potentialTargetTypeParameters.length <= index) {
-            return chain;
-          }
-          for (int j = 0; j < potentialTargetTypeParameters.length; j++) {
-            if (actualTypeVariable.equals(potentialTargetTypeParameters[j])) {
-              targetTypeVariable = potentialTargetTypeParameters[j];
-              continue resolve;
-            }
-          }
-          targetTypeVariable = potentialTargetTypeParameters[index];
-          continue resolve;
-        }
-      }
-      throw new IllegalStateException();
+    if (supertypeArguments.get(rawType) != null) {
+      // already reached, along another path
+      return;
     }
-    throw new IllegalStateException();
-  }
+    supertypeArguments.put(rawType, arguments);
 
-  private static Type unify(LinkedList<GenericTypeInstantiation> chain) {
-    Type unifiedType = chain.getLast().typeVariable;
-    Map<TypeVariable<?>, Type> replacements = newHashMap();
-    for (int i = chain.size() - 1; 0 <= i; i--) {
-      GenericTypeInstantiation gti = chain.get(i);
-      replacements.put(gti.typeVariable, gti.actualType);
-      unifiedType = applyReplacements(replacements, unifiedType);
+    Map<TypeVariable<?>, Type> supertypeBindings;
+    if (arguments == null || arguments.length == 0) {
+      supertypeBindings = ImmutableMap.of();
+    } else {
+      supertypeBindings = Maps.newHashMap();
+      TypeVariable<?>[] typeParameters = rawType.getTypeParameters();
+      for (int i = 0; i < typeParameters.length; i++) {
+        supertypeBindings.put(typeParameters[i], arguments[i]);
+      }
     }
-    return unifiedType;
+    collectSupertypes(rawType, supertypeBindings, supertypeArguments);
   }
 
-  private static Type applyReplacements(
-      Map<TypeVariable<?>, Type> replacements, Type unifiedType) {
-    if (unifiedType instanceof TypeVariable<?>) {
-      return replacements.get(unifiedType);
-    } else if (unifiedType instanceof Class<?>) {
-      return unifiedType;
-    } else if (unifiedType instanceof ParameterizedType) {
-      ParameterizedType parameterizedType = (ParameterizedType) unifiedType;
-      return new ParameterizedTypeImpl(
-          applyReplacements(replacements, parameterizedType.getRawType()),
-          applyReplacements(replacements, parameterizedType.getActualTypeArguments()));
+  /**
+   * Replaces the bound type variables of {@code type}, returning
+   * {@code type} itself if it has none.
+   */
+  private static Type substitute(Map<TypeVariable<?>, Type> bindings, Type type) {
+    if (type instanceof Class<?> || bindings.isEmpty()) {
+      return type;
+    } else if (type instanceof TypeVariable<?>) {
+      Type bound = bindings.get(type);
+      return bound == null ? type : bound;
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      Type[] arguments = parameterizedType.getActualTypeArguments();
+      Type[] substituted = substitute(bindings, arguments);
+      Type rawType = parameterizedType.getRawType();
+      return substituted == arguments ? type : new ParameterizedTypeImpl(
+          ParameterizedTypeImpl.ownerOf(rawType), rawType, substituted);
+    } else if (type instanceof GenericArrayType) {
+      Type componentType = ((GenericArrayType) type).getGenericComponentType();
+      Type substituted = substitute(bindings, componentType);
+      if (substituted == componentType) {
+        return type;
+      } else if (substituted instanceof Class<?>) {
+        return Array.newInstance((Class<?>) substituted, 0).getClass();
+      }
+      return new GenericArrayTypeImpl(substituted);
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      Type[] upperBounds = wildcardType.getUpperBounds();
+      Type[] lowerBounds = wildcardType.getLowerBounds();
+      Type[] substitutedUpperBounds = substitute(bindings, upperBounds);
+      Type[] substitutedLowerBounds = substitute(bindings, lowerBounds);
+      return substitutedUpperBounds == upperBounds && substitutedLowerBounds == lowerBounds ?
+          type : new WildcardTypeImpl(substitutedUpperBounds, substitutedLowerBounds);
     }
     throw new IllegalStateException("other kinds of types not handled yet");
   }
 
-  private static Type[] applyReplacements(
-      Map<TypeVariable<?>, Type> replacements, Type[] types) {
-    Type[] replacedTypes = new Type[types.length];
+  /**
+   * Replaces the bound type variables of {@code types}, returning
+   * {@code types} itself if none has any.
+   */
+  private static Type[] substitute(Map<TypeVariable<?>, Type> bindings, Type[] types) {
+    Type[] substituted = types;
     for (int i = 0; i < types.length; i++) {
-      replacedTypes[i] = applyReplacements(replacements, types[i]);
-    }
-    return replacedTypes;
-  }
-
-  private static class GenericTypeInstantiation {
-    private final Type actualType;
-    private final TypeVariable<?> typeVariable;
-    private GenericTypeInstantiation(
-        Type actualType, TypeVariable<?> typeVariable) {
-      this.actualType = actualType;
-      this.typeVariable = typeVariable;
-    }
-    @Override
-    public String toString() {
-      return format("(%s,%s)", actualType, typeVariable);
-    }
-  }
-
-  private static class ClassWithType {
-    private Class<?> clazz;
-    private ParameterizedType type;
-    private ClassWithType(Class<?> clazz, ParameterizedType type) {
-      this.clazz = clazz;
-      this.type = type;
-    }
-    @Override
-    public String toString() {
-      return type == null ? "-" : type.toString();
+      Type type = substitute(bindings, types[i]);
+      if (type != types[i]) {
+        if (substituted == types) {
+          substituted = types.clone();
+        }
+        substituted[i] = type;
+      }
     }
+    return substituted;
   }
 
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.types;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+
+/**
+ * Implementation of a {@link WildcardType}, equal to the JDK's. The hash code
+ * is computed once.
+ */
+class WildcardTypeImpl implements WildcardType {
+
+  private final Type[] upperBounds;
+  private final Type[] lowerBounds;
+  private final int hash;
+
+  WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+    this.upperBounds = upperBounds;
+    this.lowerBounds = lowerBounds;
+    this.hash = Arrays.hashCode(upperBounds) ^ Arrays.hashCode(lowerBounds);
+  }
+
+  @Override
+  public Type[] getUpperBounds() {
+    return upperBounds.clone();
+  }
+
+  @Override
+  public Type[] getLowerBounds() {
+    return lowerBounds.clone();
+  }
+
+  @Override
+  public boolean equals(Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (that instanceof WildcardTypeImpl && hash != that.hashCode()) {
+      return false;
+    }
+    if (!(that instanceof WildcardType)) {
+      return false;
+    }
+    WildcardType other = (WildcardType) that;
+    return Arrays.equals(upperBounds, other.getUpperBounds()) &&
+        Arrays.equals(lowerBounds, other.getLowerBounds());
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    if (lowerBounds.length != 0) {
+      return "? super " + lowerBounds[0].getTypeName();
+    } else if (upperBounds.length == 0 || upperBounds[0] == Object.class) {
+      return "?";
+    }
+    return "? extends " + upperBounds[0].getTypeName();
+  }
+
+}
@@ -11,15 +11,11 @@
 package com.kaching.platform.common.values;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
 
-import java.lang.reflect.Method;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Comparator;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
 import com.kaching.platform.common.Option;
 
 /**
@@ -28,36 +24,113 @@ import com.kaching.platform.common.Option;
  */
 public class NumberedEnum {
 
-  private static LoadingCache<Class<?>, Map<Integer, Enum<?>>> mappings =
-      CacheBuilder.newBuilder().build(new CacheLoader<Class<?>, Map<Integer, Enum<?>>>() {
-        @Override
-        public Map<Integer, Enum<?>> load(Class<?> from) {
-          try {
-            Builder<Integer, Enum<?>> builder = ImmutableMap.<Integer, Enum<?>>builder();
-            // Multiple casts valid from type parameter bounds declared in valueOf().
-            Method method = from.getMethod("values");
-            method.setAccessible(true);
-            Enum<?>[] values = (Enum<?>[]) method.invoke(null);
-            for (Enum<?> value : values) {
-              builder.put(((NumberedValue) value).getNumber(), value);
-            }
-            return builder.build();
-          } catch (Exception e) {
-            throw new IllegalStateException(e);
-          }
-        }
-      });
+  /**
+   * Numbering spans up to this many times the number of constants, plus
+   * {@link #DENSE_SLACK}, are looked up in an array indexed by number. Sparser
+   * numberings are binary searched.
+   */
+  private static final int DENSE_FACTOR = 2;
+  private static final int DENSE_SLACK = 16;
+
+  private static final ClassValue<Table> TABLES = new ClassValue<Table>() {
+    @Override
+    protected Table computeValue(Class<?> type) {
+      return newTable(type);
+    }
+  };
+
+  /**
+   * Lookup table of one enum, holding each constant pre-wrapped in an
+   * {@link Option} so that lookups do not allocate.
+   */
+  private static final class Table {
+
+    /** Lowest number, subtracted from numbers to index a dense table. */
+    final int offset;
+    /** Sorted numbers of a sparse table, or {@code null} for a dense table. */
+    final int[] numbers;
+    /** Constants by number, with {@code none()} filling the gaps. */
+    final Option<?>[] constants;
+
+    Table(int offset, int[] numbers, Option<?>[] constants) {
+      this.offset = offset;
+      this.numbers = numbers;
+      this.constants = constants;
+    }
+
+    Option<?> get(int number) {
+      if (numbers == null) {
+        long index = (long) number - offset;
+        return 0 <= index && index < constants.length ?
+            constants[(int) index] : Option.none();
+      }
+      int index = Arrays.binarySearch(numbers, number);
+      return index >= 0 ? constants[index] : Option.none();
+    }
+
+  }
+
+  private static Table newTable(Class<?> type) {
+    Object[] values = type.getEnumConstants();
+    if (values == null || !NumberedValue.class.isAssignableFrom(type)) {
+      throw new IllegalStateException(
+          format("%s is not a numbered enum", type.getName()));
+    }
+    Enum<?>[] sorted = new Enum<?>[values.length];
+    for (int i = 0; i < values.length; i++) {
+      sorted[i] = (Enum<?>) values[i];
+    }
+    Arrays.sort(sorted, new Comparator<Enum<?>>() {
+      @Override
+      public int compare(Enum<?> a, Enum<?> b) {
+        return Integer.compare(numberOf(a), numberOf(b));
+      }
+    });
+    int[] numbers = new int[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      numbers[i] = numberOf(sorted[i]);
+      if (i > 0 && numbers[i] == numbers[i - 1]) {
+        throw new IllegalStateException(format("%s and %s have the same number %s",
+            sorted[i - 1], sorted[i], numbers[i]));
+      }
+    }
+    if (sorted.length == 0) {
+      return new Table(0, null, new Option<?>[0]);
+    }
+    int min = numbers[0];
+    long span = (long) numbers[numbers.length - 1] - min + 1;
+    if (span <= (long) DENSE_FACTOR * sorted.length + DENSE_SLACK) {
+      Option<?>[] constants = new Option<?>[(int) span];
+      Arrays.fill(constants, Option.none());
+      for (int i = 0; i < sorted.length; i++) {
+        constants[numbers[i] - min] = Option.some(sorted[i]);
+      }
+      return new Table(min, null, constants);
+    } else {
+      Option<?>[] constants = new Option<?>[sorted.length];
+      for (int i = 0; i < sorted.length; i++) {
+        constants[i] = Option.some(sorted[i]);
+      }
+      return new Table(0, numbers, constants);
+    }
+  }
+
+  private static int numberOf(Enum<?> value) {
+    return ((NumberedValue) value).getNumber();
+  }
 
   /**
    * Returns the enum constant of the specified enum type with the specified
    * number. (This function is similar to {@link Enum#valueOf(Class, String)}.)
+   * The constants of each enum are indexed once by number, lookups do not
+   * box or allocate.
    *
    * @throws NullPointerException if the {@code value} is {@code null}
+   * @throws IllegalStateException if two constants have the same number
    */
   @SuppressWarnings("unchecked")
   public static <E extends Enum<E> & NumberedValue> Option<E> valueOf(final Class<E> type, int number) {
     checkNotNull(type);
-    E value = (E) mappings.getUnchecked(type).get(number);
-    return Option.of(value);
+    return (Option<E>) TABLES.get(type).get(number);
   }
 }
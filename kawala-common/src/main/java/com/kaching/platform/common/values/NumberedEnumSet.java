@@ -0,0 +1,129 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.kaching.platform.common.Option;
+
+/**
+ * Codec between sets of numbered enum constants and bit sets, where each
+ * constant is represented by the bit at its {@link NumberedValue#getNumber()
+ * number}. Since numbers are part of the external representation, encoded
+ * sets stay valid when constants are added or reordered.
+ *
+ * <p>A set whose constants are all numbered 0 to 63 fits in a {@code long},
+ * see {@link #toLong(Set)}. Otherwise, use {@link #toBitSet(Set)}, which
+ * supports any non-negative number.
+ *
+ * @param <E> the type of the numbered enum
+ */
+public class NumberedEnumSet<E extends Enum<E> & NumberedValue> {
+
+  private final Class<E> type;
+  /** Bit of each constant by ordinal, {@code 0} if its number is not 0 to 63. */
+  private final long[] bits;
+  /** Union of {@link #bits}. */
+  private final long knownBits;
+
+  public NumberedEnumSet(Class<E> type) {
+    this.type = checkNotNull(type);
+    E[] constants = type.getEnumConstants();
+    this.bits = new long[constants.length];
+    long knownBits = 0;
+    for (E constant : constants) {
+      int number = constant.getNumber();
+      if (0 <= number && number < Long.SIZE) {
+        bits[constant.ordinal()] = 1L << number;
+        knownBits |= 1L << number;
+      }
+    }
+    this.knownBits = knownBits;
+  }
+
+  /**
+   * Encodes a set into a {@code long}.
+   * @throws IllegalArgumentException if a constant's number is not 0 to 63
+   */
+  public long toLong(Set<E> set) {
+    long value = 0;
+    for (E constant : set) {
+      long bit = bits[constant.ordinal()];
+      if (bit == 0) {
+        throw new IllegalArgumentException(format(
+            "%s has number %s which does not fit in a long",
+            constant, constant.getNumber()));
+      }
+      value |= bit;
+    }
+    return value;
+  }
+
+  /**
+   * Decodes a set encoded by {@link #toLong(Set)}.
+   * @throws IllegalArgumentException if a bit does not number a constant
+   */
+  public EnumSet<E> fromLong(long value) {
+    if ((value & ~knownBits) != 0) {
+      throw new IllegalArgumentException(format(
+          "%s is not a %s set, unknown numbers %s",
+          value, type.getSimpleName(), BitSet.valueOf(new long[] { value & ~knownBits })));
+    }
+    EnumSet<E> set = EnumSet.noneOf(type);
+    for (long remaining = value; remaining != 0; remaining &= remaining - 1) {
+      set.add(NumberedEnum.valueOf(type, Long.numberOfTrailingZeros(remaining)).getOrThrow());
+    }
+    return set;
+  }
+
+  /**
+   * Encodes a set into a {@link BitSet}.
+   * @throws IllegalArgumentException if a constant's number is negative
+   */
+  public BitSet toBitSet(Set<E> set) {
+    BitSet bitSet = new BitSet();
+    for (E constant : set) {
+      int number = constant.getNumber();
+      if (number < 0) {
+        throw new IllegalArgumentException(format(
+            "%s has negative number %s", constant, number));
+      }
+      bitSet.set(number);
+    }
+    return bitSet;
+  }
+
+  /**
+   * Decodes a set encoded by {@link #toBitSet(Set)}.
+   * @throws IllegalArgumentException if a bit does not number a constant
+   */
+  public EnumSet<E> fromBitSet(BitSet bitSet) {
+    EnumSet<E> set = EnumSet.noneOf(type);
+    for (int number = bitSet.nextSetBit(0); number >= 0; number = bitSet.nextSetBit(number + 1)) {
+      Option<E> constant = NumberedEnum.valueOf(type, number);
+      if (!constant.isDefined()) {
+        throw new IllegalArgumentException(format(
+            "%s is not a %s set, unknown number %s", bitSet, type.getSimpleName(), number));
+      }
+      set.add(constant.getOrThrow());
+      if (number == Integer.MAX_VALUE) {
+        break;
+      }
+    }
+    return set;
+  }
+
+}
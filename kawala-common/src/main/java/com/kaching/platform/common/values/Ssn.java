@@ -10,22 +10,39 @@
  */
 package com.kaching.platform.common.values;
 
-import static com.google.common.base.Preconditions.checkArgument;
-import static java.lang.Integer.parseInt;
-import static java.lang.String.format;
+import java.util.Arrays;
+import java.util.List;
 
-import com.kaching.platform.common.AbstractIdentifier;
+import com.kaching.platform.common.AbstractIntIdentifier;
 
 /**
  * A U.S. Social Security number, as issued to an individual by the Social
  * Security Administration.
+ *
+ * <p>The nine digits are packed in a single {@code int}, returned by
+ * {@link #getId()}, and the string form is only built by
+ * {@link #getDigits()}. Use {@link SsnArray} to hold many SSNs.
  */
-public class Ssn extends AbstractIdentifier<String> {
+public class Ssn extends AbstractIntIdentifier {
 
-  private static final long serialVersionUID = -7832881252708349697L;
+  private static final long serialVersionUID = 2286137313553003573L;
 
+  /**
+   * Creates an SSN from its nine digits, optionally separated by dashes.
+   * @throws IllegalArgumentException if the SSN is invalid
+   * @see #isValid(CharSequence)
+   */
   public Ssn(String ssn) {
-    super(validate(ssn.replaceAll("-", "")));
+    super(validate(parse(ssn)));
+  }
+
+  /**
+   * Creates an SSN from its nine digits packed in an {@code int}, as returned
+   * by {@link #getId()}.
+   * @throws IllegalArgumentException if the SSN is invalid
+   */
+  public Ssn(int ssn) {
+    super(validate(ssn));
   }
 
   /**
@@ -38,54 +55,102 @@ public class Ssn extends AbstractIdentifier<String> {
    *  <li>Numbers of the form 666-xx-####</li>
    *  <li>Numbers from 987-65-4320 to 987-65-4329</li>
    * </ol>
+   * Dashes are ignored wherever they appear, any other character than an
+   * ASCII digit makes the SSN invalid. This method does not allocate.
+   */
+  public static boolean isValid(CharSequence ssn) {
+    return ssn != null && parse(ssn) >= 0;
+  }
+
+  /**
+   * Validates many SSNs, such as a column read from a file.
+   * @return the indexes of the invalid SSNs, in increasing order; null SSNs
+   *     are invalid
+   */
+  public static int[] invalidIndexes(List<? extends CharSequence> ssns) {
+    int[] indexes = new int[8];
+    int count = 0;
+    int index = 0;
+    for (CharSequence ssn : ssns) {
+      if (!isValid(ssn)) {
+        if (count == indexes.length) {
+          indexes = Arrays.copyOf(indexes, count * 2);
+        }
+        indexes[count++] = index;
+      }
+      index++;
+    }
+    return Arrays.copyOf(indexes, count);
+  }
+
+  /**
    * @throws IllegalArgumentException if the SSN is invalid
    * @return the untouched SSN, so it can be passed to the super class
    */
-  private static String validate(String ssn) {
+  static int validate(int ssn) {
 
     // Careful, checks must not leak the SSN in stack traces!
 
-    checkArgument(ssn.length() == 9);
-    try {
-      parseInt(ssn);
-    } catch (NumberFormatException e) {
+    if (!isValid(ssn)) {
       throw new IllegalArgumentException();
     }
+    return ssn;
+  }
 
-    String firstPart = firstPartOf(ssn);
-    String secondPart = secondPartOf(ssn);
-    String thirdPart = thirdPartOf(ssn);
-
-    for (int i = 734; i <= 749; i++) {
-      checkArgument(!firstPart.equals(String.valueOf(i)));
+  /**
+   * Scans the digits of an SSN, skipping dashes, and checks all the rules of
+   * {@link #isValid(CharSequence)}.
+   * @return the nine digits as an {@code int}, or {@code -1} if the SSN is
+   *     invalid
+   */
+  static int parse(CharSequence ssn) {
+    int value = 0;
+    int digits = 0;
+    for (int i = 0, length = ssn.length(); i < length; i++) {
+      char c = ssn.charAt(i);
+      if (c == '-') {
+        continue;
+      }
+      if (c < '0' || '9' < c || ++digits > 9) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
     }
-    checkArgument(parseInt(firstPart) <= 772);
-
-    checkArgument(!firstPart.equals("000"));
-    checkArgument(!secondPart.equals("00"));
-    checkArgument(!thirdPart.equals("0000"));
-
-    checkArgument(!firstPart.equals("666"));
+    return digits == 9 && isValid(value) ? value : -1;
+  }
 
-    for (int i = 0; i <= 9; i++) {
-      checkArgument(!ssn.equals("98765432" + i));
+  static boolean isValid(int ssn) {
+    if (ssn < 0 || 999999999 < ssn) {
+      return false;
     }
+    int area = ssn / 1000000;
+    int group = ssn / 10000 % 100;
+    int serial = ssn % 10000;
+    return !(area == 0 || area == 666 || 734 <= area && area <= 749 || 772 < area ||
+        group == 0 ||
+        serial == 0 ||
+        ssn / 10 == 98765432);
+  }
 
-    return ssn;
+  /**
+   * Returns the nine digits, without dashes.
+   */
+  public String getDigits() {
+    return digits(getId(), 0, 9);
   }
 
   /**
    * Returns the first three digits, assigned by the geographical region.
    */
   public String getAreaNumber() {
-    return firstPartOf(getId());
+    return digits(getId(), 0, 3);
   }
 
   /**
    * Returns the middle two digits. The group numbers range from 01 to 99.
    */
   public String getGroupNumber() {
-    return secondPartOf(getId());
+    return digits(getId(), 3, 5);
   }
 
   /**
@@ -93,25 +158,37 @@ public class Ssn extends AbstractIdentifier<String> {
    * sequence of digits from 0001 to 9999 within the group.
    */
   public String getSerialNumber() {
-    return thirdPartOf(getId());
+    return digits(getId(), 5, 9);
   }
 
   @Override
   public String toString() {
-    return format("***-**-%s", getSerialNumber());
+    return masked(getId());
   }
 
-  private static String firstPartOf(String ssn) {
-    return ssn.substring(0, 3);
-  }
-
-  private static String secondPartOf(String ssn) {
-    return ssn.substring(3, 5);
+  /**
+   * Formats an SSN as {@code ***-**-NNNN}, showing only the serial number.
+   */
+  static String masked(int ssn) {
+    char[] chars = { '*', '*', '*', '-', '*', '*', '-', 0, 0, 0, 0 };
+    for (int i = 10, serial = ssn % 10000; i > 6; i--, serial /= 10) {
+      chars[i] = (char) ('0' + serial % 10);
+    }
+    return new String(chars);
   }
 
-  private static String thirdPartOf(String ssn) {
-    return ssn.substring(5, 9);
+  /**
+   * Formats the digits of an SSN from position {@code start}, inclusive, to
+   * {@code end}, exclusive, counting from the leftmost of the nine digits.
+   */
+  private static String digits(int ssn, int start, int end) {
+    char[] chars = new char[end - start];
+    for (int i = 8; i >= start; i--, ssn /= 10) {
+      if (i < end) {
+        chars[i - start] = (char) ('0' + ssn % 10);
+      }
+    }
+    return new String(chars);
   }
 
 }
-
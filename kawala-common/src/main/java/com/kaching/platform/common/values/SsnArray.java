@@ -0,0 +1,119 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.common.values;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A growable list of {@link Ssn}s stored as a single {@code int[]}, four
+ * bytes per SSN. {@link Ssn} instances are only created when read through
+ * {@link #get(int)}; the {@code getXxx(int)} methods read the stored values
+ * directly. Null elements are not permitted.
+ */
+public class SsnArray extends AbstractList<Ssn> implements RandomAccess {
+
+  private int[] ssns;
+  private int size;
+
+  public SsnArray() {
+    this(10);
+  }
+
+  /**
+   * Creates an empty array able to hold {@code capacity} SSNs without
+   * growing.
+   */
+  public SsnArray(int capacity) {
+    checkArgument(capacity >= 0, "negative capacity %s", capacity);
+    this.ssns = new int[capacity];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Ssn get(int index) {
+    return new Ssn(getInt(index));
+  }
+
+  /**
+   * Gets the SSN at {@code index} as returned by {@link Ssn#getId()}.
+   */
+  public int getInt(int index) {
+    checkElementIndex(index, size);
+    return ssns[index];
+  }
+
+  /**
+   * Gets the SSN at {@code index} as returned by {@link Ssn#toString()}.
+   */
+  public String getMasked(int index) {
+    return Ssn.masked(getInt(index));
+  }
+
+  @Override
+  public Ssn set(int index, Ssn ssn) {
+    checkElementIndex(index, size);
+    Ssn previous = new Ssn(ssns[index]);
+    ssns[index] = ssn.getId();
+    return previous;
+  }
+
+  @Override
+  public void add(int index, Ssn ssn) {
+    insert(index, ssn.getId());
+  }
+
+  /**
+   * Parses and appends an SSN without creating an {@link Ssn}.
+   * @throws IllegalArgumentException if the SSN is invalid
+   * @see Ssn#Ssn(String)
+   */
+  public void add(CharSequence ssn) {
+    insert(size, Ssn.validate(Ssn.parse(ssn)));
+  }
+
+  @Override
+  public Ssn remove(int index) {
+    checkElementIndex(index, size);
+    Ssn previous = new Ssn(ssns[index]);
+    System.arraycopy(ssns, index + 1, ssns, index, size - index - 1);
+    size--;
+    modCount++;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    modCount++;
+  }
+
+  private void insert(int index, int ssn) {
+    checkPositionIndex(index, size);
+    if (size == ssns.length) {
+      ssns = Arrays.copyOf(ssns, Math.max(10, size + (size >> 1)));
+    }
+    System.arraycopy(ssns, index, ssns, index + 1, size - index);
+    ssns[index] = ssn;
+    size++;
+    modCount++;
+  }
+
+}
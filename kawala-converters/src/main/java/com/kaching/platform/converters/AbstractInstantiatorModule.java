@@ -45,4 +45,9 @@ public abstract class AbstractInstantiatorModule implements InstantiatorModule {
     binder.register(function);
   }
 
+  protected void registerListener(InstantiatorListener listener) {
+    checkState(binder != null);
+    binder.registerListener(listener);
+  }
+
 }
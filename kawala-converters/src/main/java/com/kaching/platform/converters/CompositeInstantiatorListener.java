@@ -0,0 +1,72 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Listener forwarding all events to a list of listeners.
+ */
+class CompositeInstantiatorListener implements InstantiatorListener {
+
+  private final InstantiatorListener[] listeners;
+
+  CompositeInstantiatorListener(List<InstantiatorListener> listeners) {
+    this.listeners = ImmutableList.copyOf(listeners)
+        .toArray(new InstantiatorListener[listeners.size()]);
+  }
+
+  @Override
+  public void instantiatorBuilt(Class<?> klass, long durationNanos) {
+    for (InstantiatorListener listener : listeners) {
+      listener.instantiatorBuilt(klass, durationNanos);
+    }
+  }
+
+  @Override
+  public void constructorAnalysed(Class<?> klass, long durationNanos) {
+    for (InstantiatorListener listener : listeners) {
+      listener.constructorAnalysed(klass, durationNanos);
+    }
+  }
+
+  @Override
+  public void instantiated(Class<?> klass, long durationNanos) {
+    for (InstantiatorListener listener : listeners) {
+      listener.instantiated(klass, durationNanos);
+    }
+  }
+
+  @Override
+  public void destantiated(Class<?> klass, long durationNanos) {
+    for (InstantiatorListener listener : listeners) {
+      listener.destantiated(klass, durationNanos);
+    }
+  }
+
+  @Override
+  public void converterInvoked(Type type) {
+    for (InstantiatorListener listener : listeners) {
+      listener.converterInvoked(type);
+    }
+  }
+
+  @Override
+  public void converterFailed(Type type, RuntimeException e) {
+    for (InstantiatorListener listener : listeners) {
+      listener.converterFailed(type, e);
+    }
+  }
+
+}
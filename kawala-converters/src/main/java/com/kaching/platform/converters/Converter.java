@@ -28,6 +28,10 @@ import java.net.URI;
  * assertEquals(value1, value2);</pre>
  * <p>always succeeds.</p>
  *
+ * <p>Converters are shared by all the threads using an {@link Instantiator}
+ * and must therefore be thread-safe. Stateless or immutable converters are
+ * strongly preferred.</p>
+ *
  * @param <T> the type this converter converts.
  */
 public interface Converter<T> extends ToString<T>, FromString<T> {
@@ -38,4 +38,15 @@ public interface ConverterBinder {
    */
   void register(Function<Type, Option<? extends Converter<?>>> function);
 
+  /**
+   * Registers a listener notified of the life cycle of the instantiator and
+   * of its converters. Binders which do not support listeners, such as
+   * implementations predating them, throw
+   * {@link UnsupportedOperationException}.
+   */
+  default void registerListener(InstantiatorListener listener) {
+    throw new UnsupportedOperationException(
+        getClass().getName() + " does not support listeners");
+  }
+
 }
@@ -22,14 +22,17 @@ import com.google.common.base.Function;
 import com.google.inject.TypeLiteral;
 import com.kaching.platform.common.Errors;
 import com.kaching.platform.common.Option;
+import com.kaching.platform.common.types.Types;
 
 class ConverterBinderImpl implements ConverterBinder {
 
   private final Errors errors;
-  private final Map<TypeLiteral<?>, Converter<?>> instances = newHashMap();
+  // keyed by canonical types, whose equals short-circuits on identity
+  private final Map<Type, Converter<?>> instances = newHashMap();
   @SuppressWarnings("rawtypes")
-  private final Map<TypeLiteral<?>, Class<? extends Converter>> bindings = newHashMap();
+  private final Map<Type, Class<? extends Converter>> bindings = newHashMap();
   private final List<Function<Type, Option<? extends Converter<?>>>> functions = newArrayList();
+  private final List<InstantiatorListener> listeners = newArrayList();
 
   ConverterBinderImpl(Errors errors) {
     this.errors = errors;
@@ -50,12 +53,17 @@ class ConverterBinderImpl implements ConverterBinder {
     functions.add(function);
   }
 
-  Map<TypeLiteral<?>, Converter<?>> getInstances() {
+  @Override
+  public void registerListener(InstantiatorListener listener) {
+    listeners.add(listener);
+  }
+
+  Map<Type, Converter<?>> getInstances() {
     return instances;
   }
 
   @SuppressWarnings({ "unchecked", "rawtypes" })
-  Map<TypeLiteral<?>, Class<? extends Converter<?>>> getBindings() {
+  Map<Type, Class<? extends Converter<?>>> getBindings() {
     return (Map) bindings;
   }
 
@@ -63,15 +71,27 @@ class ConverterBinderImpl implements ConverterBinder {
     return functions;
   }
 
+  Option<InstantiatorListener> getListener() {
+    switch (listeners.size()) {
+      case 0:
+        return Option.none();
+      case 1:
+        return Option.some(listeners.get(0));
+      default:
+        return Option.<InstantiatorListener>some(
+            new CompositeInstantiatorListener(listeners));
+    }
+  }
+
   class ConverterSpecifierImpl<T> implements ConverterSpecifier<T> {
 
-    private final TypeLiteral<T> key;
+    private final Type key;
 
-    ConverterSpecifierImpl(TypeLiteral<T> key) {
+    ConverterSpecifierImpl(TypeLiteral<T> type) {
+      this.key = Types.canonicalize(type.getType());
       if (bindings.containsKey(key) || instances.containsKey(key)) {
-        duplicateConverterBindingForType(errors, key.getType());
+        duplicateConverterBindingForType(errors, type.getType());
       }
-      this.key = key;
     }
 
     @Override
@@ -12,11 +12,16 @@ package com.kaching.platform.converters;
 
 import static com.google.common.collect.Maps.newHashMap;
 import static java.lang.String.format;
+import static java.util.Collections.unmodifiableMap;
 
 import java.util.Map;
 
 /**
- * A converter for a finite set of values.
+ * A converter for a finite set of values. The conversion is copied into
+ * unmodifiable maps on construction, so this converter is thread-safe and does
+ * not observe later changes to the map it was created from. Null keys or
+ * values are accepted but never match, since nulls are handled before the
+ * maps are consulted.
  */
 public class FiniteConverter<T> extends NullHandlingConverter<T> {
 
@@ -24,11 +29,13 @@ public class FiniteConverter<T> extends NullHandlingConverter<T> {
   private final Map<T, String> o2s;
 
   public FiniteConverter(Map<String, T> conversion) {
-    this.s2o = conversion;
-    this.o2s = newHashMap();
+    Map<String, T> s2o = newHashMap(conversion);
+    Map<T, String> o2s = newHashMap();
     for (Map.Entry<String, T> e : s2o.entrySet()) {
       o2s.put(e.getValue(), e.getKey());
     }
+    this.s2o = unmodifiableMap(s2o);
+    this.o2s = unmodifiableMap(o2s);
   }
 
   @Override
@@ -16,6 +16,10 @@ import java.util.Map;
 
 /**
  * Object used to instantiate and destantiate objects.
+ *
+ * <p>Instantiators created by {@link Instantiators} are immutable and
+ * thread-safe: a single instance may be shared by all threads, provided the
+ * converters it uses are themselves thread-safe.</p>
  */
 public interface Instantiator<T> {
 
@@ -16,32 +16,51 @@ import static java.lang.String.format;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.kaching.platform.common.Option;
+import com.kaching.platform.common.OptionLong;
 
+/**
+ * Immutable instantiator. All state is held in final fields and arrays which
+ * are owned by the instantiator and never mutated after construction, so
+ * instances are safely published and may be shared freely across threads.
+ */
 class InstantiatorImpl<T> implements Instantiator<T> {
 
   private final Constructor<T> constructor;
   private final Field[] fields;
   @SuppressWarnings("rawtypes")
   private final Converter[] converters;
-  private final BitSet optionality;
-  private final BitSet wrapInOption;
+  private final boolean[] optionality;
+  private final boolean[] wrapInOption;
+  private final boolean[] wrapInOptionLong;
+  private final boolean[] parseLong;
   private final String[] defaultValues;
   private final Object[] defaultConstants;
   private final String[] parameterNames;
 
+  /**
+   * The arrays are not copied, callers must hand over their ownership. The
+   * {@code optionality} and {@code wrapInOption} arrays are indexed by
+   * parameter and must be as long as {@code converters}. Parameters wrapped in
+   * an option are wrapped in an {@link OptionLong} when flagged in
+   * {@code wrapInOptionLong}, and in an {@link Option} otherwise. Parameters
+   * flagged in {@code parseLong} are parsed with {@link Long#parseLong(String)}
+   * rather than through their converter, which avoids boxing. Both arrays may
+   * be {@code null} when no parameter is flagged.
+   */
   InstantiatorImpl(
       Constructor<T> constructor,
       Converter<?>[] converters,
       Field[] fields,
-      BitSet optionality,
-      BitSet wrapInOption,
+      boolean[] optionality,
+      boolean[] wrapInOption,
+      boolean[] wrapInOptionLong,
+      boolean[] parseLong,
       String[] defaultValues,
       Object[] defaultConstants,
       String[] parameterNames) {
@@ -50,6 +69,8 @@ class InstantiatorImpl<T> implements Instantiator<T> {
     this.fields = fields;
     this.optionality = optionality;
     this.wrapInOption = wrapInOption;
+    this.wrapInOptionLong = wrapInOptionLong;
+    this.parseLong = parseLong;
     this.defaultValues = defaultValues;
     this.defaultConstants = defaultConstants;
     this.parameterNames = parameterNames;
@@ -84,9 +105,9 @@ class InstantiatorImpl<T> implements Instantiator<T> {
           // TODO(pascal): properly handle predicates.
           Object parameter;
           if (value == null) {
-            if (wrapInOption.get(i)) {
-               parameter = Option.none();
-            } else if (optionality.get(i)) {
+            if (wrapInOption[i]) {
+              parameter = isWrappedInOptionLong(i) ? OptionLong.none() : Option.none();
+            } else if (optionality[i]) {
               if (defaultValues != null && defaultValues[i] != null) {
                 parameter = convert(converter, defaultValues[i]);
               } else {
@@ -101,9 +122,13 @@ class InstantiatorImpl<T> implements Instantiator<T> {
                   "parameter %s is not optional but null was provided",
                   i + 1));
             }
+          } else if (isWrappedInOptionLong(i)) {
+            parameter = OptionLong.some(parseLong != null && parseLong[i] ?
+                Long.parseLong(value) :
+                ((Long) convert(converter, value)).longValue());
           } else {
             parameter = convert(converter, value);
-            if (wrapInOption.get(i)) {
+            if (wrapInOption[i]) {
               parameter = Option.some(parameter);
             }
           }
@@ -135,7 +160,10 @@ class InstantiatorImpl<T> implements Instantiator<T> {
         String parameterAsString;
         if (field != null) {
           Object value = field.get(instance);
-          if (wrapInOption.get(i)) {
+          if (isWrappedInOptionLong(i)) {
+            OptionLong option = (OptionLong) value;
+            value = option.isEmpty() ? null : (Object) option.getOrThrow();
+          } else if (wrapInOption[i]) {
             value = ((Option<Object>) value).getOrElse((Object) null);
           }
           parameterAsString = value == null ? null : converters[i].toString(value);
@@ -152,6 +180,10 @@ class InstantiatorImpl<T> implements Instantiator<T> {
     return parameters;
   }
 
+  private boolean isWrappedInOptionLong(int i) {
+    return wrapInOptionLong != null && wrapInOptionLong[i];
+  }
+
   private Object convert(Converter<?> converter, String value) {
     Object parameter = converter.fromString(value);
     if (parameter == null) {
@@ -29,6 +29,7 @@ import static com.kaching.platform.converters.InstantiatorErrors.unableToGetFiel
 import static com.kaching.platform.converters.InstantiatorErrors.unableToInstantiate;
 import static com.kaching.platform.converters.InstantiatorErrors.unableToResolveConstant;
 import static com.kaching.platform.converters.InstantiatorErrors.unableToResolveFullyQualifiedConstant;
+import static com.kaching.platform.converters.InstrumentedConverter.instrument;
 import static com.kaching.platform.converters.NativeConverters.C_BOOLEAN;
 import static com.kaching.platform.converters.NativeConverters.C_BYTE;
 import static com.kaching.platform.converters.NativeConverters.C_CHAR;
@@ -52,7 +53,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -60,9 +60,9 @@ import java.util.Map.Entry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableMap;
-import com.google.inject.TypeLiteral;
 import com.kaching.platform.common.Errors;
 import com.kaching.platform.common.Option;
+import com.kaching.platform.common.OptionLong;
 import com.kaching.platform.common.types.Types;
 import com.kaching.platform.common.types.Unification;
 import com.kaching.platform.converters.ConstructorAnalysis.AnalysisResult;
@@ -101,7 +101,9 @@ class InstantiatorImplFactory<T> {
     return binder;
   }
 
-  Option<InstantiatorImpl<T>> build() {
+  Option<? extends Instantiator<T>> build() {
+    InstantiatorListener listener = binder.getListener().getOrNull();
+    long start = listener == null ? 0 : System.nanoTime();
     // 1. find constructor
     for (Constructor<T> constructor : getConstructor()) {
       constructor.setAccessible(true);
@@ -111,8 +113,10 @@ class InstantiatorImplFactory<T> {
       int parametersCount = genericParameterTypes.length;
       Converter<?>[] converters =
           parametersCount == 0 ? null : new Converter<?>[parametersCount];
-      BitSet optionality = new BitSet();
-      BitSet wrapInOption = new BitSet();
+      boolean[] optionality = new boolean[parametersCount];
+      boolean[] wrapInOption = new boolean[parametersCount];
+      boolean[] wrapInOptionLong = null;
+      boolean[] parseLong = null;
       String[] defaultValues = null;
       Object[] defaultConstants = null;
       next_parameter: for (int i = 0; i < parametersCount; i++) {
@@ -121,16 +125,35 @@ class InstantiatorImplFactory<T> {
         Type genericParameterTypeForConverter;
         if (genericParameterType instanceof ParameterizedType &&
             ((ParameterizedType) genericParameterType).getRawType().equals(Option.class)) {
-          wrapInOption.set(i);
+          wrapInOption[i] = true;
           genericParameterTypeForConverter = ((ParameterizedType) genericParameterType).getActualTypeArguments()[0];
+        } else if (OptionLong.class.equals(genericParameterType)) {
+          wrapInOption[i] = true;
+          if (wrapInOptionLong == null) {
+            wrapInOptionLong = new boolean[parametersCount];
+          }
+          wrapInOptionLong[i] = true;
+          genericParameterTypeForConverter = Long.class;
         } else {
           genericParameterTypeForConverter = genericParameterType;
         }
         for (final Converter<?> converter : createConverter(
             genericParameterTypeForConverter)) {
-          converters[i] = converter;
+          converters[i] = listener == null ?
+              converter :
+              instrument(converter, genericParameterTypeForConverter, listener);
+          // Decided on the bare converter: unless a converter was bound for
+          // longs, Long(String) is Long.parseLong without the boxing. Natively
+          // parsed longs are not reported to the listener.
+          if (wrapInOptionLong != null && wrapInOptionLong[i] &&
+              (converter == C_LONG || converter instanceof StringConstructorConverter)) {
+            if (parseLong == null) {
+              parseLong = new boolean[parametersCount];
+            }
+            parseLong[i] = true;
+          }
           for (Optional optional : getOptionalAnnotation(annotations)) {
-            if (wrapInOption.get(i)) {
+            if (wrapInOption[i]) {
               cannotAnnotateOptionWithOptional(errors, genericParameterType);
               continue next_parameter;
             }
@@ -217,7 +240,7 @@ class InstantiatorImplFactory<T> {
                 optionalLiteralParameterMustHaveDefault(errors, i);
               }
             }
-            optionality.set(i);
+            optionality[i] = true;
           }
         }
       }
@@ -225,7 +248,11 @@ class InstantiatorImplFactory<T> {
       Field[] fields = null;
       AnalysisResult analysisResult = null;
       try {
+        long analysisStart = listener == null ? 0 : System.nanoTime();
         analysisResult = ConstructorAnalysis.analyse(klass, constructor);
+        if (listener != null) {
+          listener.constructorAnalysed(klass, System.nanoTime() - analysisStart);
+        }
         fields = retrieveFieldsFromAssignment(
             parametersCount, analysisResult.assignments);
       } catch (IOException e) {
@@ -235,9 +262,16 @@ class InstantiatorImplFactory<T> {
       }
       // 4. done
       if (!errors.hasErrors()) {
-        return Option.some(new InstantiatorImpl<T>(
-            constructor, converters, fields, optionality, wrapInOption, defaultValues,
-            defaultConstants, analysisResult.paramaterNames));
+        InstantiatorImpl<T> instantiator = new InstantiatorImpl<T>(
+            constructor, converters, fields, optionality, wrapInOption,
+            wrapInOptionLong, parseLong, defaultValues, defaultConstants,
+            analysisResult.paramaterNames);
+        if (listener == null) {
+          return Option.some(instantiator);
+        }
+        listener.instantiatorBuilt(klass, System.nanoTime() - start);
+        return Option.some(
+            new InstrumentedInstantiator<T>(instantiator, klass, listener));
       } else {
         return Option.none();
       }
@@ -258,21 +292,40 @@ class InstantiatorImplFactory<T> {
   Option<? extends Converter<?>> createConverter(Type targetType) {
     int sizeBefore = errors.size();
     // 1. explicit binding
-    Map<TypeLiteral<?>, Converter<?>> instances = binder.getInstances();
-    Map<TypeLiteral<?>, Class<? extends Converter<?>>> bindings = binder.getBindings();
+    Map<Type, Converter<?>> instances = binder.getInstances();
+    Map<Type, Class<? extends Converter<?>>> bindings = binder.getBindings();
     List<Function<Type, Option<? extends Converter<?>>>> functions = binder.getFunctions();
+    // bindings are keyed by canonical types, so an exact binding is found
+    // directly; the loops are left for keys matching by wildcard or variable
+    Type key = Types.canonicalize(targetType);
     if (instances != null) {
-      for (Entry<TypeLiteral<?>, Converter<?>> entry : instances.entrySet()) {
-        if (Types.isInstance(entry.getKey().getType(), targetType)) {
+      Converter<?> instance = instances.get(key);
+      if (instance != null) {
+        return Option.some(instance);
+      }
+      for (Entry<Type, Converter<?>> entry : instances.entrySet()) {
+        if (Types.isInstance(entry.getKey(), targetType)) {
           return Option.some(entry.getValue());
         }
       }
     }
     if (bindings != null) {
-      for (Entry<TypeLiteral<?>, Class<? extends Converter<?>>> entry : bindings.entrySet()) {
-        if (Types.isInstance(entry.getKey().getType(), targetType)) {
-          for (Converter<?> converter : instantiateConverter(entry.getValue(), targetType)) {
-            return Option.some(converter);
+      Class<? extends Converter<?>> binding = bindings.get(key);
+      if (binding != null) {
+        Option<? extends Converter<?>> converter =
+            instantiateConverter(binding, targetType);
+        if (converter.isDefined()) {
+          return converter;
+        }
+      }
+      for (Entry<Type, Class<? extends Converter<?>>> entry : bindings.entrySet()) {
+        // the exact binding's converter was already tried for this type
+        if (entry.getValue() != binding &&
+            Types.isInstance(entry.getKey(), targetType)) {
+          Option<? extends Converter<?>> converter =
+              instantiateConverter(entry.getValue(), targetType);
+          if (converter.isDefined()) {
+            return converter;
           }
         }
       }
@@ -300,8 +353,10 @@ class InstantiatorImplFactory<T> {
       Class targetClass = (Class) (targetType instanceof Class ?
           targetType :
           ((ParameterizedType) targetType).getRawType());
-      for (Converter<?> converter : createConverterUsingConvertedBy(targetType, targetClass)) {
-        return Option.some(converter);
+      Option<? extends Converter<?>> converter =
+          createConverterUsingConvertedBy(targetType, targetClass);
+      if (converter.isDefined()) {
+        return converter;
       }
     }
 
@@ -312,8 +367,10 @@ class InstantiatorImplFactory<T> {
         return Option.some(BASE_CONVERTERS.get(targetClass));
       }
       // 5. has <init>(Ljava/lang/String;)V;
-      for (Converter<?> converter : createConverterUsingStringConstructor(targetClass)) {
-        return Option.some(converter);
+      Option<? extends Converter<?>> converter =
+          createConverterUsingStringConstructor(targetClass);
+      if (converter.isDefined()) {
+        return converter;
       }
       // 6. is an Enum
       if (Enum.class.isAssignableFrom(targetClass)) {
@@ -325,9 +382,10 @@ class InstantiatorImplFactory<T> {
       }
     } else if (targetType instanceof ParameterizedType) {
       // 7. has <init>(Ljava/lang/String;)V;
-      for (Converter<?> converter : createConverterUsingStringConstructor(
-            (Class)((ParameterizedType) targetType).getRawType())) {
-        return Option.some(converter);
+      Option<? extends Converter<?>> converter = createConverterUsingStringConstructor(
+          (Class)((ParameterizedType) targetType).getRawType());
+      if (converter.isDefined()) {
+        return converter;
       }
       // 8. Set, List, Collection
       ParameterizedType parameterizedTargetType = (ParameterizedType) targetType;
@@ -394,8 +452,10 @@ class InstantiatorImplFactory<T> {
     for (Annotation typeAnnotation : typeAnnotations) {
       if (typeAnnotation instanceof ConvertedBy) {
         Class<? extends Converter<?>> converterClass = ((ConvertedBy) typeAnnotation).value();
-        for (Converter<?> converter : instantiateConverter(converterClass, targetType)) {
-          return Option.some(converter);
+        Option<? extends Converter<?>> converter =
+            instantiateConverter(converterClass, targetType);
+        if (converter.isDefined()) {
+          return converter;
         }
       }
     }
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import java.lang.reflect.Type;
+
+/**
+ * Listener notified of the life cycle of instantiators, used to collect
+ * metrics or trace instantiation. Listeners are registered using
+ * {@link ConverterBinder#registerListener(InstantiatorListener)}. When no
+ * listener is registered, instantiators are not instrumented at all and no
+ * cost is incurred.
+ *
+ * <p>Listeners are called on the threads using the instantiators and must
+ * therefore be thread-safe. Durations are in nanoseconds.</p>
+ *
+ * @see InstantiatorMetrics
+ */
+public interface InstantiatorListener {
+
+  /**
+   * Called when an instantiator for {@code klass} has been built.
+   */
+  void instantiatorBuilt(Class<?> klass, long durationNanos);
+
+  /**
+   * Called when the {@link ConstructorAnalysis} of {@code klass} completed.
+   */
+  void constructorAnalysed(Class<?> klass, long durationNanos);
+
+  /**
+   * Called when an instance of {@code klass} has been created.
+   */
+  void instantiated(Class<?> klass, long durationNanos);
+
+  /**
+   * Called when an instance of {@code klass} has been destantiated.
+   */
+  void destantiated(Class<?> klass, long durationNanos);
+
+  /**
+   * Called when the converter for {@code type} is invoked, in either
+   * direction.
+   */
+  void converterInvoked(Type type);
+
+  /**
+   * Called when the converter for {@code type} throws.
+   */
+  void converterFailed(Type type, RuntimeException e);
+
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Ordering;
+
+/**
+ * An in-memory {@link InstantiatorListener} aggregating counts, durations and
+ * latency histograms per value class and per converted type. A single
+ * instance is typically registered with all instantiators and dumped
+ * periodically using {@link #dump(Appendable)}.
+ *
+ * <p>Latencies are bucketed by powers of two: bucket {@code k} counts
+ * durations in {@code [2^(k-1), 2^k)} nanoseconds.</p>
+ */
+public class InstantiatorMetrics implements InstantiatorListener {
+
+  private final ConcurrentMap<Class<?>, ClassMetrics> classes = newConcurrentMap();
+  private final ConcurrentMap<Type, ConverterMetrics> converters = newConcurrentMap();
+
+  @Override
+  public void instantiatorBuilt(Class<?> klass, long durationNanos) {
+    ClassMetrics metrics = metricsFor(klass);
+    metrics.builds.increment();
+    metrics.buildNanos.add(durationNanos);
+  }
+
+  @Override
+  public void constructorAnalysed(Class<?> klass, long durationNanos) {
+    metricsFor(klass).analysisNanos.add(durationNanos);
+  }
+
+  @Override
+  public void instantiated(Class<?> klass, long durationNanos) {
+    metricsFor(klass).instantiations.record(durationNanos);
+  }
+
+  @Override
+  public void destantiated(Class<?> klass, long durationNanos) {
+    metricsFor(klass).destantiations.record(durationNanos);
+  }
+
+  @Override
+  public void converterInvoked(Type type) {
+    metricsFor(type).invocations.increment();
+  }
+
+  @Override
+  public void converterFailed(Type type, RuntimeException e) {
+    metricsFor(type).failures.increment();
+  }
+
+  public long getBuildCount(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? 0 : metrics.builds.sum();
+  }
+
+  public long getBuildNanos(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? 0 : metrics.buildNanos.sum();
+  }
+
+  public long getAnalysisNanos(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? 0 : metrics.analysisNanos.sum();
+  }
+
+  public long getInstantiationCount(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? 0 : metrics.instantiations.count();
+  }
+
+  public long getDestantiationCount(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? 0 : metrics.destantiations.count();
+  }
+
+  /**
+   * Gets a snapshot of the {@link Instantiator#fromInstance(Object)} latency
+   * histogram of {@code klass}.
+   */
+  public long[] getDestantiationHistogram(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    return metrics == null ? new long[Histogram.BUCKETS] : metrics.destantiations.snapshot();
+  }
+
+  public long getConverterInvocationCount(Type type) {
+    ConverterMetrics metrics = converters.get(type);
+    return metrics == null ? 0 : metrics.invocations.sum();
+  }
+
+  public long getConverterFailureCount(Type type) {
+    ConverterMetrics metrics = converters.get(type);
+    return metrics == null ? 0 : metrics.failures.sum();
+  }
+
+  /**
+   * Writes a human readable report of all metrics to {@code out}.
+   */
+  public void dump(Appendable out) throws IOException {
+    for (Entry<String, ClassMetrics> entry : sortByName(classes).entrySet()) {
+      ClassMetrics metrics = entry.getValue();
+      out.append(format("%s: %d build(s) in %dus (analysis %dus), " +
+          "%d instantiation(s), %d destantiation(s)\n",
+          entry.getKey(),
+          metrics.builds.sum(),
+          metrics.buildNanos.sum() / 1000,
+          metrics.analysisNanos.sum() / 1000,
+          metrics.instantiations.count(),
+          metrics.destantiations.count()));
+      metrics.instantiations.dump("newInstance", out);
+      metrics.destantiations.dump("fromInstance", out);
+    }
+    for (Entry<String, ConverterMetrics> entry : sortByName(converters).entrySet()) {
+      ConverterMetrics metrics = entry.getValue();
+      out.append(format("converter for %s: %d invocation(s), %d failure(s)\n",
+          entry.getKey(),
+          metrics.invocations.sum(),
+          metrics.failures.sum()));
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder();
+    try {
+      dump(buf);
+    } catch (IOException e) {
+      throw new IllegalStateException("StringBuilder does not throw", e);
+    }
+    return buf.toString();
+  }
+
+  private ClassMetrics metricsFor(Class<?> klass) {
+    ClassMetrics metrics = classes.get(klass);
+    if (metrics == null) {
+      ClassMetrics fresh = new ClassMetrics();
+      metrics = classes.putIfAbsent(klass, fresh);
+      if (metrics == null) {
+        metrics = fresh;
+      }
+    }
+    return metrics;
+  }
+
+  private ConverterMetrics metricsFor(Type type) {
+    ConverterMetrics metrics = converters.get(type);
+    if (metrics == null) {
+      ConverterMetrics fresh = new ConverterMetrics();
+      metrics = converters.putIfAbsent(type, fresh);
+      if (metrics == null) {
+        metrics = fresh;
+      }
+    }
+    return metrics;
+  }
+
+  private static <K, V> Map<String, V> sortByName(Map<K, V> metrics) {
+    ImmutableSortedMap.Builder<String, V> builder =
+        new ImmutableSortedMap.Builder<String, V>(Ordering.natural());
+    for (Entry<K, V> entry : metrics.entrySet()) {
+      builder.put(NAME.apply(entry.getKey()), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  private static final Function<Object, String> NAME = new Function<Object, String>() {
+    @Override
+    public String apply(Object key) {
+      return key instanceof Class<?> ? ((Class<?>) key).getName() : key.toString();
+    }
+  };
+
+  private static class ClassMetrics {
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder analysisNanos = new LongAdder();
+    private final Histogram instantiations = new Histogram();
+    private final Histogram destantiations = new Histogram();
+  }
+
+  private static class ConverterMetrics {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+  }
+
+  private static class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    void record(long durationNanos) {
+      int bucket = 64 - Long.numberOfLeadingZeros(Math.max(durationNanos, 0));
+      buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+    }
+
+    long count() {
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        count += buckets.get(i);
+      }
+      return count;
+    }
+
+    long[] snapshot() {
+      long[] snapshot = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        snapshot[i] = buckets.get(i);
+      }
+      return snapshot;
+    }
+
+    void dump(String name, Appendable out) throws IOException {
+      for (int i = 0; i < BUCKETS; i++) {
+        long count = buckets.get(i);
+        if (count != 0) {
+          out.append(format("  %s <%dns: %d\n", name, 1L << i, count));
+        }
+      }
+    }
+  }
+
+}
@@ -29,7 +29,9 @@ public class Instantiators {
   public static <T> Instantiator<T> createInstantiator(
       Class<T> klass, InstantiatorModule... modules) {
     Errors errors = new Errors();
-    for (Instantiator<T> instantiator : createInstantiator(errors, klass, modules)) {
+    Instantiator<T> instantiator =
+        createInstantiator(errors, klass, modules).getOrNull();
+    if (instantiator != null) {
       return instantiator;
     }
     errors.throwIfHasErrors();
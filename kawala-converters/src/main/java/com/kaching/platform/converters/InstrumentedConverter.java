@@ -0,0 +1,59 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converter reporting invocations and failures to an
+ * {@link InstantiatorListener}.
+ */
+class InstrumentedConverter<T> implements Converter<T> {
+
+  static <T> Converter<T> instrument(
+      Converter<T> converter, Type type, InstantiatorListener listener) {
+    return new InstrumentedConverter<T>(converter, type, listener);
+  }
+
+  private final Converter<T> delegate;
+  private final Type type;
+  private final InstantiatorListener listener;
+
+  InstrumentedConverter(
+      Converter<T> delegate, Type type, InstantiatorListener listener) {
+    this.delegate = delegate;
+    this.type = type;
+    this.listener = listener;
+  }
+
+  @Override
+  public T fromString(String representation) {
+    listener.converterInvoked(type);
+    try {
+      return delegate.fromString(representation);
+    } catch (RuntimeException e) {
+      listener.converterFailed(type, e);
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString(T value) {
+    listener.converterInvoked(type);
+    try {
+      return delegate.toString(value);
+    } catch (RuntimeException e) {
+      listener.converterFailed(type, e);
+      throw e;
+    }
+  }
+
+}
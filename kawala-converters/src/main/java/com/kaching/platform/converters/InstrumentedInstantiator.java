@@ -0,0 +1,75 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantiator reporting to an {@link InstantiatorListener}.
+ */
+class InstrumentedInstantiator<T> implements Instantiator<T> {
+
+  private final Instantiator<T> delegate;
+  private final Class<T> klass;
+  private final InstantiatorListener listener;
+
+  InstrumentedInstantiator(
+      Instantiator<T> delegate, Class<T> klass, InstantiatorListener listener) {
+    this.delegate = delegate;
+    this.klass = klass;
+    this.listener = listener;
+  }
+
+  @Override
+  public T newInstance(String... values) {
+    long start = System.nanoTime();
+    T instance = delegate.newInstance(values);
+    listener.instantiated(klass, System.nanoTime() - start);
+    return instance;
+  }
+
+  @Override
+  public T newInstance(Iterable<String> values) {
+    long start = System.nanoTime();
+    T instance = delegate.newInstance(values);
+    listener.instantiated(klass, System.nanoTime() - start);
+    return instance;
+  }
+
+  @Override
+  public T newInstance(Map<String, String> namedValues) {
+    long start = System.nanoTime();
+    T instance = delegate.newInstance(namedValues);
+    listener.instantiated(klass, System.nanoTime() - start);
+    return instance;
+  }
+
+  @Override
+  public List<String> fromInstance(T instance) {
+    long start = System.nanoTime();
+    List<String> values = delegate.fromInstance(instance);
+    listener.destantiated(klass, System.nanoTime() - start);
+    return values;
+  }
+
+  @Override
+  public Constructor<T> getConstructor() {
+    return delegate.getConstructor();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+}
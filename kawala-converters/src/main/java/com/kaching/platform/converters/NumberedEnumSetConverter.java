@@ -0,0 +1,45 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.lang.Long.parseLong;
+
+import java.util.Set;
+
+import com.kaching.platform.common.values.NumberedEnumSet;
+import com.kaching.platform.common.values.NumberedValue;
+
+/**
+ * A converter for sets of numbered enums, representing a set as a single
+ * integer whose bits are the numbers of its constants.
+ *
+ * @see NumberedEnumSet#toLong(Set)
+ */
+public class NumberedEnumSetConverter<E extends Enum<E> & NumberedValue>
+    extends NullHandlingConverter<Set<E>> {
+
+  private final NumberedEnumSet<E> codec;
+
+  public NumberedEnumSetConverter(Class<E> clazz) {
+    this.codec = new NumberedEnumSet<E>(clazz);
+  }
+
+  @Override
+  protected Set<E> fromNonNullableString(String representation) {
+    return codec.fromLong(parseLong(representation));
+  }
+
+  @Override
+  protected String nonNullableToString(Set<E> value) {
+    return Long.toString(codec.toLong(value));
+  }
+
+}
@@ -37,6 +37,7 @@ class StringConstructorConverter<T> implements Converter<T> {
         (constructor.getDeclaringClass().getModifiers() & ABSTRACT) == 0 &&
         parameterTypes.length == 1 &&
         parameterTypes[0].equals(String.class));
+    constructor.setAccessible(true);
     this.constructor = constructor;
   }
 
@@ -49,7 +50,6 @@ class StringConstructorConverter<T> implements Converter<T> {
   @SuppressWarnings("unchecked")
   public T fromString(String representation) {
     try {
-      constructor.setAccessible(true);
       return (T) constructor.newInstance(representation);
     } catch (IllegalArgumentException e) {
       throw new IllegalStateException(
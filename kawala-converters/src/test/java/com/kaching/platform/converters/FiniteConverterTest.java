@@ -11,11 +11,15 @@
 package com.kaching.platform.converters;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 
 
 public class FiniteConverterTest {
@@ -45,4 +49,24 @@ public class FiniteConverterTest {
     converter.toString(3);
   }
 
+  @Test
+  public void nullEntriesAreAccepted() throws Exception {
+    Map<String, Integer> conversion = Maps.newHashMap();
+    conversion.put("a", 1);
+    conversion.put(null, 2);
+    conversion.put("c", null);
+    Converter<Integer> converter = new FiniteConverter<Integer>(conversion);
+    assertEquals((Integer) 1, converter.fromString("a"));
+    assertEquals("a", converter.toString(1));
+    assertNull(converter.fromString(null));
+    assertNull(converter.toString(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullValueIsNotARepresentation() throws Exception {
+    Map<String, Integer> conversion = Maps.newHashMap();
+    conversion.put("c", null);
+    new FiniteConverter<Integer>(conversion).fromString("c");
+  }
+
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.kaching.platform.converters.Instantiators.createInstantiator;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.kaching.platform.common.Option;
+
+/**
+ * Verifies that instantiators and converters can be shared across threads.
+ */
+public class InstantiatorConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int ITERATIONS = 2000;
+
+  enum Side { BUY, SELL }
+
+  static class Order {
+    private final long id;
+    private final String symbol;
+    private final Side side;
+    private final Option<Integer> quantity;
+    private final Set<String> tags;
+    private final String note;
+    Order(long id, String symbol, Side side, Option<Integer> quantity,
+        Set<String> tags, @Optional("none") String note) {
+      this.id = id;
+      this.symbol = symbol;
+      this.side = side;
+      this.quantity = quantity;
+      this.tags = tags;
+      this.note = note;
+    }
+  }
+
+  @Test
+  public void sharedInstantiatorUnderContention() throws Exception {
+    final Instantiator<Order> instantiator = createInstantiator(Order.class);
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Integer>> futures = newArrayList();
+      for (int t = 0; t < THREADS; t++) {
+        final int thread = t;
+        futures.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            start.await();
+            int checked = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+              long id = thread * ITERATIONS + i;
+              boolean even = i % 2 == 0;
+              Order order = even ?
+                  instantiator.newInstance(
+                      Long.toString(id), "WLTH", "buy", Integer.toString(i), "a,b", null) :
+                  instantiator.newInstance(ImmutableMap.<String, String> of(
+                      "id", Long.toString(id), "symbol", "WLTH", "side", "sell", "tags", ""));
+              assertEquals(id, order.id);
+              assertEquals("WLTH", order.symbol);
+              assertEquals(even ? Side.BUY : Side.SELL, order.side);
+              assertEquals(even ? Option.some(i) : Option.none(), order.quantity);
+              assertEquals(even ? ImmutableSet.of("a", "b") : ImmutableSet.of(), order.tags);
+              assertEquals("none", order.note);
+
+              List<String> values = instantiator.fromInstance(order);
+              assertEquals(Long.toString(id), values.get(0));
+              assertEquals(even ? Integer.toString(i) : null, values.get(3));
+              assertEquals(order.id, instantiator.newInstance(values).id);
+              checked++;
+            }
+            return checked;
+          }
+        }));
+      }
+      start.countDown();
+      for (Future<Integer> future : futures) {
+        assertEquals((Integer) ITERATIONS, future.get(30, SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void instantiatorsAndConvertersOnlyHaveFinalFields() {
+    for (Class<?> klass : new Class<?>[] {
+        InstantiatorImpl.class,
+        InstrumentedInstantiator.class,
+        InstrumentedConverter.class,
+        FiniteConverter.class,
+        EnumConverter.class,
+        NullHandlingConverter.class,
+        StringConstructorConverter.class,
+        CollectionOfElementsConverter.class,
+        CompositeInstantiatorListener.class }) {
+      for (Field field : klass.getDeclaredFields()) {
+        if (!field.isSynthetic()) {
+          assertTrue(
+              field + " should be final",
+              Modifier.isFinal(field.getModifiers()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void finiteConverterDoesNotObserveLaterChanges() {
+    Map<String, Integer> conversion = newHashMap();
+    conversion.put("one", 1);
+    FiniteConverter<Integer> converter = new FiniteConverter<Integer>(conversion);
+    conversion.put("two", 2);
+    assertEquals((Integer) 1, converter.fromString("one"));
+    try {
+      converter.fromString("two");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+}
@@ -28,20 +28,20 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Constructor;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 
 import com.kaching.platform.common.Errors;
+import com.kaching.platform.common.OptionLong;
 
 public class InstantiatorImplTest {
 
   @Test
   public void newInstanceForObject() throws Exception {
     assertNotNull(
-        new InstantiatorImpl<Object>(Object.class.getConstructor(), null, null, new BitSet(), new BitSet(), null, null, null).newInstance());
+        new InstantiatorImpl<Object>(Object.class.getConstructor(), null, null, new boolean[0], new boolean[0], null, null, null, null, null).newInstance());
   }
 
   @Test
@@ -52,8 +52,10 @@ public class InstantiatorImplTest {
             String.class.getConstructor(String.class),
             new Converter[] { C_STRING },
             null,
-            new BitSet(),
-            new BitSet(),
+            new boolean[1],
+            new boolean[1],
+            null,
+            null,
             null,
             null,
             null).newInstance("hello"));
@@ -62,7 +64,7 @@ public class InstantiatorImplTest {
   @Test
   public void wrongNumberOfArguments1() throws Exception {
     InstantiatorImpl<String> instantiator =
-        new InstantiatorImpl<String>(String.class.getConstructor(String.class), null, null, new BitSet(), new BitSet(), null, null, null);
+        new InstantiatorImpl<String>(String.class.getConstructor(String.class), null, null, new boolean[0], new boolean[0], null, null, null, null, null);
     try {
       instantiator.newInstance();
       fail();
@@ -78,8 +80,10 @@ public class InstantiatorImplTest {
             String.class.getConstructor(String.class),
             new Converter[] { C_STRING },
             null,
-            new BitSet(),
-            new BitSet(),
+            new boolean[1],
+            new boolean[1],
+            null,
+            null,
             null,
             null,
             null);
@@ -98,8 +102,10 @@ public class InstantiatorImplTest {
             String.class.getConstructor(String.class),
             new Converter[] { C_STRING },
             null,
-            new BitSet(),
-            new BitSet(),
+            new boolean[1],
+            new boolean[1],
+            null,
+            null,
             null,
             null,
             null);
@@ -118,8 +124,10 @@ public class InstantiatorImplTest {
           String.class.getConstructor(String.class),
           new Converter[] { C_STRING },
           null,
-          new BitSet(),
-          new BitSet(),
+          new boolean[1],
+          new boolean[1],
+          null,
+          null,
           null,
           null,
           null);
@@ -138,8 +146,10 @@ public class InstantiatorImplTest {
           String.class.getConstructor(String.class),
           new Converter[] { new ConverterOnlyProducesNull() },
           null,
-          new BitSet(),
-          new BitSet(),
+          new boolean[1],
+          new boolean[1],
+          null,
+          null,
           null,
           null,
           null);
@@ -154,6 +164,31 @@ public class InstantiatorImplTest {
     }
   }
 
+  @Test
+  public void optionLongParsedNatively() throws Exception {
+    boolean[] flagged = new boolean[] { true };
+    WrappedOptionLong instance = new InstantiatorImpl<WrappedOptionLong>(
+        WrappedOptionLong.class.getConstructor(OptionLong.class),
+        new Converter[] { new ConverterOnlyProducesNull() },
+        null,
+        new boolean[1],
+        flagged,
+        flagged,
+        flagged,
+        null,
+        null,
+        null)
+        .newInstance("403");
+    assertEquals(OptionLong.some(403L), instance.value);
+  }
+
+  static class WrappedOptionLong {
+    private final OptionLong value;
+    public WrappedOptionLong(OptionLong value) {
+      this.value = value;
+    }
+  }
+
   static class ConverterOnlyProducesNull implements Converter<String> {
     @Override public String toString(String value) { return null; }
     @Override public String fromString(String representation) { return null; }
@@ -161,14 +196,15 @@ public class InstantiatorImplTest {
 
   @Test
   public void optionalArgument() throws Exception {
-    BitSet optionality = new BitSet();
-    optionality.set(0);
+    boolean[] optionality = new boolean[] { true };
     WrappedString instance = new InstantiatorImpl<WrappedString>(
         WrappedString.class.getConstructor(String.class),
         new Converter[] { C_STRING },
         null,
         optionality,
-        new BitSet(),
+        new boolean[1],
+        null,
+        null,
         null,
         null,
         null)
@@ -186,14 +222,15 @@ public class InstantiatorImplTest {
 
   @Test
   public void optionalArgumentWithDefault() throws Exception {
-    BitSet optionality = new BitSet();
-    optionality.set(0);
+    boolean[] optionality = new boolean[] { true };
     WrappedLong instance = new InstantiatorImpl<WrappedLong>(
         WrappedLong.class.getConstructor(Long.TYPE),
         new Converter[] { C_LONG },
         null,
         optionality,
-        new BitSet(),
+        new boolean[1],
+        null,
+        null,
         new String[] { "403" },
         null,
         null)
@@ -219,8 +256,10 @@ public class InstantiatorImplTest {
           C_INT, C_DOUBLE, C_SHORT, C_CHAR,
           C_LONG, C_BOOLEAN, C_FLOAT, C_BYTE },
         null,
-        new BitSet(),
-        new BitSet(),
+        new boolean[8],
+        new boolean[8],
+        null,
+        null,
         null,
         null,
         null)
@@ -293,28 +332,28 @@ public class InstantiatorImplTest {
   public void getConstructor() throws Exception {
     Constructor<Object> constructor = Object.class.getConstructor();
     InstantiatorImpl<Object> instantiator = new InstantiatorImpl<Object>(
-        constructor, null, null, new BitSet(), new BitSet(), null, null, null);
+        constructor, null, null, new boolean[0], new boolean[0], null, null, null, null, null);
     assertTrue(constructor == instantiator.getConstructor());
   }
 
   @Test(expected = UnsupportedOperationException.class)
   public void fromInstanceByNameThrowsIfNoParamaterNames() throws Exception {
     InstantiatorImpl<String> instantiator = new InstantiatorImpl<String>(
-        null, null, null, null, null, null, null, null);
+        null, null, null, null, null, null, null, null, null, null);
     instantiator.newInstance((Map<String, String>) null);
   }
 
   @Test
   public void toString1() throws Exception {
     InstantiatorImpl<Object> instantiator = new InstantiatorImpl<Object>(
-        Object.class.getConstructor(), null, null, new BitSet(), new BitSet(), null, null, null);
+        Object.class.getConstructor(), null, null, new boolean[0], new boolean[0], null, null, null, null, null);
     assertEquals("instantiator java.lang.Object()", instantiator.toString());
   }
 
   @Test
   public void toString2() throws Exception {
     InstantiatorImpl<String> instantiator = new InstantiatorImpl<String>(
-        String.class.getConstructor(byte[].class), null, null, new BitSet(), new BitSet(), null, null, null);
+        String.class.getConstructor(byte[].class), null, null, new boolean[0], new boolean[0], null, null, null, null, null);
     assertEquals("instantiator java.lang.String(byte[])", instantiator.toString());
   }
 
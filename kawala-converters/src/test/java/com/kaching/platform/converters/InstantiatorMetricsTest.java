@@ -0,0 +1,172 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.kaching.platform.converters.Instantiators.createInstantiator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Type;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.inject.TypeLiteral;
+import com.kaching.platform.common.Option;
+import com.kaching.platform.common.OptionLong;
+
+public class InstantiatorMetricsTest {
+
+  private InstantiatorMetrics metrics;
+  private Instantiator<Measured> instantiator;
+
+  @Before
+  public void before() {
+    metrics = new InstantiatorMetrics();
+    instantiator = createInstantiator(Measured.class, new AbstractInstantiatorModule() {
+      @Override
+      protected void configure() {
+        registerListener(metrics);
+      }
+    });
+  }
+
+  static class Measured {
+    private final int count;
+    private final String name;
+    Measured(int count, String name) {
+      this.count = count;
+      this.name = name;
+    }
+  }
+
+  @Test
+  public void build() {
+    assertEquals(1, metrics.getBuildCount(Measured.class));
+    assertTrue(0 < metrics.getBuildNanos(Measured.class));
+    assertTrue(0 < metrics.getAnalysisNanos(Measured.class));
+    assertTrue(metrics.getAnalysisNanos(Measured.class) <= metrics.getBuildNanos(Measured.class));
+  }
+
+  @Test
+  public void instantiationsAndConverterInvocations() {
+    instantiator.newInstance("1", "one");
+    instantiator.newInstance(newArrayList("2", "two"));
+    assertEquals(2, metrics.getInstantiationCount(Measured.class));
+    assertEquals(2, metrics.getConverterInvocationCount(Integer.TYPE));
+    assertEquals(2, metrics.getConverterInvocationCount(String.class));
+    assertEquals(0, metrics.getConverterFailureCount(Integer.TYPE));
+  }
+
+  static class MeasuredOptionLong {
+    private final OptionLong id;
+    MeasuredOptionLong(OptionLong id) {
+      this.id = id;
+    }
+  }
+
+  @Test
+  public void optionLongIsParsedNativelyWhenInstrumented() {
+    Instantiator<MeasuredOptionLong> instrumented = createInstantiator(
+        MeasuredOptionLong.class, new AbstractInstantiatorModule() {
+          @Override
+          protected void configure() {
+            registerListener(metrics);
+          }
+        });
+    assertEquals(OptionLong.some(9876543210L), instrumented.newInstance("9876543210").id);
+    assertEquals(1, metrics.getInstantiationCount(MeasuredOptionLong.class));
+    assertEquals(0, metrics.getConverterInvocationCount(Long.class));
+  }
+
+  @Test
+  public void converterFailures() {
+    try {
+      instantiator.newInstance("not a number", "one");
+      fail();
+    } catch (NumberFormatException e) {
+      // expected
+    }
+    assertEquals(1, metrics.getConverterInvocationCount(Integer.TYPE));
+    assertEquals(1, metrics.getConverterFailureCount(Integer.TYPE));
+    assertEquals(0, metrics.getInstantiationCount(Measured.class));
+  }
+
+  @Test
+  public void destantiations() {
+    assertEquals(newArrayList("3", "three"),
+        instantiator.fromInstance(new Measured(3, "three")));
+    assertEquals(1, metrics.getDestantiationCount(Measured.class));
+    long total = 0;
+    for (long count : metrics.getDestantiationHistogram(Measured.class)) {
+      total += count;
+    }
+    assertEquals(1, total);
+  }
+
+  @Test
+  public void dump() {
+    instantiator.newInstance("1", "one");
+    String dump = metrics.toString();
+    assertTrue(dump, dump.startsWith(Measured.class.getName() +
+        ": 1 build(s) in "));
+    assertTrue(dump, dump.contains("1 instantiation(s), 0 destantiation(s)\n"));
+    assertTrue(dump, dump.contains("converter for int: 1 invocation(s), 0 failure(s)\n"));
+    assertTrue(dump, dump.contains(
+        "converter for java.lang.String: 1 invocation(s), 0 failure(s)\n"));
+  }
+
+  @Test
+  public void noListenerMeansNoInstrumentation() {
+    assertEquals(InstantiatorImpl.class,
+        createInstantiator(Measured.class).getClass());
+    assertEquals(InstrumentedInstantiator.class, instantiator.getClass());
+  }
+
+  @Test
+  public void severalListeners() {
+    final InstantiatorMetrics other = new InstantiatorMetrics();
+    Instantiator<Measured> twice = createInstantiator(Measured.class, new AbstractInstantiatorModule() {
+      @Override
+      protected void configure() {
+        registerListener(metrics);
+        registerListener(other);
+      }
+    });
+    twice.newInstance("1", "one");
+    assertEquals(1, metrics.getInstantiationCount(Measured.class));
+    assertEquals(1, other.getInstantiationCount(Measured.class));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void bindersPredatingListenersStillCompile() {
+    ConverterBinder binder = new ConverterBinder() {
+      @Override
+      public <T> ConverterSpecifier<T> registerFor(Class<T> type) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public <T> ConverterSpecifier<T> registerFor(TypeLiteral<T> type) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void register(Function<Type, Option<? extends Converter<?>>> function) {
+      }
+    };
+    binder.registerListener(metrics);
+  }
+
+}
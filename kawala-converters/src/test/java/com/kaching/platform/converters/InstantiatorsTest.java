@@ -32,6 +32,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.inject.TypeLiteral;
 import com.kaching.platform.common.Option;
+import com.kaching.platform.common.OptionLong;
 import com.kaching.platform.converters.someotherpackage.ValueWithConverterAsInnerClass;
 
 public class InstantiatorsTest {
@@ -182,6 +183,55 @@ public class InstantiatorsTest {
         instantiator.fromInstance(instance));
   }
 
+  static class ConstructMe6OptionLong {
+    private final OptionLong id;
+    private final OptionLong parentId;
+    ConstructMe6OptionLong(OptionLong id, OptionLong parentId) {
+      this.id = id;
+      this.parentId = parentId;
+    }
+  }
+
+  @Test
+  public void constructMe6OptionLong() {
+    Instantiator<ConstructMe6OptionLong> instantiator = Instantiators
+        .createInstantiator(ConstructMe6OptionLong.class);
+
+    ConstructMe6OptionLong instance = instantiator
+        .newInstance("9876543210", null);
+    assertEquals(OptionLong.some(9876543210L), instance.id);
+    assertTrue(instance.parentId.isEmpty());
+
+    assertEquals(
+        asList("9876543210", null),
+        instantiator.fromInstance(instance));
+  }
+
+  @Test
+  public void constructMe6OptionLongWithBoundConverter() {
+    Instantiator<ConstructMe6OptionLong> instantiator = Instantiators
+        .createInstantiator(ConstructMe6OptionLong.class, new AbstractInstantiatorModule() {
+          @Override
+          protected void configure() {
+            registerFor(Long.class).converter(new NullHandlingConverter<Long>() {
+              @Override
+              protected Long fromNonNullableString(String representation) {
+                return Long.parseLong(representation, 16);
+              }
+              @Override
+              protected String nonNullableToString(Long value) {
+                return Long.toHexString(value);
+              }
+            });
+          }
+        });
+
+    ConstructMe6OptionLong instance = instantiator.newInstance("ff", "10");
+    assertEquals(OptionLong.some(255), instance.id);
+    assertEquals(OptionLong.some(16), instance.parentId);
+    assertEquals(asList("ff", "10"), instantiator.fromInstance(instance));
+  }
+
   static class ArgumentAreNotSavedToFields {
     private final int is;
     private final int isToo;
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.converters;
+
+import static java.util.EnumSet.noneOf;
+import static java.util.EnumSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.kaching.platform.common.values.NumberedValue;
+
+public class NumberedEnumSetConverterTest {
+
+  private Converter<Set<Flag>> converter;
+
+  @Before
+  public void before() throws Exception {
+    converter = new NumberedEnumSetConverter<Flag>(Flag.class);
+  }
+
+  @Test
+  public void fromAndTo() throws Exception {
+    assertEquals(of(Flag.ONE, Flag.FOUR), converter.fromString("18"));
+    assertEquals(noneOf(Flag.class), converter.fromString("0"));
+    assertEquals("18", converter.toString(of(Flag.ONE, Flag.FOUR)));
+    assertEquals("0", converter.toString(noneOf(Flag.class)));
+  }
+
+  @Test
+  public void nulls() throws Exception {
+    assertNull(converter.fromString(null));
+    assertNull(converter.toString(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromUnknownNumber() throws Exception {
+    converter.fromString("1");
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void fromNonNumeric() throws Exception {
+    converter.fromString("ONE,FOUR");
+  }
+
+  enum Flag implements NumberedValue {
+    ONE(1), FOUR(4);
+
+    private final int number;
+
+    private Flag(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int getNumber() {
+      return number;
+    }
+  }
+
+}
@@ -13,7 +13,7 @@ package com.kaching.platform.guice;
 import java.lang.reflect.Type;
 
 import com.google.inject.TypeLiteral;
-import com.kaching.platform.common.types.ParameterizedTypeImpl;
+import com.kaching.platform.common.types.Types;
 
 
 /**
@@ -31,7 +31,7 @@ public final class TypeLiterals {
    */
   @SuppressWarnings("unchecked")
   public static <T> TypeLiteral<T> get(Class<T> type, Type... parameters) {
-    return (TypeLiteral<T>) TypeLiteral.get(new ParameterizedTypeImpl(type, parameters));
+    return (TypeLiteral<T>) TypeLiteral.get(Types.newParameterizedType(type, parameters));
   }
 
   /**
@@ -65,6 +65,14 @@ public class TypeLiteralsTest {
     assertEquals(a, b);
   }
 
+  @Test
+  public void get6() throws Exception {
+    TypeLiteral<?> expected = new TypeLiteral<Map.Entry<String, Foo>>() {};
+    TypeLiteral<?> actual = TypeLiterals.get(Map.Entry.class, String.class, Foo.class);
+
+    assertEquals(expected, actual);
+  }
+
   @Test
   public void toString1() throws Exception {
     assertEquals("java.util.List<java.lang.Double>",
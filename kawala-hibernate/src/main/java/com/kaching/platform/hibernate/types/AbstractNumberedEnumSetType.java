@@ -0,0 +1,121 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.hibernate.types;
+
+import static java.sql.Types.BIGINT;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.hibernate.HibernateException;
+import org.hibernate.usertype.UserType;
+
+import com.kaching.platform.common.values.NumberedEnumSet;
+import com.kaching.platform.common.values.NumberedValue;
+
+/**
+ * An abstract hibernate type storing sets of numbered enums, such as flags,
+ * in a single integer column whose bits are the numbers of the constants.
+ * Sets are mutable values: hibernate keeps an {@link EnumSet} copy of the
+ * loaded set, so that entities modifying their set in place are seen dirty.
+ * Concrete types provide the enum class:
+ * <pre>
+ * public class AccountFlagsType
+ *     extends AbstractNumberedEnumSetType&lt;AccountFlag&gt; {
+ *   public AccountFlagsType() {
+ *     super(AccountFlag.class);
+ *   }
+ * }</pre>
+ *
+ * @see NumberedEnumSet#toLong(Set)
+ */
+public abstract class AbstractNumberedEnumSetType<E extends Enum<E> & NumberedValue>
+    extends AbstractType implements UserType {
+
+  private static final int[] SQL_TYPES = { BIGINT };
+
+  private final Class<E> clazz;
+  private final NumberedEnumSet<E> codec;
+
+  protected AbstractNumberedEnumSetType(Class<E> clazz) {
+    this.clazz = clazz;
+    this.codec = new NumberedEnumSet<E>(clazz);
+  }
+
+  public final Set<E> nullSafeGet(ResultSet rs, String[] names, Object owner)
+      throws HibernateException, SQLException {
+    long value = rs.getLong(names[0]);
+    // deferred call to wasNull
+    // http://java.sun.com/j2se/1.5.0/docs/api/java/sql/ResultSet.html#wasNull()
+    if (rs.wasNull()) {
+      return null;
+    } else {
+      return codec.fromLong(value);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public final void nullSafeSet(PreparedStatement st, Object value, int index)
+      throws HibernateException, SQLException {
+    if (value == null) {
+      st.setNull(index, BIGINT);
+    } else {
+      st.setLong(index, codec.toLong((Set<E>) value));
+    }
+  }
+
+  /**
+   * Copies the set into an {@link EnumSet}, whatever the class of the set
+   * assigned by the entity.
+   */
+  @SuppressWarnings("unchecked")
+  public final Object deepCopy(Object value) {
+    if (value == null) {
+      return null;
+    }
+    Set<E> set = (Set<E>) value;
+    return set.isEmpty() ? EnumSet.noneOf(clazz) : EnumSet.copyOf(set);
+  }
+
+  /**
+   * Returns <tt>true</tt>, sets being modifiable in place.
+   */
+  public final boolean isMutable() {
+    return true;
+  }
+
+  public final Serializable disassemble(Object value) throws HibernateException {
+    return (Serializable) deepCopy(value);
+  }
+
+  public final Object assemble(Serializable cached, Object owner)
+      throws HibernateException {
+    return deepCopy(cached);
+  }
+
+  public final Object replace(Object original, Object target, Object owner)
+      throws HibernateException {
+    return deepCopy(original);
+  }
+
+  public final Class<?> returnedClass() {
+    return Set.class;
+  }
+
+  public final int[] sqlTypes() {
+    return SQL_TYPES;
+  }
+
+}
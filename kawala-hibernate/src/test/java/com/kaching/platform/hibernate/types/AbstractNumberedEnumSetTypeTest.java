@@ -0,0 +1,164 @@
+/**
+ * Copyright 2010 Wealthfront Inc. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0 Unless required by applicable law
+ * or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.kaching.platform.hibernate.types;
+
+import static java.sql.Types.BIGINT;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.EnumSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.Sequence;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.kaching.platform.common.values.NumberedValue;
+
+public class AbstractNumberedEnumSetTypeTest {
+
+  private Mockery mockery;
+  private AbstractNumberedEnumSetType<Flag> type;
+
+  @Before
+  public void before() {
+    mockery = new Mockery();
+    type = new AbstractNumberedEnumSetType<Flag>(Flag.class) {};
+  }
+
+  @Test
+  public void getButWasNull() throws Exception {
+    final ResultSet rs = mockery.mock(ResultSet.class);
+    final Sequence execution = mockery.sequence("execution");
+    mockery.checking(new Expectations() {{
+      one(rs).getLong(with(equal("name0here")));
+          inSequence(execution);
+          will(returnValue(0L));
+      one(rs).wasNull();
+          inSequence(execution);
+          will(returnValue(true));
+    }});
+
+    assertNull(type.nullSafeGet(rs, new String[] { "name0here" }, null));
+
+    mockery.assertIsSatisfied();
+  }
+
+  @Test
+  public void getHadData() throws Exception {
+    final ResultSet rs = mockery.mock(ResultSet.class);
+    final Sequence execution = mockery.sequence("execution");
+    mockery.checking(new Expectations() {{
+      one(rs).getLong(with(equal("name0here")));
+          inSequence(execution);
+          will(returnValue(5L));
+      one(rs).wasNull();
+          inSequence(execution);
+          will(returnValue(false));
+    }});
+
+    Set<Flag> value = type.nullSafeGet(rs, new String[] { "name0here" }, null);
+    assertEquals(of(Flag.ZERO, Flag.TWO), value);
+
+    mockery.assertIsSatisfied();
+  }
+
+  @Test
+  public void modificationsInPlaceAreDirty() throws Exception {
+    final ResultSet rs = mockery.mock(ResultSet.class);
+    mockery.checking(new Expectations() {{
+      one(rs).getLong("name0here"); will(returnValue(1L));
+      one(rs).wasNull(); will(returnValue(false));
+    }});
+
+    assertTrue(type.isMutable());
+    Set<Flag> loaded = type.nullSafeGet(rs, new String[] { "name0here" }, null);
+    Object snapshot = type.deepCopy(loaded);
+    loaded.add(Flag.TWO);
+    assertFalse(type.equals(snapshot, loaded));
+    assertEquals(of(Flag.ZERO), snapshot);
+  }
+
+  @Test
+  public void deepCopy() throws Exception {
+    Set<Flag> assigned = newHashSet(Flag.TWO);
+    Object copy = type.deepCopy(assigned);
+    assertTrue(copy instanceof EnumSet);
+    assertEquals(assigned, copy);
+    assigned.add(Flag.ZERO);
+    assertEquals(of(Flag.TWO), copy);
+
+    assertEquals(EnumSet.noneOf(Flag.class), type.deepCopy(newHashSet()));
+    assertNull(type.deepCopy(null));
+  }
+
+  @Test
+  public void disassembleAssembleAndReplaceCopy() throws Exception {
+    Set<Flag> set = of(Flag.ZERO);
+    Serializable cached = type.disassemble(set);
+    assertNotSame(set, cached);
+    assertEquals(set, cached);
+    assertNotSame(cached, type.assemble(cached, null));
+    assertEquals(set, type.assemble(cached, null));
+    assertNotSame(set, type.replace(set, null, null));
+    assertEquals(set, type.replace(set, null, null));
+  }
+
+  @Test
+  public void setNull() throws Exception {
+    final PreparedStatement st = mockery.mock(PreparedStatement.class);
+    mockery.checking(new Expectations() {{
+      one(st).setNull(3, BIGINT);
+    }});
+
+    type.nullSafeSet(st, null, 3);
+
+    mockery.assertIsSatisfied();
+  }
+
+  @Test
+  public void setValue() throws Exception {
+    final PreparedStatement st = mockery.mock(PreparedStatement.class);
+    mockery.checking(new Expectations() {{
+      one(st).setLong(3, 4L);
+    }});
+
+    type.nullSafeSet(st, of(Flag.TWO), 3);
+
+    mockery.assertIsSatisfied();
+  }
+
+  enum Flag implements NumberedValue {
+    ZERO(0), TWO(2);
+
+    private final int number;
+
+    private Flag(int number) {
+      this.number = number;
+    }
+
+    @Override
+    public int getNumber() {
+      return number;
+    }
+  }
+
+}